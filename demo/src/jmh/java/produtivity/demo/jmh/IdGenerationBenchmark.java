@@ -0,0 +1,33 @@
+package produtivity.demo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import produtivity.demo.entity.id.TimeOrderedUuid;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Entity id generation, single-threaded and under contention on the shared counter
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdGenerationBenchmark {
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return TimeOrderedUuid.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID timeOrderedContended() {
+        return TimeOrderedUuid.next();
+    }
+
+    @Benchmark
+    public UUID random() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,84 @@
+package produtivity.demo.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import produtivity.demo.dto.CategoryView;
+import produtivity.demo.dto.DashboardView;
+import produtivity.demo.dto.DashboardView.ProjectBoard;
+import produtivity.demo.dto.TagView;
+import produtivity.demo.dto.TaskCard;
+import produtivity.demo.entity.Project.ProjectStatus;
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the dashboard's project/task graph the way the API does, with
+ * an ObjectMapper configured like Spring Boot's (java.time as ISO strings).
+ * Entities themselves are never serialized; their bidirectional links would
+ * recurse, so controllers return these views instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "20"})
+    int projects;
+
+    @Param({"50"})
+    int tasksPerProject;
+
+    private ObjectMapper objectMapper;
+    private DashboardView dashboard;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        CategoryView category = new CategoryView(UUID.randomUUID(), "Work", "#6B7280", "briefcase");
+        List<TagView> tags = List.of(
+                new TagView(UUID.randomUUID(), "focus", "#8B5CF6"),
+                new TagView(UUID.randomUUID(), "review", "#10B981"));
+        ZonedDateTime due = ZonedDateTime.now();
+        List<ProjectBoard> boards = new ArrayList<>();
+        for (int p = 0; p < projects; p++) {
+            List<TaskCard> cards = new ArrayList<>();
+            for (int t = 0; t < tasksPerProject; t++) {
+                cards.add(new TaskCard(UUID.randomUUID(), "Task " + t + " of project " + p, TaskStatus.IN_PROGRESS,
+                        TaskPriority.HIGH, due.plusDays(t), 60, 25, (t + 1L) << 20, category, tags));
+            }
+            boards.add(new ProjectBoard(UUID.randomUUID(), "Project " + p, "#3B82F6", ProjectStatus.ACTIVE,
+                    cards.size(), 0, cards));
+        }
+        dashboard = new DashboardView(UUID.randomUUID(), boards);
+        json = objectMapper.writeValueAsBytes(dashboard);
+    }
+
+    @Benchmark
+    public byte[] serializeDashboard() throws Exception {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+
+    @Benchmark
+    public DashboardView deserializeDashboard() throws Exception {
+        return objectMapper.readValue(json, DashboardView.class);
+    }
+}
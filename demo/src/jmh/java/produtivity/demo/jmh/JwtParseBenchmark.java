@@ -0,0 +1,72 @@
+package produtivity.demo.jmh;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import produtivity.demo.security.JwtTokenProvider;
+import produtivity.demo.security.TokenPrincipal;
+import produtivity.demo.security.VerifiedTokenCache;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// HS256 parse and signature verification of an access token, the per-request cost of JWT authentication,
+// against the verified-token cache that lets repeat requests skip it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtParseBenchmark {
+
+    private static final byte[] SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET);
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        token = Jwts.builder()
+                .setSubject(UUID.randomUUID().toString())
+                .claim("username", "benchmark")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(key)
+                .compact();
+        verifiedTokens = new VerifiedTokenCache(new JwtTokenProvider(new String(SECRET, StandardCharsets.UTF_8),
+                TimeUnit.DAYS.toMillis(1), TimeUnit.MINUTES.toMillis(1)), new SimpleMeterRegistry(), 1_000);
+        verifiedTokens.verify(token);
+    }
+
+    @Benchmark
+    public Claims parseAndVerify() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // The filter's fast path for a token it has already verified: a SHA-256 digest and a cache lookup
+    @Benchmark
+    public TokenPrincipal cachedVerify() {
+        return verifiedTokens.verify(token);
+    }
+
+    // What a filter pays if it derives the key and builds the parser per request
+    @Benchmark
+    public Claims buildParserAndVerify() {
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET)).build()
+                .parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,72 @@
+package produtivity.demo.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.service.rollup.DailyBuckets;
+import produtivity.demo.service.rollup.RollupAccumulator;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-session aggregation as done by the rollup maintainer and rebuild job:
+ * per-day splitting in the user's timezone and summing into buckets. A share
+ * of the sessions cross midnight to exercise the multi-day path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimeAggregationBenchmark {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    @Param({"100", "10000"})
+    int sessions;
+
+    private List<TimeSessionSnapshot> snapshots;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        UUID userId = UUID.randomUUID();
+        List<UUID> projects = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        ZonedDateTime base = ZonedDateTime.of(2025, 1, 1, 8, 0, 0, 0, ZONE);
+        snapshots = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            ZonedDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 90));
+            int minutes = 5 + random.nextInt(random.nextInt(10) == 0 ? 600 : 90);
+            snapshots.add(new TimeSessionSnapshot(UUID.randomUUID(), userId, projects.get(i % projects.size()), null,
+                    start, start.plusMinutes(minutes), minutes, false));
+        }
+    }
+
+    @Benchmark
+    public Map<LocalDate, Integer> splitOne() {
+        TimeSessionSnapshot s = snapshots.get(0);
+        return DailyBuckets.split(s.startTime(), s.effectiveEndTime(), s.duration(), ZONE);
+    }
+
+    @Benchmark
+    public int accumulate() {
+        RollupAccumulator accumulator = new RollupAccumulator();
+        for (TimeSessionSnapshot snapshot : snapshots) {
+            accumulator.add(snapshot, ZONE, 1);
+        }
+        return accumulator.entries().size();
+    }
+}
@@ -0,0 +1,15 @@
+package produtivity.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caches are declared up front in spring.cache.cache-names so their metrics are bound at startup
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USER_CATEGORIES = "user-categories";
+    public static final String USER_TAGS = "user-tags";
+    public static final String USER_PREFERENCES = "user-preferences";
+    public static final String USER_PROJECTS = "user-projects";
+}
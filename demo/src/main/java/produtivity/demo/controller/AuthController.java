@@ -0,0 +1,26 @@
+package produtivity.demo.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.dto.LoginRequest;
+import produtivity.demo.dto.LoginResponse;
+import produtivity.demo.security.LoginService;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final LoginService loginService;
+
+    public AuthController(LoginService loginService) {
+        this.loginService = loginService;
+    }
+
+    @PostMapping("/login")
+    public LoginResponse login(@Valid @RequestBody LoginRequest request) {
+        return loginService.login(request);
+    }
+}
@@ -0,0 +1,126 @@
+package produtivity.demo.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.CategoryRequest;
+import produtivity.demo.dto.CategoryView;
+import produtivity.demo.dto.NameSuggestion;
+import produtivity.demo.dto.PreferenceSet;
+import produtivity.demo.dto.PreferencesUpsertRequest;
+import produtivity.demo.dto.TagRequest;
+import produtivity.demo.dto.TagView;
+import produtivity.demo.service.catalog.Autocomplete;
+import produtivity.demo.service.catalog.CatalogService;
+import produtivity.demo.service.catalog.UserCatalog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Categories, tags, preferences and name autocomplete; reads are served from the per-user caches
+@RestController
+@RequestMapping("/users/{userId}")
+public class CatalogController {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final UserCatalog userCatalog;
+    private final CatalogService catalogService;
+    private final Autocomplete autocomplete;
+
+    public CatalogController(UserCatalog userCatalog, CatalogService catalogService, Autocomplete autocomplete) {
+        this.userCatalog = userCatalog;
+        this.catalogService = catalogService;
+        this.autocomplete = autocomplete;
+    }
+
+    @GetMapping("/categories")
+    public List<CategoryView> categories(@PathVariable UUID userId) {
+        return userCatalog.categories(userId);
+    }
+
+    @PostMapping("/categories")
+    public ResponseEntity<CategoryView> createCategory(@PathVariable UUID userId,
+                                                       @Valid @RequestBody CategoryRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(catalogService.createCategory(userId, request));
+    }
+
+    @DeleteMapping("/categories/{categoryId}")
+    public ResponseEntity<Void> deleteCategory(@PathVariable UUID userId, @PathVariable UUID categoryId) {
+        catalogService.deleteCategory(userId, categoryId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/tags")
+    public List<TagView> tags(@PathVariable UUID userId) {
+        return userCatalog.tags(userId);
+    }
+
+    @PostMapping("/tags")
+    public ResponseEntity<TagView> createTag(@PathVariable UUID userId, @Valid @RequestBody TagRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(catalogService.createTag(userId, request));
+    }
+
+    @DeleteMapping("/tags/{tagId}")
+    public ResponseEntity<Void> deleteTag(@PathVariable UUID userId, @PathVariable UUID tagId) {
+        catalogService.deleteTag(userId, tagId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/autocomplete/tags")
+    public List<NameSuggestion> suggestTags(@PathVariable UUID userId,
+                                            @RequestParam String q,
+                                            @RequestParam(defaultValue = "10") int limit) {
+        return autocomplete.tags(userId, q, suggestionLimit(limit));
+    }
+
+    @GetMapping("/autocomplete/projects")
+    public List<NameSuggestion> suggestProjects(@PathVariable UUID userId,
+                                                @RequestParam String q,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return autocomplete.projects(userId, q, suggestionLimit(limit));
+    }
+
+    // The version doubles as ETag so clients can revalidate without refetching the set
+    @GetMapping("/preferences")
+    public ResponseEntity<PreferenceSet> preferences(@PathVariable UUID userId,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PreferenceSet preferences = userCatalog.preferences(userId);
+        String etag = etag(preferences.version());
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(preferences);
+    }
+
+    @PutMapping("/preferences")
+    public ResponseEntity<Map<String, Long>> upsertPreferences(@PathVariable UUID userId,
+                                                               @Valid @RequestBody PreferencesUpsertRequest request) {
+        long version = catalogService.upsertPreferences(userId, request.values());
+        return ResponseEntity.ok().eTag(etag(version)).body(Map.of("version", version));
+    }
+
+    private static int suggestionLimit(int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return limit;
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+}
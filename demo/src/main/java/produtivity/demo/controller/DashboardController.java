@@ -0,0 +1,32 @@
+package produtivity.demo.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.dto.DashboardView;
+import produtivity.demo.dto.ProjectDetailView;
+import produtivity.demo.service.DashboardService;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/users/{userId}")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping("/dashboard")
+    public DashboardView dashboard(@PathVariable UUID userId) {
+        return dashboardService.dashboard(userId);
+    }
+
+    @GetMapping("/projects/{projectId}")
+    public ProjectDetailView project(@PathVariable UUID userId, @PathVariable UUID projectId) {
+        return dashboardService.projectDetail(userId, projectId);
+    }
+}
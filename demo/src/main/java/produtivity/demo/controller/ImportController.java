@@ -0,0 +1,68 @@
+package produtivity.demo.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.dto.BrowserImportResult;
+import produtivity.demo.dto.ImportProgressView;
+import produtivity.demo.dto.ImportResult;
+import produtivity.demo.service.export.ExportFormat;
+import produtivity.demo.service.imports.BrowserStateImporter;
+import produtivity.demo.service.imports.BulkImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+// Bulk imports read the raw request body as a stream; send Content-Encoding: gzip to upload compressed
+@RestController
+@RequestMapping("/users/{userId}/imports")
+public class ImportController {
+
+    private final BulkImportService importService;
+    private final BrowserStateImporter browserStateImporter;
+
+    public ImportController(BulkImportService importService, BrowserStateImporter browserStateImporter) {
+        this.importService = importService;
+        this.browserStateImporter = browserStateImporter;
+    }
+
+    @PostMapping("/time-sessions")
+    public ImportResult timeSessions(@PathVariable UUID userId,
+                                     @RequestParam(defaultValue = "CSV") ExportFormat format,
+                                     HttpServletRequest request) throws IOException {
+        return importService.importTimeSessions(userId, format, body(request));
+    }
+
+    @PostMapping("/tasks")
+    public ImportResult tasks(@PathVariable UUID userId,
+                              @RequestParam(defaultValue = "CSV") ExportFormat format,
+                              HttpServletRequest request) throws IOException {
+        return importService.importTasks(userId, format, body(request));
+    }
+
+    // The frontend's localStorage export as downloaded from the app's backup button
+    @PostMapping("/browser-state")
+    public BrowserImportResult browserState(@PathVariable UUID userId, HttpServletRequest request) throws IOException {
+        return browserStateImporter.importState(userId, body(request));
+    }
+
+    // Imports still running on this node, with rows read, staged and rejected so far
+    @GetMapping
+    public List<ImportProgressView> running(@PathVariable UUID userId) {
+        return importService.running(userId);
+    }
+
+    private static InputStream body(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        boolean gzip = "gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+        return gzip ? new GZIPInputStream(in, 16 * 1024) : in;
+    }
+}
@@ -0,0 +1,85 @@
+package produtivity.demo.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.repository.DailyTimeRollupRepository;
+import produtivity.demo.repository.DailyTimeRollupRepository.DailyTotal;
+import produtivity.demo.repository.DailyTimeRollupRepository.ProjectTotal;
+import produtivity.demo.repository.DailyTimeRollupRepository.TaskTotal;
+import produtivity.demo.dto.TimeBreakdownRow;
+import produtivity.demo.service.analytics.BreakdownDimension;
+import produtivity.demo.service.analytics.BreakdownPeriod;
+import produtivity.demo.service.analytics.TimeAnalytics;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+// Time reports served from the daily rollups; dates are in the user's timezone
+@RestController
+@RequestMapping("/users/{userId}/reports/time")
+public class ReportController {
+
+    private static final int MAX_BREAKDOWN_DAYS = 3660;
+
+    private final DailyTimeRollupRepository rollupRepository;
+    private final TimeAnalytics timeAnalytics;
+
+    public ReportController(DailyTimeRollupRepository rollupRepository, TimeAnalytics timeAnalytics) {
+        this.rollupRepository = rollupRepository;
+        this.timeAnalytics = timeAnalytics;
+    }
+
+    @GetMapping("/daily")
+    public List<DailyTotal> daily(@PathVariable UUID userId,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        return rollupRepository.findDailyTotals(userId, from, to);
+    }
+
+    @GetMapping("/projects")
+    public List<ProjectTotal> byProject(@PathVariable UUID userId,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        return rollupRepository.findProjectTotals(userId, from, to);
+    }
+
+    @GetMapping("/projects/{projectId}/tasks")
+    public List<TaskTotal> byTask(@PathVariable UUID userId,
+                                  @PathVariable UUID projectId,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        checkRange(from, to);
+        return rollupRepository.findTaskTotals(userId, projectId, from, to);
+    }
+
+    // Served from the in-memory columnar store, e.g. time per project per week or per category per month
+    @GetMapping("/breakdown")
+    public List<TimeBreakdownRow> breakdown(@PathVariable UUID userId,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(defaultValue = "WEEK") BreakdownPeriod period,
+                                            @RequestParam(defaultValue = "PROJECT") BreakdownDimension by,
+                                            @RequestParam(required = false) UUID projectId) {
+        checkRange(from, to);
+        if (ChronoUnit.DAYS.between(from, to) > MAX_BREAKDOWN_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range is limited to " + MAX_BREAKDOWN_DAYS + " days");
+        }
+        return timeAnalytics.breakdown(userId, from, to, period, by, projectId);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' is before 'from'");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package produtivity.demo.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.service.rollup.TimeRollupRebuildJob;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin/rollups")
+public class RollupAdminController {
+
+    private final TimeRollupRebuildJob rebuildJob;
+
+    public RollupAdminController(TimeRollupRebuildJob rebuildJob) {
+        this.rebuildJob = rebuildJob;
+    }
+
+    // Full rebuilds run in the background
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAll() {
+        if (rebuildJob.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("running", true));
+        }
+        rebuildJob.rebuildAllInBackground();
+        return ResponseEntity.accepted().body(Map.of("running", true));
+    }
+
+    @PostMapping("/users/{userId}/rebuild")
+    public Map<String, Object> rebuildUser(@PathVariable UUID userId) {
+        int sessions = rebuildJob.rebuildUsers(List.of(userId));
+        return Map.of("userId", userId, "sessions", sessions);
+    }
+}
@@ -0,0 +1,101 @@
+package produtivity.demo.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.dto.BulkTaskStatusRequest;
+import produtivity.demo.dto.TaskMoveRequest;
+import produtivity.demo.dto.TaskMoveResult;
+import produtivity.demo.dto.TaskPage;
+import produtivity.demo.dto.TaskSearchPage;
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.dto.TaskStatusUpdateRequest;
+import produtivity.demo.service.TaskService;
+import produtivity.demo.service.ordering.TaskReorderService;
+import produtivity.demo.service.query.TaskFilter;
+import produtivity.demo.service.query.TaskFilter.TaskSort;
+import produtivity.demo.service.query.TaskQueryService;
+import produtivity.demo.service.query.TaskSearchService;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/users/{userId}/tasks")
+public class TaskController {
+
+    private final TaskService taskService;
+    private final TaskReorderService taskReorderService;
+    private final TaskQueryService taskQueryService;
+    private final TaskSearchService taskSearchService;
+
+    public TaskController(TaskService taskService,
+                          TaskReorderService taskReorderService,
+                          TaskQueryService taskQueryService,
+                          TaskSearchService taskSearchService) {
+        this.taskService = taskService;
+        this.taskReorderService = taskReorderService;
+        this.taskQueryService = taskQueryService;
+        this.taskSearchService = taskSearchService;
+    }
+
+    // Sorting by position needs projectId; sorting by due date skips tasks without one
+    @GetMapping
+    public TaskPage list(@PathVariable UUID userId,
+                         @RequestParam(required = false) UUID projectId,
+                         @RequestParam(required = false) List<TaskStatus> status,
+                         @RequestParam(required = false) List<TaskPriority> priority,
+                         @RequestParam(required = false) UUID categoryId,
+                         @RequestParam(required = false) UUID tagId,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime dueFrom,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime dueTo,
+                         @RequestParam(required = false) TaskSort sort,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "50") int limit) {
+        TaskFilter filter = new TaskFilter(projectId,
+                status != null ? Set.copyOf(status) : null,
+                priority != null ? Set.copyOf(priority) : null,
+                categoryId, tagId, dueFrom, dueTo, sort);
+        return taskQueryService.find(userId, filter, cursor, limit);
+    }
+
+    // q accepts web search syntax: quoted phrases, OR, and -excluded words
+    @GetMapping("/search")
+    public TaskSearchPage search(@PathVariable UUID userId,
+                                 @RequestParam String q,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "20") int limit) {
+        return taskSearchService.search(userId, q, cursor, limit);
+    }
+
+    @PatchMapping("/{taskId}/status")
+    public Map<String, Object> updateStatus(@PathVariable UUID userId,
+                                            @PathVariable UUID taskId,
+                                            @Valid @RequestBody TaskStatusUpdateRequest request) {
+        return Map.of("taskId", taskId, "status", taskService.updateStatus(userId, taskId, request.status()));
+    }
+
+    @PostMapping("/status")
+    public Map<String, Object> updateStatuses(@PathVariable UUID userId,
+                                              @Valid @RequestBody BulkTaskStatusRequest request) {
+        return Map.of("updated", taskService.updateStatuses(userId, request.taskIds(), request.status()));
+    }
+
+    @PostMapping("/{taskId}/move")
+    public TaskMoveResult move(@PathVariable UUID userId,
+                               @PathVariable UUID taskId,
+                               @RequestBody(required = false) TaskMoveRequest request) {
+        return taskReorderService.move(userId, taskId, request != null ? request.afterTaskId() : null);
+    }
+}
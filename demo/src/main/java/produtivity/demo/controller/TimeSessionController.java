@@ -0,0 +1,48 @@
+package produtivity.demo.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.dto.TimeSessionCloseRequest;
+import produtivity.demo.dto.TimeSessionUpdateRequest;
+import produtivity.demo.dto.TimeSessionView;
+import produtivity.demo.service.TimeSessionService;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/users/{userId}/time-sessions")
+public class TimeSessionController {
+
+    private final TimeSessionService timeSessionService;
+
+    public TimeSessionController(TimeSessionService timeSessionService) {
+        this.timeSessionService = timeSessionService;
+    }
+
+    @PostMapping("/{sessionId}/close")
+    public TimeSessionView close(@PathVariable UUID userId,
+                                 @PathVariable UUID sessionId,
+                                 @RequestBody(required = false) TimeSessionCloseRequest request) {
+        return timeSessionService.close(userId, sessionId, request != null ? request.endTime() : null);
+    }
+
+    @PatchMapping("/{sessionId}")
+    public TimeSessionView update(@PathVariable UUID userId,
+                                  @PathVariable UUID sessionId,
+                                  @Valid @RequestBody TimeSessionUpdateRequest request) {
+        return timeSessionService.update(userId, sessionId, request);
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> delete(@PathVariable UUID userId, @PathVariable UUID sessionId) {
+        timeSessionService.delete(userId, sessionId);
+        return ResponseEntity.noContent().build();
+    }
+}
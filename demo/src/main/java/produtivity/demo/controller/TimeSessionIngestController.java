@@ -0,0 +1,30 @@
+package produtivity.demo.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import produtivity.demo.dto.TimeSessionIngestRequest;
+import produtivity.demo.dto.TimeSessionIngestResult;
+import produtivity.demo.service.TimeSessionIngestService;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/users/{userId}/time-sessions")
+public class TimeSessionIngestController {
+
+    private final TimeSessionIngestService ingestService;
+
+    public TimeSessionIngestController(TimeSessionIngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    @PostMapping("/batch")
+    public TimeSessionIngestResult ingest(@PathVariable UUID userId,
+                                          @Valid @RequestBody TimeSessionIngestRequest request) {
+        return ingestService.ingest(userId, request.sessions());
+    }
+}
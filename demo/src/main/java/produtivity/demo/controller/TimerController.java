@@ -0,0 +1,88 @@
+package produtivity.demo.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import produtivity.demo.dto.ActiveSessionView;
+import produtivity.demo.dto.StreamTokenResponse;
+import produtivity.demo.dto.TimeSessionCloseRequest;
+import produtivity.demo.dto.TimeSessionView;
+import produtivity.demo.dto.TimerStartRequest;
+import produtivity.demo.security.JwtTokenProvider;
+import produtivity.demo.security.TokenPrincipal;
+import produtivity.demo.service.timer.ActiveSessionRegistry;
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+import produtivity.demo.service.timer.TimerStreams;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Running-timer operations; served from memory by ActiveSessionRegistry
+@RestController
+@RequestMapping("/users/{userId}/timer")
+public class TimerController {
+
+    private final ActiveSessionRegistry registry;
+    private final TimerStreams streams;
+    private final JwtTokenProvider tokenProvider;
+
+    public TimerController(ActiveSessionRegistry registry, TimerStreams streams, JwtTokenProvider tokenProvider) {
+        this.registry = registry;
+        this.streams = streams;
+        this.tokenProvider = tokenProvider;
+    }
+
+    @GetMapping
+    public ResponseEntity<ActiveSessionView> current(@PathVariable UUID userId) {
+        return registry.current(userId)
+                .map(s -> ResponseEntity.ok(ActiveSessionView.of(s, Instant.now())))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<ActiveSessionView> start(@PathVariable UUID userId, @RequestBody TimerStartRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ActiveSessionView.of(registry.start(userId, request), Instant.now()));
+    }
+
+    @PostMapping("/{sessionId}/heartbeat")
+    public ActiveSessionView heartbeat(@PathVariable UUID userId, @PathVariable UUID sessionId) {
+        return ActiveSessionView.of(registry.heartbeat(userId, sessionId), Instant.now());
+    }
+
+    @PostMapping("/stop")
+    public TimeSessionView stop(@PathVariable UUID userId,
+                                @RequestBody(required = false) TimeSessionCloseRequest request) {
+        Stopped stopped = registry.stop(userId, null, request != null ? request.endTime() : null)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No running timer"));
+        return TimeSessionView.of(stopped);
+    }
+
+    // Short-lived token for opening the stream from EventSource, which cannot send Authorization
+    @PostMapping("/stream-token")
+    public StreamTokenResponse streamToken(@AuthenticationPrincipal TokenPrincipal principal) {
+        return new StreamTokenResponse(tokenProvider.issueStreamToken(principal),
+                tokenProvider.streamExpiration().toSeconds());
+    }
+
+    // Live started/stopped/tick events. Browsers open /stream?stream_token=..., and since a stream
+    // token may have expired by the time EventSource retries with Last-Event-ID, a client that
+    // reopens with a fresh token passes the last id it saw as lastEventId to resume
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable UUID userId,
+                             @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId,
+                             @RequestParam(name = "lastEventId", required = false) String lastEventIdParam) {
+        return streams.subscribe(userId, lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+}
@@ -0,0 +1,29 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.service.timer.ActiveSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public record ActiveSessionView(
+        UUID sessionId,
+        UUID taskId,
+        UUID projectId,
+        ZonedDateTime startTime,
+        String description,
+        Instant lastHeartbeat,
+        long elapsedSeconds) {
+    
+    public static ActiveSessionView of(ActiveSession session, Instant now) {
+        return new ActiveSessionView(
+                session.sessionId(),
+                session.taskId(),
+                session.projectId(),
+                session.startTime(),
+                session.description(),
+                session.lastHeartbeat(),
+                Math.max(0, Duration.between(session.startTime().toInstant(), now).getSeconds()));
+    }
+}
@@ -0,0 +1,13 @@
+package produtivity.demo.dto;
+
+import java.util.UUID;
+
+// Counts are rows actually inserted; re-importing the same blob inserts nothing
+public record BrowserImportResult(
+        UUID importId,
+        int projects,
+        int tasks,
+        int timeSessions,
+        int skipped,
+        long elapsedMillis) {
+}
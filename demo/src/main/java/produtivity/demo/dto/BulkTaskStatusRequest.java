@@ -0,0 +1,14 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkTaskStatusRequest(
+        @NotEmpty @Size(max = 1000) List<UUID> taskIds,
+        @NotNull TaskStatus status) {
+}
@@ -0,0 +1,10 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record CategoryRequest(
+        @NotBlank @Size(max = 100) String name,
+        @Size(max = 7) String color,
+        @Size(max = 50) String icon) {
+}
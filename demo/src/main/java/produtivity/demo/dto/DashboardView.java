@@ -0,0 +1,19 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.Project.ProjectStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+public record DashboardView(UUID userId, List<ProjectBoard> projects) {
+
+    public record ProjectBoard(
+            UUID id,
+            String name,
+            String color,
+            ProjectStatus status,
+            int taskCount,
+            int completedCount,
+            List<TaskCard> tasks) {
+    }
+}
@@ -0,0 +1,19 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.Goal.GoalStatus;
+import produtivity.demo.entity.Goal.GoalType;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record GoalView(
+        UUID id,
+        String title,
+        GoalType goalType,
+        Integer targetValue,
+        Integer currentValue,
+        String unit,
+        LocalDate startDate,
+        LocalDate endDate,
+        GoalStatus status) {
+}
@@ -0,0 +1,15 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.service.imports.ImportKind;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ImportProgressView(
+        UUID importId,
+        ImportKind kind,
+        Instant startedAt,
+        long read,
+        long staged,
+        long rejected) {
+}
@@ -0,0 +1,5 @@
+package produtivity.demo.dto;
+
+// Line is where the record starts in the uploaded file
+public record ImportRejection(long line, String reason) {
+}
@@ -0,0 +1,15 @@
+package produtivity.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// Only the first rejects are listed; rejected is the full count
+public record ImportResult(
+        UUID importId,
+        long read,
+        long imported,
+        long duplicates,
+        long rejected,
+        List<ImportRejection> rejects,
+        long elapsedMillis) {
+}
@@ -0,0 +1,10 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// login is a username or an email address
+public record LoginRequest(
+        @NotBlank @Size(max = 255) String login,
+        @NotBlank @Size(max = 128) String password) {
+}
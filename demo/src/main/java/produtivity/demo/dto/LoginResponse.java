@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.util.UUID;
+
+// expiresIn is in seconds
+public record LoginResponse(UUID userId, String accessToken, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,6 @@
+package produtivity.demo.dto;
+
+import java.util.UUID;
+
+public record NameSuggestion(UUID id, String name, String color) {
+}
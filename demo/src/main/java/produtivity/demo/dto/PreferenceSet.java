@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.util.Map;
+
+// A user's preferences as one immutable map; version grows with every write
+public record PreferenceSet(long version, Map<String, String> values) {
+}
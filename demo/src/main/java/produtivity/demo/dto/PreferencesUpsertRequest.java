@@ -0,0 +1,10 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.Map;
+
+// Null values are stored as null; keys not listed are left alone
+public record PreferencesUpsertRequest(@NotEmpty @Size(max = 500) Map<String, String> values) {
+}
@@ -0,0 +1,19 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.Project.ProjectStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record ProjectDetailView(
+        UUID id,
+        String name,
+        String description,
+        String color,
+        ProjectStatus status,
+        LocalDate startDate,
+        LocalDate endDate,
+        List<TaskCard> tasks,
+        List<GoalView> goals) {
+}
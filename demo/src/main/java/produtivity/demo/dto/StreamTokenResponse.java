@@ -0,0 +1,5 @@
+package produtivity.demo.dto;
+
+// expiresIn is in seconds; the token only opens the running-timer stream
+public record StreamTokenResponse(String streamToken, long expiresIn) {
+}
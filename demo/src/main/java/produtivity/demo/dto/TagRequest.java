@@ -0,0 +1,9 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record TagRequest(
+        @NotBlank @Size(max = 50) String name,
+        @Size(max = 7) String color) {
+}
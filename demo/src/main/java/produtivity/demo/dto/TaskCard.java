@@ -0,0 +1,22 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// A task as rendered on a board, with its category and tags inlined
+public record TaskCard(
+        UUID id,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        ZonedDateTime dueDate,
+        Integer estimatedDuration, // in minutes
+        Integer actualDuration, // in minutes
+        long position,
+        CategoryView category,
+        List<TagView> tags) {
+}
@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.util.UUID;
+
+// afterTaskId is the task the moved one should follow; null moves it to the top
+public record TaskMoveRequest(UUID afterTaskId) {
+}
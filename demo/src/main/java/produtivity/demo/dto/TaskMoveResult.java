@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.util.UUID;
+
+// respread is true when the project's keys had to be spread out to make room
+public record TaskMoveResult(UUID taskId, UUID projectId, long position, boolean respread) {
+}
@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record TaskPage(List<TaskSummaryView> items, String nextCursor) {
+}
@@ -0,0 +1,17 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.util.UUID;
+
+// title and snippet are HTML-escaped, with matched terms wrapped in <mark>; snippet is null without a description match
+public record TaskSearchHit(
+        UUID id,
+        UUID projectId,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        float rank,
+        String snippet) {
+}
@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record TaskSearchPage(List<TaskSearchHit> items, String nextCursor) {
+}
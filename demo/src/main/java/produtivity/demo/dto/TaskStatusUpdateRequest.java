@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import produtivity.demo.entity.Task.TaskStatus;
+
+public record TaskStatusUpdateRequest(@NotNull TaskStatus status) {
+}
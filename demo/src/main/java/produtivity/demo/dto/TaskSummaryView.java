@@ -0,0 +1,20 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public record TaskSummaryView(
+        UUID id,
+        UUID projectId,
+        UUID categoryId,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        ZonedDateTime dueDate,
+        Integer estimatedDuration, // in minutes
+        Integer actualDuration, // in minutes
+        long position) {
+}
@@ -0,0 +1,8 @@
+package produtivity.demo.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// key is the project, task or category id, or null for "none" and for ungrouped totals
+public record TimeBreakdownRow(LocalDate periodStart, UUID key, long minutes, int sessions) {
+}
@@ -0,0 +1,7 @@
+package produtivity.demo.dto;
+
+import java.time.ZonedDateTime;
+
+// endTime defaults to now
+public record TimeSessionCloseRequest(ZonedDateTime endTime) {
+}
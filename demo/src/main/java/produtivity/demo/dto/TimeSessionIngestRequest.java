@@ -0,0 +1,8 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record TimeSessionIngestRequest(@NotNull List<TimeSessionIngestRow> sessions) {
+}
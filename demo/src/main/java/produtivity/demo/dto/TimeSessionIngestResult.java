@@ -0,0 +1,14 @@
+package produtivity.demo.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TimeSessionIngestResult(
+        int received,
+        int inserted,
+        int duplicates,
+        List<Rejection> rejected) {
+    
+    public record Rejection(int index, UUID id, String reason) {
+    }
+}
@@ -0,0 +1,16 @@
+package produtivity.demo.dto;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// Client-assigned id; the server never generates ids on this path
+public record TimeSessionIngestRow(
+        UUID id,
+        UUID taskId,
+        UUID projectId,
+        ZonedDateTime startTime,
+        ZonedDateTime endTime,
+        Integer duration, // in minutes
+        String description,
+        Boolean isActive) {
+}
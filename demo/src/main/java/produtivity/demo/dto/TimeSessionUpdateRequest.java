@@ -0,0 +1,13 @@
+package produtivity.demo.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.time.ZonedDateTime;
+
+// Null fields are left unchanged
+public record TimeSessionUpdateRequest(
+        ZonedDateTime startTime,
+        ZonedDateTime endTime,
+        @PositiveOrZero Integer duration, // in minutes
+        String description) {
+}
@@ -0,0 +1,44 @@
+package produtivity.demo.dto;
+
+import produtivity.demo.entity.TimeSession;
+import produtivity.demo.service.timer.ActiveSession;
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public record TimeSessionView(
+        UUID id,
+        UUID taskId,
+        UUID projectId,
+        ZonedDateTime startTime,
+        ZonedDateTime endTime,
+        Integer duration, // in minutes
+        String description,
+        boolean isActive) {
+    
+    public static TimeSessionView of(TimeSession session) {
+        return new TimeSessionView(
+                session.getId(),
+                session.getTask() != null ? session.getTask().getId() : null,
+                session.getProject() != null ? session.getProject().getId() : null,
+                session.getStartTime(),
+                session.getEndTime(),
+                session.getDuration(),
+                session.getDescription(),
+                Boolean.TRUE.equals(session.getIsActive()));
+    }
+    
+    public static TimeSessionView of(Stopped stopped) {
+        ActiveSession session = stopped.session();
+        return new TimeSessionView(
+                session.sessionId(),
+                session.taskId(),
+                session.projectId(),
+                session.startTime(),
+                stopped.endTime(),
+                stopped.duration(),
+                session.description(),
+                false);
+    }
+}
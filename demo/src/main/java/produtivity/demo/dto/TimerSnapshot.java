@@ -0,0 +1,5 @@
+package produtivity.demo.dto;
+
+// First event of a timer stream, and of a resume that cannot replay; running is null when no timer runs
+public record TimerSnapshot(ActiveSessionView running) {
+}
@@ -0,0 +1,6 @@
+package produtivity.demo.dto;
+
+import java.util.UUID;
+
+public record TimerStartRequest(UUID taskId, UUID projectId, String description) {
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import produtivity.demo.entity.id.UuidV7;
+import produtivity.demo.service.catalog.UserCatalogInvalidator;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -11,11 +13,12 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(UserCatalogInvalidator.class)
 @Table(name = "categories")
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,75 @@
+package produtivity.demo.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// Read model; rows are written by TimeRollupMaintainer and TimeRollupRebuildJob
+@Entity
+@Immutable
+@Table(name = "time_session_daily_rollups")
+public class DailyTimeRollup {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "project_id")
+    private UUID projectId;
+
+    @Column(name = "task_id")
+    private UUID taskId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate; // in the user's timezone
+
+    @Column(name = "total_minutes", nullable = false)
+    private Long totalMinutes;
+
+    @Column(name = "session_count", nullable = false)
+    private Integer sessionCount;
+
+    @Column(name = "updated_at")
+    private ZonedDateTime updatedAt;
+
+    // Constructors
+    protected DailyTimeRollup() {}
+
+    // Getters
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getProjectId() {
+        return projectId;
+    }
+
+    public UUID getTaskId() {
+        return taskId;
+    }
+
+    public LocalDate getBucketDate() {
+        return bucketDate;
+    }
+
+    public Long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    public Integer getSessionCount() {
+        return sessionCount;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
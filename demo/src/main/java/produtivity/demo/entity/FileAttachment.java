@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import produtivity.demo.entity.id.UuidV7;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class FileAttachment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
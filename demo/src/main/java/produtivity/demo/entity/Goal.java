@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import produtivity.demo.entity.id.UuidV7;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class Goal {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
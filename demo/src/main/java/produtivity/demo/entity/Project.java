@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import produtivity.demo.entity.id.UuidV7;
+import produtivity.demo.service.catalog.UserCatalogInvalidator;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -13,11 +15,20 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(UserCatalogInvalidator.class)
 @Table(name = "projects")
+@NamedEntityGraph(
+    name = Project.WITH_TASKS,
+    attributeNodes = @NamedAttributeNode(value = "tasks", subgraph = "task"),
+    subgraphs = @NamedSubgraph(name = "task", attributeNodes = @NamedAttributeNode("category"))
+)
 public class Project {
     
+    // Projects with their tasks and each task's category; Task.tags is a second bag and is fetched separately
+    public static final String WITH_TASKS = "Project.withTasks";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
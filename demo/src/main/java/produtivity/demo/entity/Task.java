@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import produtivity.demo.entity.id.UuidV7;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -16,7 +17,7 @@ import java.util.UUID;
 public class Task {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -46,10 +47,17 @@ public class Task {
     @Column(name = "estimated_duration")
     private Integer estimatedDuration; // in minutes
     
-    @Column(name = "actual_duration")
+    // Set while the task is COMPLETED; goals count the completion on this day
+    @Column(name = "completed_at")
+    private ZonedDateTime completedAt;
+    
+    // Maintained by TaskDurationAccumulator; never written back from the entity, which may hold a stale value
+    @Column(name = "actual_duration", updatable = false)
     private Integer actualDuration = 0; // in minutes
     
-    private Integer position = 0; // for ordering within project
+    // Sparse ordering key within project, see TaskPositions; moves are written by TaskOrderStore only
+    @Column(name = "position", updatable = false)
+    private Long position = 0L;
     
     @CreationTimestamp
     @Column(name = "created_at")
@@ -172,14 +180,22 @@ public class Task {
         this.actualDuration = actualDuration;
     }
     
-    public Integer getPosition() {
+    public Long getPosition() {
         return position;
     }
     
-    public void setPosition(Integer position) {
+    public void setPosition(Long position) {
         this.position = position;
     }
     
+    public ZonedDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(ZonedDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
     public ZonedDateTime getCreatedAt() {
         return createdAt;
     }
@@ -2,7 +2,9 @@ package produtivity.demo.entity;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
+import produtivity.demo.entity.id.UuidV7;
 
 import java.time.ZonedDateTime;
 import java.util.UUID;
@@ -12,7 +14,7 @@ import java.util.UUID;
 public class TimeSession {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,6 +29,9 @@ public class TimeSession {
     @JoinColumn(name = "project_id")
     private Project project;
     
+    // time_sessions is range-partitioned on start_time; updates and deletes
+    // match on the loaded value so they touch a single partition
+    @PartitionKey
     @Column(name = "start_time", nullable = false)
     private ZonedDateTime startTime;
     
@@ -41,6 +46,9 @@ public class TimeSession {
     @Column(name = "is_active")
     private Boolean isActive = false;
     
+    @Column(name = "last_heartbeat_at")
+    private ZonedDateTime lastHeartbeatAt; // checkpoint of a running timer
+    
     @CreationTimestamp
     @Column(name = "created_at")
     private ZonedDateTime createdAt;
@@ -130,6 +138,14 @@ public class TimeSession {
         this.isActive = isActive;
     }
     
+    public ZonedDateTime getLastHeartbeatAt() {
+        return lastHeartbeatAt;
+    }
+    
+    public void setLastHeartbeatAt(ZonedDateTime lastHeartbeatAt) {
+        this.lastHeartbeatAt = lastHeartbeatAt;
+    }
+    
     public ZonedDateTime getCreatedAt() {
         return createdAt;
     }
@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import produtivity.demo.entity.id.UuidV7;
+import produtivity.demo.security.UserPrincipalInvalidator;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -13,11 +15,12 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(UserPrincipalInvalidator.class)
 @Table(name = "users")
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @NotBlank
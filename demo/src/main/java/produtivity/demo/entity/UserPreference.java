@@ -5,16 +5,19 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import produtivity.demo.entity.id.UuidV7;
+import produtivity.demo.service.catalog.UserCatalogInvalidator;
 
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(UserCatalogInvalidator.class)
 @Table(name = "user_preferences")
 public class UserPreference {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
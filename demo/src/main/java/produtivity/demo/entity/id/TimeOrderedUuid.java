@@ -0,0 +1,50 @@
+package produtivity.demo.entity.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48-bit Unix millisecond timestamp, a 12-bit
+ * counter in rand_a and 62 random bits. Timestamp and counter share one
+ * atomic word, so ids from this JVM are strictly increasing without locking,
+ * even across threads and if the wall clock steps backwards.
+ */
+public final class TimeOrderedUuid {
+
+    private static final int COUNTER_BITS = 12;
+
+    // (unix millis << 12) | counter of the last issued id
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private TimeOrderedUuid() {}
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long prev;
+        long next;
+        do {
+            prev = LAST.get();
+            // A new millisecond starts the counter at a random value with the top bit clear,
+            // leaving headroom before a counter overflow borrows from the next millisecond
+            next = now > prev
+                    ? now | ThreadLocalRandom.current().nextInt(1 << (COUNTER_BITS - 1))
+                    : prev + 1;
+        } while (!LAST.compareAndSet(prev, next));
+        return build(next >>> COUNTER_BITS, (int) (next & ((1 << COUNTER_BITS) - 1)),
+                ThreadLocalRandom.current().nextLong());
+    }
+
+    public static long timestampMillis(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    static UUID build(long millis, int counter, long random) {
+        long msb = (millis << 16) | 0x7000L | (counter & 0x0FFFL);
+        long lsb = (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
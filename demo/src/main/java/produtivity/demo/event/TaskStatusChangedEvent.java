@@ -0,0 +1,18 @@
+package produtivity.demo.event;
+
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+// Published inside the writing transaction for every task whose status actually changed
+public record TaskStatusChangedEvent(
+        UUID taskId,
+        UUID projectId,
+        UUID userId,
+        TaskStatus from,
+        TaskStatus to,
+        ZonedDateTime changedAt,
+        // The completion being made or undone; null when neither status is COMPLETED
+        ZonedDateTime completedAt) {
+}
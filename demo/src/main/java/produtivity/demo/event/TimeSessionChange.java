@@ -0,0 +1,16 @@
+package produtivity.demo.event;
+
+/**
+ * State of one session before and after a write. {@code before} is null for
+ * inserts and {@code after} is null for deletes.
+ */
+public record TimeSessionChange(TimeSessionSnapshot before, TimeSessionSnapshot after) {
+    
+    public static TimeSessionChange created(TimeSessionSnapshot after) {
+        return new TimeSessionChange(null, after);
+    }
+    
+    public static TimeSessionChange deleted(TimeSessionSnapshot before) {
+        return new TimeSessionChange(before, null);
+    }
+}
@@ -0,0 +1,41 @@
+package produtivity.demo.event;
+
+import produtivity.demo.entity.TimeSession;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+public record TimeSessionSnapshot(
+        UUID id,
+        UUID userId,
+        UUID projectId,
+        UUID taskId,
+        ZonedDateTime startTime,
+        ZonedDateTime endTime,
+        Integer duration, // in minutes
+        boolean active) {
+    
+    public static TimeSessionSnapshot of(TimeSession session) {
+        return new TimeSessionSnapshot(
+                session.getId(),
+                session.getUser().getId(),
+                session.getProject() != null ? session.getProject().getId() : null,
+                session.getTask() != null ? session.getTask().getId() : null,
+                session.getStartTime(),
+                session.getEndTime(),
+                session.getDuration(),
+                Boolean.TRUE.equals(session.getIsActive()));
+    }
+    
+    // Only closed sessions with a recorded duration count towards tracked time
+    public boolean isTracked() {
+        return !active && duration != null;
+    }
+    
+    public ZonedDateTime effectiveEndTime() {
+        if (endTime != null) {
+            return endTime;
+        }
+        return duration != null ? startTime.plusMinutes(duration) : startTime;
+    }
+}
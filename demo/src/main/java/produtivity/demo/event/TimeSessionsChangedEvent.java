@@ -0,0 +1,11 @@
+package produtivity.demo.event;
+
+import java.util.List;
+
+// Published inside the writing transaction, once per batch of session writes
+public record TimeSessionsChangedEvent(List<TimeSessionChange> changes) {
+    
+    public static TimeSessionsChangedEvent of(TimeSessionChange change) {
+        return new TimeSessionsChangedEvent(List.of(change));
+    }
+}
@@ -0,0 +1,28 @@
+package produtivity.demo.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Replaces the DataSource bean with an InstrumentedDataSource; sql.metrics.enabled=false leaves it untouched
+@Component
+@ConditionalOnProperty(name = "sql.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceInstrumentation implements BeanPostProcessor {
+
+    private final ObjectProvider<StatementMetrics> metrics;
+
+    public DataSourceInstrumentation(ObjectProvider<StatementMetrics> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+            return new InstrumentedDataSource(dataSource, metrics::getObject);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,180 @@
+package produtivity.demo.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the pool so every connection it hands out, and every statement those
+ * connections create, reports executions to {@link StatementMetrics}. Covers
+ * Hibernate and JdbcTemplate alike since both go through the DataSource;
+ * unwrap still reaches the driver objects, e.g. for COPY.
+ */
+final class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<StatementMetrics> metricsSource;
+    private volatile StatementMetrics metrics;
+
+    // The metrics bean is resolved on first use, since the pool is created before the meter registry
+    InstrumentedDataSource(DataSource target, Supplier<StatementMetrics> metricsSource) {
+        super(target);
+        this.metricsSource = metricsSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // Keeps the pool shut down with the context, which finds close() on the exposed bean
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        StatementMetrics resolved = metrics;
+        if (resolved == null) {
+            resolved = metricsSource.get();
+            metrics = resolved;
+        }
+        return proxy(Connection.class, new ConnectionHandler(connection, resolved));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Proxies compare by identity, as the driver objects behind them do
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> args != null && args.length == 1 && proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private record ConnectionHandler(Connection target, StatementMetrics metrics) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) {
+                return same;
+            }
+            Object result = call(target, method, args);
+            if (!(result instanceof Statement statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            StatementHandler handler = new StatementHandler(statement, metrics,
+                    sql != null ? metrics.shape(sql) : null, sql, metrics.sampleBinds());
+            return proxy(method.getReturnType().asSubclass(Statement.class), handler);
+        }
+    }
+
+    /**
+     * Times execute* calls. A prepared statement carries its shape from
+     * creation; a plain statement takes it from the SQL passed to execute,
+     * or to the first addBatch for a batch.
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final StatementMetrics metrics;
+        private final SqlShape prepared;
+        private final String preparedSql;
+        private final boolean sampled;
+        private final SortedMap<Integer, Object> binds;
+        private SqlShape batch;
+        private String batchSql;
+
+        StatementHandler(Statement target, StatementMetrics metrics, SqlShape prepared, String preparedSql, boolean sampled) {
+            this.target = target;
+            this.metrics = metrics;
+            this.prepared = prepared;
+            this.preparedSql = preparedSql;
+            this.sampled = sampled;
+            this.binds = sampled && prepared != null ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object same = identity(proxy, method, args);
+            if (same != null) {
+                return same;
+            }
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (binds != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index) {
+                binds.put(index, name.equals("setNull") ? null : args[1]);
+            } else if (binds != null && name.equals("clearParameters")) {
+                binds.clear();
+            } else if (name.equals("addBatch") && batch == null && args != null && args.length == 1
+                    && args[0] instanceof String sql) {
+                batch = metrics.shape(sql);
+                batchSql = sql;
+            }
+            return call(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            SqlShape shape;
+            String sql;
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                shape = metrics.shape(text);
+                sql = text;
+            } else if (prepared != null) {
+                shape = prepared;
+                sql = preparedSql;
+            } else {
+                shape = batch;
+                sql = batchSql;
+            }
+            if (shape == null) {
+                return call(target, method, args);
+            }
+            long started = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = call(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                metrics.record(shape, System.nanoTime() - started, failed, sampled ? sql : null, binds);
+                if (method.getName().endsWith("Batch")) {
+                    batch = null;
+                    batchSql = null;
+                }
+            }
+        }
+    }
+}
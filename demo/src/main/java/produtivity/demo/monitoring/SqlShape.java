@@ -0,0 +1,104 @@
+package produtivity.demo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A statement with its literals and bind lists folded away, so every
+ * execution of the same query lands on the same meters whatever its values
+ * or IN-list length. Shapes are created by {@link StatementMetrics}, which
+ * caps how many exist.
+ */
+final class SqlShape {
+
+    private static final int MAX_TAG_LENGTH = 200;
+
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern STRINGS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBERS = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern POSITIONAL = Pattern.compile("\\$\\d+");
+    private static final Pattern BIND_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*(?:::\\w+)?\\s*,\\s*\\?)*\\s*(?:::\\w+)?\\s*\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\)(?:\\s*,\\s*\\(\\?\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String text;
+    private final String tag;
+    private final String operation;
+    private final Timer succeeded;
+    private final Timer failed;
+    private final Counter slow;
+
+    SqlShape(String text, MeterRegistry meterRegistry) {
+        this.text = text;
+        this.operation = operationOf(text);
+        this.tag = text.length() > MAX_TAG_LENGTH ? text.substring(0, MAX_TAG_LENGTH) : text;
+        this.succeeded = timer(meterRegistry, "success");
+        this.failed = timer(meterRegistry, "error");
+        this.slow = Counter.builder("db.statements.slow")
+                .description("Statements slower than the slow-query threshold")
+                .tag("shape", tag)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    static String normalize(String sql) {
+        String shape = COMMENTS.matcher(sql).replaceAll(" ");
+        shape = STRINGS.matcher(shape).replaceAll("?");
+        shape = NUMBERS.matcher(shape).replaceAll("?");
+        shape = POSITIONAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").strip();
+        shape = BIND_LIST.matcher(shape).replaceAll("(?)");
+        return ROW_LIST.matcher(shape).replaceAll("(?)");
+    }
+
+    String text() {
+        return text;
+    }
+
+    // The text cut to a length meter backends accept as a tag value
+    String tag() {
+        return tag;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    boolean isQuery() {
+        return operation.equals("select") || operation.equals("with");
+    }
+
+    // Bind values of statements touching credentials never reach the logs
+    boolean sensitive() {
+        return text.toLowerCase(Locale.ROOT).contains("password");
+    }
+
+    Timer timer(boolean failure) {
+        return failure ? failed : succeeded;
+    }
+
+    Counter slow() {
+        return slow;
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("db.statements")
+                .description("JDBC statement executions by statement shape")
+                .tag("shape", tag)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String operationOf(String text) {
+        int end = 0;
+        while (end < text.length() && Character.isLetter(text.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? "other" : text.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,173 @@
+package produtivity.demo.monitoring;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement-level metrics fed by {@link InstrumentedDataSource}.
+ *
+ * db.statements times every execution per statement shape and outcome, and
+ * db.statements.slow counts those over the slow threshold. A sampled
+ * fraction of statements keep their bind values; when one of those turns
+ * out slow it is logged with them. Within an HTTP request opened by
+ * {@link StatementCountingFilter}, db.request.statements records how many
+ * statements the request ran, and a query shape repeated n-plus-one.threshold
+ * times or more, typically a lazy association loaded row by row, counts
+ * towards db.statements.repeated and is logged once per route and shape per
+ * log-interval.
+ *
+ * At most max-shapes distinct shapes get meters of their own; the rest share
+ * the "other" shape so an unbounded variety of ad-hoc SQL cannot flood the
+ * registry.
+ */
+@Component
+public class StatementMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementMetrics.class);
+    private static final int MAX_LOGGED_VALUE = 64;
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, SqlShape> byStatement;
+    private final Map<String, SqlShape> shapes = new ConcurrentHashMap<>();
+    private final SqlShape other;
+    private final int maxShapes;
+    private final long slowNanos;
+    private final double sampleRate;
+    private final int repeatThreshold;
+    private final Cache<String, Boolean> reportedRepeats;
+    private final ThreadLocal<RequestStatements> requests = new ThreadLocal<>();
+
+    public StatementMetrics(MeterRegistry meterRegistry,
+                            @Value("${sql.metrics.max-shapes:300}") int maxShapes,
+                            @Value("${sql.slow-queries.threshold:200ms}") Duration slowThreshold,
+                            @Value("${sql.slow-queries.sample-rate:0.1}") double sampleRate,
+                            @Value("${sql.n-plus-one.threshold:10}") int repeatThreshold,
+                            @Value("${sql.n-plus-one.log-interval:10m}") Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.maxShapes = maxShapes;
+        this.slowNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.repeatThreshold = repeatThreshold;
+        // Keyed by the raw SQL, which for plain statements may embed literals
+        this.byStatement = Caffeine.newBuilder().maximumSize(maxShapes * 10L).build();
+        this.other = new SqlShape("other", meterRegistry);
+        this.reportedRepeats = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(logInterval)
+                .build();
+    }
+
+    SqlShape shape(String sql) {
+        return byStatement.get(sql, key -> {
+            String text = SqlShape.normalize(key);
+            SqlShape known = shapes.get(text);
+            if (known != null) {
+                return known;
+            }
+            if (shapes.size() >= maxShapes) {
+                return other;
+            }
+            return shapes.computeIfAbsent(text, shapeText -> new SqlShape(shapeText, meterRegistry));
+        });
+    }
+
+    // Decided before execution, since bind values are only kept for sampled statements
+    boolean sampleBinds() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Records one execution. sql and binds are only given for sampled
+     * statements; binds is null for statements without parameters.
+     */
+    void record(SqlShape shape, long nanos, boolean failed, String sql, SortedMap<Integer, Object> binds) {
+        shape.timer(failed).record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos >= slowNanos) {
+            shape.slow().increment();
+            if (sql != null) {
+                log.warn("Slow statement ({} ms): {} binds {}", TimeUnit.NANOSECONDS.toMillis(nanos), sql,
+                        describe(shape, binds));
+            }
+        }
+        RequestStatements request = requests.get();
+        if (request != null) {
+            request.add(shape);
+        }
+    }
+
+    void beginRequest() {
+        requests.set(new RequestStatements());
+    }
+
+    void endRequest(String method, String uri) {
+        RequestStatements request = requests.get();
+        requests.remove();
+        if (request == null) {
+            return;
+        }
+        DistributionSummary.builder("db.request.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(request.total);
+        request.perShape.forEach((shape, count) -> {
+            if (count >= repeatThreshold && shape.isQuery() && shape != other) {
+                Counter.builder("db.statements.repeated")
+                        .description("Requests that ran one query shape n-plus-one.threshold times or more")
+                        .tag("uri", uri)
+                        .tag("shape", shape.tag())
+                        .register(meterRegistry)
+                        .increment();
+                if (reportedRepeats.asMap().putIfAbsent(uri + '\n' + shape.text(), Boolean.TRUE) == null) {
+                    log.warn("Possible N+1: {} {} ran {} times in one request: {}", method, uri, count, shape.text());
+                }
+            }
+        });
+    }
+
+    private static Object describe(SqlShape shape, SortedMap<Integer, Object> binds) {
+        if (binds == null || binds.isEmpty()) {
+            return "[]";
+        }
+        if (shape.sensitive()) {
+            return "[redacted]";
+        }
+        StringBuilder text = new StringBuilder("[");
+        binds.forEach((index, value) -> {
+            if (text.length() > 1) {
+                text.append(", ");
+            }
+            String rendered = String.valueOf(value);
+            text.append(index).append('=')
+                    .append(rendered.length() > MAX_LOGGED_VALUE ? rendered.substring(0, MAX_LOGGED_VALUE) + "…" : rendered);
+        });
+        return text.append(']');
+    }
+
+    private static final class RequestStatements {
+
+        private final Map<SqlShape, Integer> perShape = new HashMap<>();
+        private int total;
+
+        void add(SqlShape shape) {
+            total++;
+            perShape.merge(shape, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package produtivity.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.dto.CategoryView;
+import produtivity.demo.entity.Category;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, UUID> {
+    
+    @Query("select new produtivity.demo.dto.CategoryView(c.id, c.name, c.color, c.icon) from Category c where c.user.id = :userId order by c.name")
+    List<CategoryView> findViews(@Param("userId") UUID userId);
+    
+    Optional<Category> findByIdAndUser_Id(UUID id, UUID userId);
+}
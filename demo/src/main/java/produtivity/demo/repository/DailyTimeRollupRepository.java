@@ -0,0 +1,65 @@
+package produtivity.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.entity.DailyTimeRollup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyTimeRollupRepository extends JpaRepository<DailyTimeRollup, UUID> {
+
+    @Query("""
+            select r.bucketDate as date, sum(r.totalMinutes) as minutes, sum(r.sessionCount) as sessions
+            from DailyTimeRollup r
+            where r.userId = :userId and r.bucketDate between :from and :to
+            group by r.bucketDate
+            order by r.bucketDate
+            """)
+    List<DailyTotal> findDailyTotals(@Param("userId") UUID userId,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    @Query("""
+            select r.projectId as projectId, sum(r.totalMinutes) as minutes, sum(r.sessionCount) as sessions
+            from DailyTimeRollup r
+            where r.userId = :userId and r.bucketDate between :from and :to
+            group by r.projectId
+            """)
+    List<ProjectTotal> findProjectTotals(@Param("userId") UUID userId,
+                                         @Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+
+    @Query("""
+            select r.taskId as taskId, sum(r.totalMinutes) as minutes, sum(r.sessionCount) as sessions
+            from DailyTimeRollup r
+            where r.userId = :userId and r.projectId = :projectId and r.bucketDate between :from and :to
+            group by r.taskId
+            """)
+    List<TaskTotal> findTaskTotals(@Param("userId") UUID userId,
+                                   @Param("projectId") UUID projectId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    interface DailyTotal {
+        LocalDate getDate();
+        Long getMinutes();
+        Long getSessions();
+    }
+
+    interface ProjectTotal {
+        UUID getProjectId();
+        Long getMinutes();
+        Long getSessions();
+    }
+
+    interface TaskTotal {
+        UUID getTaskId();
+        Long getMinutes();
+        Long getSessions();
+    }
+}
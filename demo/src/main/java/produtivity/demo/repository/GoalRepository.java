@@ -0,0 +1,14 @@
+package produtivity.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.entity.Goal;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GoalRepository extends JpaRepository<Goal, UUID> {
+    
+    List<Goal> findByProject_IdOrderByEndDate(UUID projectId);
+}
@@ -0,0 +1,35 @@
+package produtivity.demo.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.dto.NameSuggestion;
+import produtivity.demo.entity.Project;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ProjectRepository extends JpaRepository<Project, UUID> {
+    
+    @Query("select p.id from Project p where p.user.id = :userId and p.id in :ids")
+    List<UUID> findOwnedIds(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+    
+    // Projects offered in pickers; archived ones are left out
+    @Query("select new produtivity.demo.dto.NameSuggestion(p.id, p.name, p.color) from Project p "
+            + "where p.user.id = :userId and p.status <> produtivity.demo.entity.Project.ProjectStatus.ARCHIVED "
+            + "order by p.name")
+    List<NameSuggestion> findSuggestions(@Param("userId") UUID userId);
+    
+    @EntityGraph(Project.WITH_TASKS)
+    @Query("select p from Project p where p.user.id = :userId order by p.createdAt, p.id")
+    List<Project> findWithTasksByUser(@Param("userId") UUID userId);
+    
+    @EntityGraph(Project.WITH_TASKS)
+    @Query("select p from Project p where p.id = :projectId and p.user.id = :userId")
+    Optional<Project> findWithTasks(@Param("userId") UUID userId, @Param("projectId") UUID projectId);
+}
@@ -0,0 +1,23 @@
+package produtivity.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.dto.TagView;
+import produtivity.demo.entity.Tag;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, UUID> {
+    
+    @Query("select new produtivity.demo.dto.TagView(t.id, t.name, t.color) from Tag t where t.user.id = :userId order by t.name")
+    List<TagView> findViews(@Param("userId") UUID userId);
+    
+    Optional<Tag> findByIdAndUser_Id(UUID id, UUID userId);
+    
+    boolean existsByUser_IdAndName(UUID userId, String name);
+}
@@ -0,0 +1,40 @@
+package produtivity.demo.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.entity.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskRepository extends JpaRepository<Task, UUID> {
+    
+    // Locked, in id order, so concurrent status changes of the same task apply one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Task t where t.project.user.id = :userId and t.id in :ids order by t.id")
+    List<Task> findOwned(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+    
+    @Query("select t.id as id, t.project.id as projectId from Task t where t.project.user.id = :userId and t.id in :ids")
+    List<TaskOwnership> findOwnership(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+    
+    // Initializes Task.tags for tasks already loaded in the persistence context, in one query
+    @Query("select t from Task t left join fetch t.tags where t.project.id in :projectIds")
+    List<Task> fetchTags(@Param("projectIds") Collection<UUID> projectIds);
+    
+    // Mirrors ON DELETE SET NULL so removing a category does not cascade to its tasks
+    @Modifying
+    @Query("update Task t set t.category = null where t.category.id = :categoryId")
+    int clearCategory(@Param("categoryId") UUID categoryId);
+    
+    interface TaskOwnership {
+        UUID getId();
+        UUID getProjectId();
+    }
+}
@@ -0,0 +1,21 @@
+package produtivity.demo.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import produtivity.demo.entity.TimeSession;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TimeSessionRepository extends JpaRepository<TimeSession, UUID> {
+    
+    Optional<TimeSession> findByIdAndUser_Id(UUID id, UUID userId);
+    
+    @Query("select s.id from TimeSession s where s.id in :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+}
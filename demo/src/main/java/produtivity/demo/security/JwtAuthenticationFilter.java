@@ -0,0 +1,79 @@
+package produtivity.demo.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates requests carrying an "Authorization: Bearer" access token
+ * whose user still exists and is active. The running-timer stream also
+ * accepts a stream token in the stream_token query parameter, since browser
+ * EventSource cannot set headers. Requests without a valid token continue
+ * unauthenticated and are turned away by the authorization rules, not here.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String STREAM_TOKEN_PARAMETER = "stream_token";
+    private static final Pattern STREAM_PATH = Pattern.compile("/users/[^/]+/timer/stream");
+
+    private final VerifiedTokenCache verifiedTokens;
+    private final JwtTokenProvider tokenProvider;
+    private final UserPrincipalCache principals;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokens, JwtTokenProvider tokenProvider,
+                                   UserPrincipalCache principals) {
+        this.verifiedTokens = verifiedTokens;
+        this.tokenProvider = tokenProvider;
+        this.principals = principals;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        String streamToken = header == null && isStream(request) ? request.getParameter(STREAM_TOKEN_PARAMETER) : null;
+        if ((header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length()))
+                || streamToken != null) {
+            try {
+                TokenPrincipal principal = streamToken != null
+                        ? tokenProvider.verifyStreamToken(streamToken)
+                        : verifiedTokens.verify(header.substring(BEARER_PREFIX.length()).strip());
+                if (principals.findById(principal.userId()).filter(UserPrincipal::active).isEmpty()) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                var authorities = principal.roles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                        .toList();
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+                SecurityContextHolder.setContext(context);
+            } catch (JwtException | IllegalArgumentException e) {
+                SecurityContextHolder.clearContext();
+            } catch (ResponseStatusException e) {
+                response.sendError(e.getStatusCode().value(), e.getReason());
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isStream(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && STREAM_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+    }
+}
@@ -0,0 +1,126 @@
+package produtivity.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies HS256 access tokens. The key and parser are built once;
+ * deriving them per request costs as much as the verification itself.
+ *
+ * Stream tokens are short-lived tokens scoped to the running-timer stream,
+ * for browser EventSource clients that cannot send an Authorization header
+ * and pass the token in the URL instead. They are not access tokens, so one
+ * leaked through a URL opens that stream and nothing else, briefly.
+ */
+@Component
+public class JwtTokenProvider {
+
+    private static final String USERNAME_CLAIM = "username";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "timer-stream";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Duration expiration;
+    private final Duration streamExpiration;
+
+    public JwtTokenProvider(@Value("${jwt.secret}") String secret,
+                            @Value("${jwt.expiration:86400000}") long expirationMillis,
+                            @Value("${jwt.stream-expiration:60000}") long streamExpirationMillis) {
+        // Keys.hmacShaKeyFor rejects secrets shorter than 256 bits
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.expiration = Duration.ofMillis(expirationMillis);
+        this.streamExpiration = Duration.ofMillis(streamExpirationMillis);
+    }
+
+    public String issue(UUID userId, String username, Collection<String> roles) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(userId.toString())
+                .claim(USERNAME_CLAIM, username)
+                .claim(ROLES_CLAIM, List.copyOf(roles))
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(expiration)))
+                .signWith(key)
+                .compact();
+    }
+
+    public String issueStreamToken(TokenPrincipal principal) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(principal.userId().toString())
+                .claim(USERNAME_CLAIM, principal.username())
+                .claim(ROLES_CLAIM, List.copyOf(principal.roles()))
+                .claim(SCOPE_CLAIM, STREAM_SCOPE)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(streamExpiration)))
+                .signWith(key)
+                .compact();
+    }
+
+    public Duration expiration() {
+        return expiration;
+    }
+
+    public Duration streamExpiration() {
+        return streamExpiration;
+    }
+
+    // Throws JwtException for malformed, tampered, expired or scoped tokens
+    public TokenPrincipal verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.get(SCOPE_CLAIM) != null) {
+            throw new JwtException("Scoped tokens are not access tokens");
+        }
+        return principal(claims);
+    }
+
+    // Throws JwtException unless the token is a valid, unexpired stream token
+    public TokenPrincipal verifyStreamToken(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (!STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM))) {
+            throw new JwtException("Not a stream token");
+        }
+        return principal(claims);
+    }
+
+    private static TokenPrincipal principal(Claims claims) {
+        if (claims.getExpiration() == null) {
+            throw new JwtException("Token has no expiry");
+        }
+        UUID userId;
+        try {
+            userId = UUID.fromString(claims.getSubject());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new JwtException("Token subject is not a user id");
+        }
+        return new TokenPrincipal(userId, claims.get(USERNAME_CLAIM, String.class), roles(claims),
+                claims.getExpiration().toInstant());
+    }
+
+    private static Set<String> roles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return Set.of();
+        }
+        return values.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+    }
+}
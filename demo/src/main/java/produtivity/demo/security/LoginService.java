@@ -0,0 +1,52 @@
+package produtivity.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.LoginRequest;
+import produtivity.demo.dto.LoginResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Exchanges a username or email and password for an access token. Unknown
+ * logins still pay for one hash comparison so response times do not reveal
+ * which names exist, and every failure gets the same 401. Hashing runs on
+ * the bounded {@link PasswordHasher} pool, which answers 429 when saturated.
+ */
+@Service
+public class LoginService {
+
+    private final UserPrincipalCache principals;
+    private final PasswordHasher passwordHasher;
+    private final JwtTokenProvider tokenProvider;
+    private final Set<String> adminUsernames;
+    private final String unknownUserHash;
+
+    public LoginService(UserPrincipalCache principals,
+                        PasswordHasher passwordHasher,
+                        JwtTokenProvider tokenProvider,
+                        @Value("${security.admin-usernames:}") Set<String> adminUsernames) {
+        this.principals = principals;
+        this.passwordHasher = passwordHasher;
+        this.tokenProvider = tokenProvider;
+        this.adminUsernames = Set.copyOf(adminUsernames);
+        this.unknownUserHash = passwordHasher.encode("unknown-user-placeholder");
+    }
+
+    public LoginResponse login(LoginRequest request) {
+        Optional<UserPrincipal> found = principals.findByLogin(request.login());
+        boolean matches = passwordHasher.matches(request.password(),
+                found.map(UserPrincipal::passwordHash).orElse(unknownUserHash));
+        if (found.isEmpty() || !matches || !found.get().active()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+        }
+        UserPrincipal user = found.get();
+        List<String> roles = adminUsernames.contains(user.username()) ? List.of("USER", "ADMIN") : List.of("USER");
+        String token = tokenProvider.issue(user.id(), user.username(), roles);
+        return new LoginResponse(user.id(), token, "Bearer", tokenProvider.expiration().toSeconds());
+    }
+}
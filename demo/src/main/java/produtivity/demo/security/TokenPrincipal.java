@@ -0,0 +1,16 @@
+package produtivity.demo.security;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The verified contents of an access token. Immutable, so one instance can be
+ * shared by every request that presents the same token.
+ */
+public record TokenPrincipal(UUID userId, String username, Set<String> roles, Instant expiresAt) {
+
+    public TokenPrincipal {
+        roles = Set.copyOf(roles);
+    }
+}
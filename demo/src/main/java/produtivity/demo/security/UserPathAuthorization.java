@@ -0,0 +1,27 @@
+package produtivity.demo.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Grants /users/{userId}/** only to the user the token was issued for
+public class UserPathAuthorization implements AuthorizationManager<RequestAuthorizationContext> {
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication current = authentication.get();
+        if (current == null || !(current.getPrincipal() instanceof TokenPrincipal principal)) {
+            return new AuthorizationDecision(false);
+        }
+        String userId = context.getVariables().get("userId");
+        try {
+            return new AuthorizationDecision(userId != null && principal.userId().equals(UUID.fromString(userId)));
+        } catch (IllegalArgumentException e) {
+            return new AuthorizationDecision(false);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package produtivity.demo.security;
+
+import java.util.UUID;
+
+// The fields of a user that authentication needs, and nothing else
+public record UserPrincipal(UUID id, String username, String email, String passwordHash, boolean active) {
+
+    @Override
+    public String toString() {
+        return "UserPrincipal[id=" + id + ", username=" + username + ", active=" + active + "]";
+    }
+}
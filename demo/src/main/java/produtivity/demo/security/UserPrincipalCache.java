@@ -0,0 +1,188 @@
+package produtivity.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users as authentication sees them, cached by id with username and email
+ * aliases pointing at the id. Logins that match no user are remembered in a
+ * separate, smaller cache for a short while, so repeated guesses at unknown
+ * names are answered from memory; database lookups for names not seen
+ * recently are capped by a semaphore and shed with 429 beyond it.
+ *
+ * {@link UserPrincipalInvalidator} evicts a user after every update. Both
+ * lookups load the principal inside the by-id cache's compute, so an
+ * eviction waits for a load in flight instead of being overtaken by it.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final String COLUMNS = "SELECT id, username, email, password_hash, is_active FROM users ";
+
+    // Two unique-index probes rather than an OR that the planner may turn into a scan
+    private static final String ID_BY_LOGIN_SQL =
+            "SELECT id FROM users WHERE username = ? UNION ALL SELECT id FROM users WHERE email = ? LIMIT 1";
+    private static final String BY_ID_SQL = COLUMNS + "WHERE id = ?";
+
+    private static final RowMapper<UserPrincipal> ROW_MAPPER = (rs, rowNum) -> new UserPrincipal(
+            rs.getObject("id", UUID.class),
+            rs.getString("username"),
+            rs.getString("email"),
+            rs.getString("password_hash"),
+            !Boolean.FALSE.equals(rs.getObject("is_active", Boolean.class)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<UUID, UserPrincipal> byId;
+    private final Cache<String, UUID> byLogin;
+    private final Cache<String, Boolean> unknown;
+    private final Semaphore lookups;
+    private final Duration lookupWait;
+
+    public UserPrincipalCache(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.principals.max-size:100000}") long maxSize,
+                              @Value("${security.principals.expire-after-write:10m}") Duration expireAfterWrite,
+                              @Value("${security.principals.unknown.max-size:10000}") long maxUnknown,
+                              @Value("${security.principals.unknown.expire-after-write:1m}") Duration unknownExpiry,
+                              @Value("${security.principals.max-concurrent-lookups:16}") int maxConcurrentLookups,
+                              @Value("${security.principals.lookup-wait:100ms}") Duration lookupWait) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // Each user has up to two aliases
+        this.byLogin = Caffeine.newBuilder()
+                .maximumSize(maxSize * 2)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.unknown = Caffeine.newBuilder()
+                .maximumSize(maxUnknown)
+                .expireAfterWrite(unknownExpiry)
+                .recordStats()
+                .build();
+        this.lookups = new Semaphore(maxConcurrentLookups);
+        this.lookupWait = lookupWait;
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "user-principals");
+        CaffeineCacheMetrics.monitor(meterRegistry, byLogin, "user-principal-logins");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknown, "user-principal-unknown");
+    }
+
+    public Optional<UserPrincipal> findById(UUID id) {
+        String unknownKey = "id:" + id;
+        if (unknown.getIfPresent(unknownKey) != null) {
+            return Optional.empty();
+        }
+        UserPrincipal principal = byId.get(id, this::loadById);
+        if (principal == null) {
+            unknown.put(unknownKey, Boolean.TRUE);
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    // Resolves a username or an email address
+    public Optional<UserPrincipal> findByLogin(String login) {
+        if (login == null || login.isBlank()) {
+            return Optional.empty();
+        }
+        if (unknown.getIfPresent(login) != null) {
+            return Optional.empty();
+        }
+        UUID id = byLogin.getIfPresent(login);
+        if (id != null) {
+            UserPrincipal cached = byId.getIfPresent(id);
+            if (cached != null && matches(cached, login)) {
+                return Optional.of(cached);
+            }
+            byLogin.invalidate(login);
+        }
+        // Only the id is read here; the principal itself is loaded by id through the cache, since a
+        // row read outside it could be put back after an eviction for a commit in between
+        UUID found = load(ID_BY_LOGIN_SQL, (rs, rowNum) -> rs.getObject("id", UUID.class), login, login);
+        if (found == null) {
+            unknown.put(login, Boolean.TRUE);
+            return Optional.empty();
+        }
+        UserPrincipal principal = byId.get(found, this::loadById);
+        // Renamed or deleted in between
+        return principal != null && matches(principal, login) ? Optional.of(principal) : Optional.empty();
+    }
+
+    public Optional<UserPrincipal> cached(UUID id) {
+        return Optional.ofNullable(byId.getIfPresent(id));
+    }
+
+    public void evict(UUID id) {
+        UserPrincipal previous = byId.asMap().remove(id);
+        unknown.invalidate("id:" + id);
+        if (previous != null) {
+            byLogin.asMap().remove(previous.username(), id);
+            byLogin.asMap().remove(previous.email(), id);
+        }
+    }
+
+    // A new user may have been guessed at before it existed
+    public void forgetUnknown(String... logins) {
+        for (String login : logins) {
+            if (login != null) {
+                unknown.invalidate(login);
+            }
+        }
+    }
+
+    long unknownCount() {
+        unknown.cleanUp();
+        return unknown.estimatedSize();
+    }
+
+    // Runs inside byId's compute for the id
+    private UserPrincipal loadById(UUID id) {
+        UserPrincipal loaded = load(BY_ID_SQL, ROW_MAPPER, id);
+        if (loaded != null) {
+            byLogin.put(loaded.username(), loaded.id());
+            byLogin.put(loaded.email(), loaded.id());
+        }
+        return loaded;
+    }
+
+    private <T> T load(String sql, RowMapper<T> rowMapper, Object... args) {
+        boolean acquired;
+        try {
+            acquired = lookups.tryAcquire(lookupWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts, retry shortly");
+        }
+        try {
+            List<T> rows = jdbcTemplate.query(sql, rowMapper, args);
+            return rows.isEmpty() ? null : rows.get(0);
+        } finally {
+            lookups.release();
+        }
+    }
+
+    private static boolean matches(UserPrincipal principal, String login) {
+        return login.equals(principal.username()) || login.equals(principal.email());
+    }
+}
@@ -0,0 +1,61 @@
+package produtivity.demo.security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import produtivity.demo.entity.User;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener that keeps {@link UserPrincipalCache} in step with user
+ * writes. Eviction waits for the commit, as in UserCatalogInvalidator, so
+ * that a principal reloaded from the old row before the commit is dropped as
+ * well; the cache loads principals inside its compute, so a load still in
+ * flight at the commit finishes before the eviction rather than after it.
+ */
+public class UserPrincipalInvalidator {
+
+    private final ObjectProvider<UserPrincipalCache> principals;
+
+    public UserPrincipalInvalidator(ObjectProvider<UserPrincipalCache> principals) {
+        this.principals = principals;
+    }
+
+    @PostPersist
+    void onCreate(User user) {
+        afterCompletion(cache -> cache.forgetUnknown(user.getUsername(), user.getEmail()));
+    }
+
+    // Evicts on every update: comparing against the cache here would miss a principal
+    // loaded from the old row after this point but before the commit
+    @PostUpdate
+    void onUpdate(User user) {
+        afterCompletion(cache -> cache.evict(user.getId()));
+    }
+
+    @PostRemove
+    void onDelete(User user) {
+        afterCompletion(cache -> cache.evict(user.getId()));
+    }
+
+    private void afterCompletion(Consumer<UserPrincipalCache> action) {
+        UserPrincipalCache cache = principals.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(cache);
+                }
+            });
+        } else {
+            action.accept(cache);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package produtivity.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.CategoryView;
+import produtivity.demo.dto.DashboardView;
+import produtivity.demo.dto.DashboardView.ProjectBoard;
+import produtivity.demo.dto.GoalView;
+import produtivity.demo.dto.ProjectDetailView;
+import produtivity.demo.dto.TagView;
+import produtivity.demo.dto.TaskCard;
+import produtivity.demo.entity.Category;
+import produtivity.demo.entity.Project;
+import produtivity.demo.entity.Task;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.repository.GoalRepository;
+import produtivity.demo.repository.ProjectRepository;
+import produtivity.demo.repository.TaskRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds the dashboard and project-detail views with fixed fetch plans:
+ * projects, tasks and categories through the Project.withTasks graph, then
+ * all task tags in one more query (two bags cannot be join-fetched together),
+ * plus goals for the detail view. The statement count does not depend on how
+ * many projects, tasks or tags a user has.
+ */
+@Service
+public class DashboardService {
+
+    private static final Comparator<Task> BOARD_ORDER = Comparator
+            .comparing(Task::getPosition, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Task::getId);
+
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final GoalRepository goalRepository;
+
+    public DashboardService(ProjectRepository projectRepository,
+                            TaskRepository taskRepository,
+                            GoalRepository goalRepository) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.goalRepository = goalRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardView dashboard(UUID userId) {
+        List<Project> projects = projectRepository.findWithTasksByUser(userId);
+        if (!projects.isEmpty()) {
+            taskRepository.fetchTags(projects.stream().map(Project::getId).toList());
+        }
+        List<ProjectBoard> boards = projects.stream().map(project -> {
+            List<TaskCard> cards = cards(project);
+            int completed = (int) cards.stream().filter(c -> c.status() == TaskStatus.COMPLETED).count();
+            return new ProjectBoard(project.getId(), project.getName(), project.getColor(), project.getStatus(),
+                    cards.size(), completed, cards);
+        }).toList();
+        return new DashboardView(userId, boards);
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectDetailView projectDetail(UUID userId, UUID projectId) {
+        Project project = projectRepository.findWithTasks(userId, projectId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found"));
+        taskRepository.fetchTags(List.of(projectId));
+        List<GoalView> goals = goalRepository.findByProject_IdOrderByEndDate(projectId).stream()
+                .map(g -> new GoalView(g.getId(), g.getTitle(), g.getGoalType(), g.getTargetValue(),
+                        g.getCurrentValue(), g.getUnit(), g.getStartDate(), g.getEndDate(), g.getStatus()))
+                .toList();
+        return new ProjectDetailView(project.getId(), project.getName(), project.getDescription(), project.getColor(),
+                project.getStatus(), project.getStartDate(), project.getEndDate(), cards(project), goals);
+    }
+
+    private static List<TaskCard> cards(Project project) {
+        return project.getTasks().stream()
+                .sorted(BOARD_ORDER)
+                .map(DashboardService::card)
+                .toList();
+    }
+
+    private static TaskCard card(Task task) {
+        Category category = task.getCategory();
+        return new TaskCard(task.getId(), task.getTitle(), task.getStatus(), task.getPriority(), task.getDueDate(),
+                task.getEstimatedDuration(), task.getActualDuration(),
+                task.getPosition() != null ? task.getPosition() : 0L,
+                category != null ? new CategoryView(category.getId(), category.getName(), category.getColor(), category.getIcon()) : null,
+                task.getTags().stream().map(t -> new TagView(t.getId(), t.getName(), t.getColor())).toList());
+    }
+}
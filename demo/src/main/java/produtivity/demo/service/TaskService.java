@@ -0,0 +1,65 @@
+package produtivity.demo.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.entity.Task;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.event.TaskStatusChangedEvent;
+import produtivity.demo.repository.TaskRepository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class TaskService {
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TaskService(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public TaskStatus updateStatus(UUID userId, UUID taskId, TaskStatus status) {
+        List<Task> tasks = taskRepository.findOwned(userId, List.of(taskId));
+        if (tasks.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        transition(userId, tasks.get(0), status, ZonedDateTime.now());
+        return status;
+    }
+
+    // Returns the number of tasks whose status changed; unknown ids are ignored
+    @Transactional
+    public int updateStatuses(UUID userId, Collection<UUID> taskIds, TaskStatus status) {
+        ZonedDateTime now = ZonedDateTime.now();
+        int changed = 0;
+        for (Task task : taskRepository.findOwned(userId, taskIds)) {
+            if (transition(userId, task, status, now)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private boolean transition(UUID userId, Task task, TaskStatus status, ZonedDateTime now) {
+        TaskStatus previous = task.getStatus();
+        if (previous == status) {
+            return false;
+        }
+        // A reopen takes back the completion from the day it was made
+        ZonedDateTime completedAt = status == TaskStatus.COMPLETED ? now : task.getCompletedAt();
+        task.setStatus(status);
+        task.setCompletedAt(status == TaskStatus.COMPLETED ? now : null);
+        eventPublisher.publishEvent(new TaskStatusChangedEvent(
+                task.getId(), task.getProject().getId(), userId, previous, status, now, completedAt));
+        return true;
+    }
+}
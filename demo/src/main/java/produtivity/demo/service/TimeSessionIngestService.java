@@ -0,0 +1,266 @@
+package produtivity.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TimeSessionIngestResult;
+import produtivity.demo.dto.TimeSessionIngestResult.Rejection;
+import produtivity.demo.dto.TimeSessionIngestRow;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.repository.ProjectRepository;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.repository.TimeSessionRepository;
+import produtivity.demo.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk ingest of client-recorded time sessions. Rows carry their own ids, are
+ * validated up front and written in batched inserts; invalid rows are reported
+ * back instead of failing the whole request.
+ */
+@Service
+public class TimeSessionIngestService {
+
+    // One statement per batch; RETURNING reports only the rows this request actually wrote
+    private static final String INSERT_SQL = """
+            INSERT INTO time_sessions (id, user_id, task_id, project_id, start_time, end_time, duration, description)
+            SELECT r.id, ?, r.task_id, r.project_id, r.start_time::timestamptz, r.end_time::timestamptz,
+                   r.duration, r.description
+            FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::text[], ?::text[], ?::int[], ?::text[])
+                AS r(id, task_id, project_id, start_time, end_time, duration, description)
+            ON CONFLICT (id, start_time) DO NOTHING
+            RETURNING id
+            """;
+
+    // Keeps IN lists well below the PostgreSQL bind parameter limit
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TimeSessionRepository timeSessionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxRows;
+
+    public TimeSessionIngestService(JdbcTemplate jdbcTemplate,
+                                    UserRepository userRepository,
+                                    ProjectRepository projectRepository,
+                                    TaskRepository taskRepository,
+                                    TimeSessionRepository timeSessionRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${time-sessions.ingest.batch-size:500}") int batchSize,
+                                    @Value("${time-sessions.ingest.max-rows:10000}") int maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.timeSessionRepository = timeSessionRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+
+    @Transactional
+    public TimeSessionIngestResult ingest(UUID userId, List<TimeSessionIngestRow> rows) {
+        if (rows.size() > maxRows) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + maxRows + " sessions can be ingested per request");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        List<Rejection> rejected = new ArrayList<>();
+        Map<UUID, UUID> taskProjects = lookupTaskProjects(userId, rows);
+        Set<UUID> ownedProjects = lookupOwnedProjects(userId, rows);
+
+        List<Accepted> accepted = new ArrayList<>(rows.size());
+        Set<UUID> seenIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            TimeSessionIngestRow row = rows.get(i);
+            String reason = validate(row, seenIds, taskProjects, ownedProjects);
+            if (reason != null) {
+                rejected.add(new Rejection(i, row.id(), reason));
+                continue;
+            }
+            seenIds.add(row.id());
+            accepted.add(new Accepted(toSnapshot(userId, row, taskProjects), row.description()));
+        }
+
+        // Retries are idempotent by id. The partitioned table's key also includes
+        // start_time, so known ids are skipped here rather than left to ON CONFLICT
+        Set<UUID> existing = findExisting(accepted.stream().map(a -> a.session().id()).toList());
+        List<Accepted> toInsert = accepted.stream()
+                .filter(a -> !existing.contains(a.session().id()))
+                .toList();
+        // A concurrent retry of the same batch passes the check above too; only
+        // the rows returned by the insert are announced, so neither counts twice
+        Set<UUID> inserted = new HashSet<>();
+        for (int from = 0; from < toInsert.size(); from += batchSize) {
+            inserted.addAll(insert(userId, toInsert.subList(from, Math.min(from + batchSize, toInsert.size()))));
+        }
+
+        List<TimeSessionChange> changes = toInsert.stream()
+                .map(Accepted::session)
+                .filter(session -> inserted.contains(session.id()))
+                .map(TimeSessionChange::created)
+                .toList();
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new TimeSessionsChangedEvent(changes));
+        }
+        return new TimeSessionIngestResult(rows.size(), changes.size(), accepted.size() - changes.size(), rejected);
+    }
+
+    private List<UUID> insert(UUID userId, List<Accepted> batch) {
+        int size = batch.size();
+        UUID[] ids = new UUID[size];
+        UUID[] taskIds = new UUID[size];
+        UUID[] projectIds = new UUID[size];
+        String[] startTimes = new String[size];
+        String[] endTimes = new String[size];
+        Integer[] durations = new Integer[size];
+        String[] descriptions = new String[size];
+        for (int i = 0; i < size; i++) {
+            TimeSessionSnapshot session = batch.get(i).session();
+            ids[i] = session.id();
+            taskIds[i] = session.taskId();
+            projectIds[i] = session.projectId();
+            startTimes[i] = session.startTime().toOffsetDateTime().toString();
+            endTimes[i] = session.endTime() != null ? session.endTime().toOffsetDateTime().toString() : null;
+            durations[i] = session.duration();
+            descriptions[i] = batch.get(i).description();
+        }
+        return jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(INSERT_SQL);
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("uuid", ids));
+            ps.setArray(3, con.createArrayOf("uuid", taskIds));
+            ps.setArray(4, con.createArrayOf("uuid", projectIds));
+            ps.setArray(5, con.createArrayOf("text", startTimes));
+            ps.setArray(6, con.createArrayOf("text", endTimes));
+            ps.setArray(7, con.createArrayOf("integer", durations));
+            ps.setArray(8, con.createArrayOf("text", descriptions));
+            return ps;
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+
+    private String validate(TimeSessionIngestRow row, Set<UUID> seenIds,
+                            Map<UUID, UUID> taskProjects, Set<UUID> ownedProjects) {
+        if (row.id() == null) {
+            return "id is required";
+        }
+        if (seenIds.contains(row.id())) {
+            return "duplicate id in request";
+        }
+        if (row.startTime() == null) {
+            return "startTime is required";
+        }
+        // Running timers are owned by ActiveSessionRegistry; ingest only takes closed sessions
+        if (Boolean.TRUE.equals(row.isActive())) {
+            return "active sessions cannot be ingested";
+        }
+        // As in the file import: one of the two is required and the other is derived from it
+        if (row.endTime() == null && row.duration() == null) {
+            return "endTime or duration is required";
+        }
+        if (row.endTime() != null && row.endTime().isBefore(row.startTime())) {
+            return "endTime is before startTime";
+        }
+        if (row.duration() != null && row.duration() < 0) {
+            return "duration must not be negative";
+        }
+        if (row.duration() != null && row.endTime() != null
+                && row.duration() > Duration.between(row.startTime(), row.endTime()).toMinutes()) {
+            return "duration is longer than the time between startTime and endTime";
+        }
+        if (row.taskId() != null) {
+            UUID taskProject = taskProjects.get(row.taskId());
+            if (taskProject == null) {
+                return "task not found";
+            }
+            if (row.projectId() != null && !row.projectId().equals(taskProject)) {
+                return "task does not belong to project";
+            }
+        } else if (row.projectId() != null && !ownedProjects.contains(row.projectId())) {
+            return "project not found";
+        }
+        return null;
+    }
+
+    private static TimeSessionSnapshot toSnapshot(UUID userId, TimeSessionIngestRow row, Map<UUID, UUID> taskProjects) {
+        UUID projectId = row.projectId() != null ? row.projectId() : taskProjects.get(row.taskId());
+        Integer duration = row.duration();
+        ZonedDateTime end = row.endTime();
+        if (end == null) {
+            end = row.startTime().plusMinutes(duration);
+        } else if (duration == null) {
+            duration = (int) Duration.between(row.startTime(), end).toMinutes();
+        }
+        return new TimeSessionSnapshot(row.id(), userId, projectId, row.taskId(),
+                row.startTime(), end, duration, false);
+    }
+
+    private Map<UUID, UUID> lookupTaskProjects(UUID userId, List<TimeSessionIngestRow> rows) {
+        List<UUID> taskIds = rows.stream()
+                .map(TimeSessionIngestRow::taskId)
+                .filter(id -> id != null)
+                .distinct()
+                .toList();
+        Map<UUID, UUID> taskProjects = new HashMap<>();
+        for (List<UUID> chunk : chunks(taskIds)) {
+            taskRepository.findOwnership(userId, chunk)
+                    .forEach(t -> taskProjects.put(t.getId(), t.getProjectId()));
+        }
+        return taskProjects;
+    }
+
+    private Set<UUID> lookupOwnedProjects(UUID userId, List<TimeSessionIngestRow> rows) {
+        List<UUID> projectIds = rows.stream()
+                .filter(row -> row.taskId() == null)
+                .map(TimeSessionIngestRow::projectId)
+                .filter(id -> id != null)
+                .distinct()
+                .toList();
+        Set<UUID> owned = new HashSet<>();
+        for (List<UUID> chunk : chunks(projectIds)) {
+            owned.addAll(projectRepository.findOwnedIds(userId, chunk));
+        }
+        return owned;
+    }
+
+    private Set<UUID> findExisting(List<UUID> ids) {
+        Set<UUID> existing = new HashSet<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            existing.addAll(timeSessionRepository.findExistingIds(chunk));
+        }
+        return existing;
+    }
+
+    private static List<List<UUID>> chunks(List<UUID> ids) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private record Accepted(TimeSessionSnapshot session, String description) {
+    }
+}
@@ -0,0 +1,116 @@
+package produtivity.demo.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TimeSessionUpdateRequest;
+import produtivity.demo.dto.TimeSessionView;
+import produtivity.demo.entity.TimeSession;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.repository.TimeSessionRepository;
+import produtivity.demo.service.timer.ActiveSessionRegistry;
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Close, edit and delete operations on individual time sessions. Every write
+ * publishes a {@link TimeSessionsChangedEvent} carrying the before and after
+ * state so derived data can be maintained incrementally.
+ */
+@Service
+public class TimeSessionService {
+
+    private final TimeSessionRepository timeSessionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActiveSessionRegistry activeSessionRegistry;
+
+    public TimeSessionService(TimeSessionRepository timeSessionRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              ActiveSessionRegistry activeSessionRegistry) {
+        this.timeSessionRepository = timeSessionRepository;
+        this.eventPublisher = eventPublisher;
+        this.activeSessionRegistry = activeSessionRegistry;
+    }
+
+    @Transactional
+    public TimeSessionView close(UUID userId, UUID sessionId, ZonedDateTime endTime) {
+        // Running timers are owned by the registry, which writes the stop behind
+        Optional<Stopped> stopped = activeSessionRegistry.stop(userId, sessionId, endTime);
+        if (stopped.isPresent()) {
+            return TimeSessionView.of(stopped.get());
+        }
+        // Anything else is already closed, or stopped with the stop still queued
+        loadClosed(userId, sessionId);
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Session is not active");
+    }
+
+    @Transactional
+    public TimeSessionView update(UUID userId, UUID sessionId, TimeSessionUpdateRequest request) {
+        TimeSession session = loadClosed(userId, sessionId);
+        TimeSessionSnapshot before = TimeSessionSnapshot.of(session);
+
+        boolean timesChanged = false;
+        if (request.startTime() != null) {
+            session.setStartTime(request.startTime());
+            timesChanged = true;
+        }
+        if (request.endTime() != null) {
+            session.setEndTime(request.endTime());
+            timesChanged = true;
+        }
+        if (session.getEndTime() != null && session.getEndTime().isBefore(session.getStartTime())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endTime is before startTime");
+        }
+        if (request.duration() != null) {
+            session.setDuration(request.duration());
+        } else if (timesChanged && session.getEndTime() != null) {
+            session.setDuration(minutesBetween(session.getStartTime(), session.getEndTime()));
+        }
+        if (request.description() != null) {
+            session.setDescription(request.description());
+        }
+
+        publish(before, session);
+        return TimeSessionView.of(session);
+    }
+
+    @Transactional
+    public void delete(UUID userId, UUID sessionId) {
+        TimeSession session = loadClosed(userId, sessionId);
+        TimeSessionSnapshot before = TimeSessionSnapshot.of(session);
+        timeSessionRepository.delete(session);
+        eventPublisher.publishEvent(TimeSessionsChangedEvent.of(TimeSessionChange.deleted(before)));
+    }
+
+    // Every active row belongs to the registry: it is running, or stopped with its stop not yet
+    // flushed. Editing one would move it away from the stop the registry writes by (id, start_time),
+    // or write is_active back over that stop, so such sessions are refused until they are closed
+    private TimeSession loadClosed(UUID userId, UUID sessionId) {
+        if (activeSessionRegistry.find(userId, sessionId).isPresent()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Stop the timer before changing its session");
+        }
+        TimeSession session = timeSessionRepository.findByIdAndUser_Id(sessionId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Time session not found"));
+        if (Boolean.TRUE.equals(session.getIsActive())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Session is still being stopped; retry shortly");
+        }
+        return session;
+    }
+
+    private void publish(TimeSessionSnapshot before, TimeSession session) {
+        eventPublisher.publishEvent(TimeSessionsChangedEvent.of(
+                new TimeSessionChange(before, TimeSessionSnapshot.of(session))));
+    }
+
+    private static int minutesBetween(ZonedDateTime start, ZonedDateTime end) {
+        return (int) Duration.between(start, end).toMinutes();
+    }
+}
@@ -0,0 +1,55 @@
+package produtivity.demo.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Resolves User.timezone for date bucketing; unknown or invalid zones fall back to UTC
+@Component
+public class UserTimezones {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserTimezones(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public ZoneId zoneOf(UUID userId) {
+        return lookup(List.of(userId)).get(userId);
+    }
+
+    public Map<UUID, ZoneId> lookup(Collection<UUID> userIds) {
+        Map<UUID, ZoneId> zones = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return zones;
+        }
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT id, timezone FROM users WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("uuid", userIds.toArray()));
+            return ps;
+        }, rs -> {
+            zones.put(rs.getObject("id", UUID.class), parse(rs.getString("timezone")));
+        });
+        userIds.forEach(id -> zones.putIfAbsent(id, ZoneOffset.UTC));
+        return zones;
+    }
+
+    public static ZoneId parse(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+}
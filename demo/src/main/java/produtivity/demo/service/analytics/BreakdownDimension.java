@@ -0,0 +1,5 @@
+package produtivity.demo.service.analytics;
+
+public enum BreakdownDimension {
+    NONE, PROJECT, TASK, CATEGORY
+}
@@ -0,0 +1,43 @@
+package produtivity.demo.service.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Dense int codes for the ids of one user's projects, tasks or categories; null maps to NONE
+final class IdCodes {
+
+    static final int NONE = -1;
+
+    private final Map<UUID, Integer> codes = new HashMap<>();
+    private final List<UUID> ids = new ArrayList<>();
+
+    int encode(UUID id) {
+        if (id == null) {
+            return NONE;
+        }
+        return codes.computeIfAbsent(id, k -> {
+            ids.add(k);
+            return ids.size() - 1;
+        });
+    }
+
+    // NONE for null, or for ids never encoded
+    int find(UUID id) {
+        if (id == null) {
+            return NONE;
+        }
+        Integer code = codes.get(id);
+        return code != null ? code : NONE;
+    }
+
+    UUID decode(int code) {
+        return code == NONE ? null : ids.get(code);
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,252 @@
+package produtivity.demo.service.analytics;
+
+import produtivity.demo.dto.TimeBreakdownRow;
+import produtivity.demo.service.rollup.DailyBuckets;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One user's tracked time as parallel primitive columns. Each session is
+ * stored as one row per local day it covers, split exactly like the daily
+ * rollups, so any day/week/month grouping is a plain scan with no timezone
+ * math per row. Rows of changed or deleted sessions are tombstoned and the
+ * columns compacted once a quarter of them are dead.
+ *
+ * Scans take the read lock and writes the write lock; scanning allocates
+ * only sums for the (period, key) slots that have rows, never per row.
+ */
+final class SessionColumns {
+
+    private static final int DEAD = Integer.MIN_VALUE;
+    private static final int INITIAL_SLOTS = 4096;
+
+    private final ZoneId zone;
+    private final IdCodes projects = new IdCodes();
+    private final IdCodes tasks = new IdCodes();
+    private final IdCodes categories = new IdCodes();
+    private final Map<UUID, UUID> taskCategory = new HashMap<>();
+    private final Map<UUID, int[]> rowsBySession = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Epoch day in the user's zone, or DEAD
+    private int[] day = new int[64];
+    private int[] minutes = new int[64];
+    private int[] project = new int[64];
+    private int[] task = new int[64];
+    private int[] category = new int[64];
+    // Set on the row for the day the session started, so each session counts once
+    private boolean[] startsSession = new boolean[64];
+    private int size;
+    private int dead;
+
+    SessionColumns(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    ZoneId zone() {
+        return zone;
+    }
+
+    int rows() {
+        return size;
+    }
+
+    // Whether the task has been seen, so that categoryOf is meaningful
+    boolean knowsTask(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            return taskCategory.containsKey(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Category of the task as last seen; null when uncategorised
+    UUID categoryOf(UUID taskId) {
+        lock.readLock().lock();
+        try {
+            return taskCategory.get(taskId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Inserts or replaces a session; idempotent for the same values
+    void put(UUID sessionId, UUID projectId, UUID taskId, UUID categoryId,
+             ZonedDateTime start, ZonedDateTime end, int duration) {
+        Map<LocalDate, Integer> split = DailyBuckets.split(start, end, duration, zone);
+        LocalDate startDay = start.withZoneSameInstant(zone).toLocalDate();
+        lock.writeLock().lock();
+        try {
+            removeLocked(sessionId);
+            compactIfSparse();
+            if (taskId != null) {
+                taskCategory.put(taskId, categoryId);
+            }
+            int projectCode = projects.encode(projectId);
+            int taskCode = tasks.encode(taskId);
+            int categoryCode = categories.encode(categoryId);
+            int[] rows = new int[split.size()];
+            int i = 0;
+            for (Map.Entry<LocalDate, Integer> part : split.entrySet()) {
+                ensureCapacity(size + 1);
+                day[size] = (int) part.getKey().toEpochDay();
+                minutes[size] = part.getValue();
+                project[size] = projectCode;
+                task[size] = taskCode;
+                category[size] = categoryCode;
+                startsSession[size] = part.getKey().equals(startDay);
+                rows[i++] = size++;
+            }
+            rowsBySession.put(sessionId, rows);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID sessionId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(sessionId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sums minutes and sessions per (period, key) for local days in
+     * [from, to], optionally restricted to one project. Rows with no time
+     * are left out; the order is by period, then by key code.
+     */
+    List<TimeBreakdownRow> breakdown(LocalDate from, LocalDate to, BreakdownPeriod period,
+                                     BreakdownDimension dimension, UUID projectFilter) {
+        int fromDay = (int) from.toEpochDay();
+        int span = (int) (to.toEpochDay() - fromDay) + 1;
+
+        // Day -> bucket lookup table, so the scan never converts dates
+        int[] bucketOfDay = new int[span];
+        List<LocalDate> bucketStarts = new ArrayList<>();
+        LocalDate current = null;
+        for (int d = 0; d < span; d++) {
+            LocalDate start = period.start(from.plusDays(d));
+            if (!start.equals(current)) {
+                bucketStarts.add(start);
+                current = start;
+            }
+            bucketOfDay[d] = bucketStarts.size() - 1;
+        }
+
+        lock.readLock().lock();
+        try {
+            IdCodes keys = switch (dimension) {
+                case NONE -> null;
+                case PROJECT -> projects;
+                case TASK -> tasks;
+                case CATEGORY -> categories;
+            };
+            int[] keyColumn = switch (dimension) {
+                case NONE -> null;
+                case PROJECT -> project;
+                case TASK -> task;
+                case CATEGORY -> category;
+            };
+            // Key slot 0 holds rows without a key
+            int width = keys == null ? 1 : keys.size() + 1;
+            boolean filtered = projectFilter != null;
+            int projectCode = filtered ? projects.find(projectFilter) : IdCodes.NONE;
+            if (filtered && projectCode == IdCodes.NONE) {
+                return List.of();
+            }
+
+            SlotSums sums = new SlotSums(Math.min(size, INITIAL_SLOTS));
+            for (int r = 0; r < size; r++) {
+                int offset = day[r] - fromDay;
+                if (offset < 0 || offset >= span || (filtered && project[r] != projectCode)) {
+                    continue;
+                }
+                long slot = (long) bucketOfDay[offset] * width + (keyColumn == null ? 0 : keyColumn[r] + 1);
+                sums.add(slot, minutes[r], startsSession[r]);
+            }
+
+            List<TimeBreakdownRow> result = new ArrayList<>();
+            for (long slot : sums.slots()) {
+                long minuteSum = sums.minutes(slot);
+                int sessionCount = sums.sessions(slot);
+                if (minuteSum == 0 && sessionCount == 0) {
+                    continue;
+                }
+                UUID key = keys == null ? null : keys.decode((int) (slot % width) - 1);
+                result.add(new TimeBreakdownRow(bucketStarts.get((int) (slot / width)), key, minuteSum, sessionCount));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(UUID sessionId) {
+        int[] rows = rowsBySession.remove(sessionId);
+        if (rows == null) {
+            return;
+        }
+        for (int row : rows) {
+            day[row] = DEAD;
+            minutes[row] = 0;
+            startsSession[row] = false;
+        }
+        dead += rows.length;
+    }
+
+    private void compactIfSparse() {
+        if (dead > 1024 && dead > size / 4) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] moved = new int[size];
+        int live = 0;
+        for (int r = 0; r < size; r++) {
+            if (day[r] == DEAD) {
+                continue;
+            }
+            day[live] = day[r];
+            minutes[live] = minutes[r];
+            project[live] = project[r];
+            task[live] = task[r];
+            category[live] = category[r];
+            startsSession[live] = startsSession[r];
+            moved[r] = live++;
+        }
+        for (int[] rows : rowsBySession.values()) {
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = moved[rows[i]];
+            }
+        }
+        size = live;
+        dead = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= day.length) {
+            return;
+        }
+        int grown = Math.max(capacity, day.length * 2);
+        day = Arrays.copyOf(day, grown);
+        minutes = Arrays.copyOf(minutes, grown);
+        project = Arrays.copyOf(project, grown);
+        task = Arrays.copyOf(task, grown);
+        category = Arrays.copyOf(category, grown);
+        startsSession = Arrays.copyOf(startsSession, grown);
+    }
+}
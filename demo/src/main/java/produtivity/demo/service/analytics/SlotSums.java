@@ -0,0 +1,88 @@
+package produtivity.demo.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Minute and session sums per breakdown slot (bucket * width + key), held in
+ * an open-addressing table sized by the slots actually hit. A long range
+ * broken down by task has far more possible slots than filled ones, so a
+ * dense grid would cost memory for every empty (day, task) pair.
+ */
+final class SlotSums {
+
+    // Slot + 1, so that 0 marks an empty cell
+    private long[] keys;
+    private long[] minutes;
+    private int[] sessions;
+    private int size;
+
+    SlotSums(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1;
+        keys = new long[capacity];
+        minutes = new long[capacity];
+        sessions = new int[capacity];
+    }
+
+    void add(long slot, int rowMinutes, boolean startsSession) {
+        int cell = cellOf(slot);
+        if (keys[cell] == 0) {
+            keys[cell] = slot + 1;
+            if (++size * 2 > keys.length) {
+                grow();
+                cell = cellOf(slot);
+            }
+        }
+        minutes[cell] += rowMinutes;
+        if (startsSession) {
+            sessions[cell]++;
+        }
+    }
+
+    // Filled slots in ascending order
+    long[] slots() {
+        long[] slots = new long[size];
+        int i = 0;
+        for (long key : keys) {
+            if (key != 0) {
+                slots[i++] = key - 1;
+            }
+        }
+        Arrays.sort(slots);
+        return slots;
+    }
+
+    long minutes(long slot) {
+        return minutes[cellOf(slot)];
+    }
+
+    int sessions(long slot) {
+        return sessions[cellOf(slot)];
+    }
+
+    // The slot's cell, or the empty cell where it would go
+    private int cellOf(long slot) {
+        int mask = keys.length - 1;
+        int cell = (int) ((slot * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (keys[cell] != 0 && keys[cell] != slot + 1) {
+            cell = (cell + 1) & mask;
+        }
+        return cell;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldMinutes = minutes;
+        int[] oldSessions = sessions;
+        keys = new long[oldKeys.length * 2];
+        minutes = new long[keys.length];
+        sessions = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int cell = cellOf(oldKeys[i] - 1);
+                keys[cell] = oldKeys[i];
+                minutes[cell] = oldMinutes[i];
+                sessions[cell] = oldSessions[i];
+            }
+        }
+    }
+}
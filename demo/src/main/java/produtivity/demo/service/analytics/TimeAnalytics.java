@@ -0,0 +1,149 @@
+package produtivity.demo.service.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.dto.TimeBreakdownRow;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.service.UserTimezones;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory time analytics over per-user {@link SessionColumns}. A user's
+ * columns are loaded from Postgres on their first report and then kept
+ * current from committed session writes, so reports never query the
+ * database. Idle users are evicted, bounded by the total number of rows.
+ *
+ * Updates replace a session's rows by id, which makes replaying an event
+ * harmless. If a write commits while the user's columns are still loading,
+ * the half-fresh columns are discarded and loaded again on the next report.
+ */
+@Component
+public class TimeAnalytics {
+
+    private static final String LOAD_SQL = """
+            SELECT s.id, s.project_id, s.task_id, t.category_id, s.start_time, s.end_time, s.duration
+            FROM time_sessions s
+            LEFT JOIN tasks t ON t.id = s.task_id
+            WHERE s.user_id = ? AND s.is_active IS NOT TRUE AND s.duration IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserTimezones userTimezones;
+    private final Cache<UUID, SessionColumns> columns;
+
+    public TimeAnalytics(JdbcTemplate jdbcTemplate,
+                         DataSource dataSource,
+                         TransactionTemplate transactionTemplate,
+                         UserTimezones userTimezones,
+                         MeterRegistry meterRegistry,
+                         @Value("${time-sessions.analytics.max-rows:5000000}") long maxRows,
+                         @Value("${time-sessions.analytics.idle-expiry:30m}") Duration idleExpiry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = transactionTemplate;
+        this.userTimezones = userTimezones;
+        this.columns = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((UUID userId, SessionColumns c) -> Math.max(1, c.rows()))
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.columns, "time-analytics");
+    }
+
+    public List<TimeBreakdownRow> breakdown(UUID userId, LocalDate from, LocalDate to, BreakdownPeriod period,
+                                            BreakdownDimension dimension, UUID projectId) {
+        return columns.get(userId, this::load).breakdown(from, to, period, dimension, projectId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionsChanged(TimeSessionsChangedEvent event) {
+        Map<UUID, SessionColumns> changed = new HashMap<>();
+        for (TimeSessionChange change : event.changes()) {
+            TimeSessionSnapshot latest = change.after() != null ? change.after() : change.before();
+            SessionColumns user = columns.getIfPresent(latest.userId());
+            if (user == null) {
+                // Blocks on an in-flight load and drops it, since it may predate this write
+                columns.invalidate(latest.userId());
+                continue;
+            }
+            changed.put(latest.userId(), user);
+            TimeSessionSnapshot after = change.after();
+            if (after == null || !after.isTracked()) {
+                user.remove(latest.id());
+                continue;
+            }
+            user.put(after.id(), after.projectId(), after.taskId(), categoryOf(user, after.taskId()),
+                    after.startTime(), after.effectiveEndTime(), after.duration());
+        }
+        // The weigher only runs on writes to the cache, so replace each entry with itself to
+        // count the rows it gained or lost; a no-op if the entry was evicted meanwhile
+        changed.forEach((userId, user) -> columns.asMap().replace(userId, user, user));
+    }
+
+    // Task categories are captured at load time; callers that move tasks between categories drop the user
+    public void invalidateAfterCommit(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            columns.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                columns.invalidate(userId);
+            }
+        });
+    }
+
+    private UUID categoryOf(SessionColumns user, UUID taskId) {
+        if (taskId == null) {
+            return null;
+        }
+        if (user.knowsTask(taskId)) {
+            return user.categoryOf(taskId);
+        }
+        return jdbcTemplate.queryForList("SELECT category_id FROM tasks WHERE id = ?", UUID.class, taskId)
+                .stream().findFirst().orElse(null);
+    }
+
+    private SessionColumns load(UUID userId) {
+        SessionColumns loaded = new SessionColumns(userTimezones.zoneOf(userId));
+        transactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(LOAD_SQL, rs -> {
+            OffsetDateTime start = rs.getObject("start_time", OffsetDateTime.class);
+            OffsetDateTime end = rs.getObject("end_time", OffsetDateTime.class);
+            int duration = rs.getInt("duration");
+            loaded.put(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("project_id", UUID.class),
+                    rs.getObject("task_id", UUID.class),
+                    rs.getObject("category_id", UUID.class),
+                    start.toZonedDateTime(),
+                    end != null ? end.toZonedDateTime() : start.toZonedDateTime().plusMinutes(duration),
+                    duration);
+        }, userId));
+        return loaded;
+    }
+}
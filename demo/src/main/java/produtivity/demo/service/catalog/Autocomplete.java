@@ -0,0 +1,135 @@
+package produtivity.demo.service.catalog;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import produtivity.demo.dto.NameSuggestion;
+import produtivity.demo.dto.TagView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tag and project name suggestions. Prefixes of a name or of any word in it
+ * are answered from a per-user {@link NamePrefixIndex} built over the cached
+ * {@link UserCatalog} lists; an index is rebuilt whenever the catalog hands
+ * back a different list, so it follows the catalog's invalidation. When the
+ * prefixes leave room, queries of three or more characters are completed with
+ * substring and similarity matches from the trigram indexes.
+ */
+@Component
+public class Autocomplete {
+
+    // Trigram indexes can only narrow substring matches of at least one full trigram
+    private static final int MIN_TRIGRAM_QUERY = 3;
+
+    private static final String TAG_SEARCH_SQL = """
+            SELECT id, name, color
+            FROM tags
+            WHERE user_id = ? AND (name ILIKE ? ESCAPE '\\' OR name % ?)
+            ORDER BY similarity(name, ?) DESC, name
+            LIMIT ?
+            """;
+
+    private static final String PROJECT_SEARCH_SQL = """
+            SELECT id, name, color
+            FROM projects
+            WHERE user_id = ? AND status <> 'ARCHIVED' AND (name ILIKE ? ESCAPE '\\' OR name % ?)
+            ORDER BY similarity(name, ?) DESC, name
+            LIMIT ?
+            """;
+
+    private final UserCatalog userCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<IndexKey, BuiltIndex> indexes;
+
+    public Autocomplete(UserCatalog userCatalog,
+                        JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${autocomplete.max-cached-indexes:20000}") long maxCachedIndexes,
+                        @Value("${autocomplete.idle-expiry:30m}") Duration idleExpiry) {
+        this.userCatalog = userCatalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxCachedIndexes)
+                .expireAfterAccess(idleExpiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "autocomplete-prefixes");
+    }
+
+    public List<NameSuggestion> tags(UUID userId, String query, int limit) {
+        List<NameSuggestion> prefixed = index(new IndexKey(userId, Kind.TAGS), () -> userCatalog.tags(userId),
+                TagView::name).complete(query, limit).stream()
+                .map(tag -> new NameSuggestion(tag.id(), tag.name(), tag.color()))
+                .toList();
+        return withTrigramMatches(prefixed, TAG_SEARCH_SQL, userId, query, limit);
+    }
+
+    public List<NameSuggestion> projects(UUID userId, String query, int limit) {
+        List<NameSuggestion> prefixed = index(new IndexKey(userId, Kind.PROJECTS), () -> userCatalog.projects(userId),
+                NameSuggestion::name).complete(query, limit);
+        return withTrigramMatches(prefixed, PROJECT_SEARCH_SQL, userId, query, limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> NamePrefixIndex<T> index(IndexKey key, Supplier<List<T>> source, Function<T, String> name) {
+        List<T> values = source.get();
+        BuiltIndex built = indexes.getIfPresent(key);
+        if (built == null || built.source() != values) {
+            built = new BuiltIndex(values, NamePrefixIndex.of(values, name));
+            indexes.put(key, built);
+        }
+        return (NamePrefixIndex<T>) built.index();
+    }
+
+    private List<NameSuggestion> withTrigramMatches(List<NameSuggestion> prefixed, String sql,
+                                                    UUID userId, String query, int limit) {
+        String term = query.strip();
+        if (prefixed.size() >= limit || term.length() < MIN_TRIGRAM_QUERY) {
+            return prefixed;
+        }
+        List<NameSuggestion> results = new ArrayList<>(prefixed);
+        Set<UUID> seen = new HashSet<>();
+        prefixed.forEach(s -> seen.add(s.id()));
+        // Over-fetch by the prefix hits, which the trigram match finds again
+        List<NameSuggestion> matches = jdbcTemplate.query(sql,
+                (rs, rowNum) -> new NameSuggestion(rs.getObject("id", UUID.class), rs.getString("name"),
+                        rs.getString("color")),
+                userId, "%" + escapeLike(term) + "%", term, term, limit + prefixed.size());
+        for (NameSuggestion match : matches) {
+            if (results.size() >= limit) {
+                break;
+            }
+            if (seen.add(match.id())) {
+                results.add(match);
+            }
+        }
+        return results;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private enum Kind {
+        TAGS, PROJECTS
+    }
+
+    private record IndexKey(UUID userId, Kind kind) {
+    }
+
+    // The catalog list the index was built from, compared by identity
+    private record BuiltIndex(List<?> source, NamePrefixIndex<?> index) {
+    }
+}
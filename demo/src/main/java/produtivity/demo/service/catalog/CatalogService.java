@@ -0,0 +1,113 @@
+package produtivity.demo.service.catalog;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.CategoryRequest;
+import produtivity.demo.dto.CategoryView;
+import produtivity.demo.dto.TagRequest;
+import produtivity.demo.dto.TagView;
+import produtivity.demo.entity.Category;
+import produtivity.demo.entity.Tag;
+import produtivity.demo.entity.User;
+import produtivity.demo.repository.CategoryRepository;
+import produtivity.demo.repository.TagRepository;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.repository.UserRepository;
+import produtivity.demo.service.analytics.TimeAnalytics;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Category and tag writes go through the entities so UserCatalogInvalidator sees every change;
+// preference writes are bulk upserts that evict the cached set themselves
+@Service
+public class CatalogService {
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final TaskRepository taskRepository;
+    private final UserPreferenceStore preferenceStore;
+    private final TimeAnalytics timeAnalytics;
+
+    public CatalogService(UserRepository userRepository,
+                          CategoryRepository categoryRepository,
+                          TagRepository tagRepository,
+                          TaskRepository taskRepository,
+                          UserPreferenceStore preferenceStore,
+                          TimeAnalytics timeAnalytics) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.taskRepository = taskRepository;
+        this.preferenceStore = preferenceStore;
+        this.timeAnalytics = timeAnalytics;
+    }
+
+    @Transactional
+    public CategoryView createCategory(UUID userId, CategoryRequest request) {
+        Category category = new Category(user(userId), request.name());
+        if (request.color() != null) {
+            category.setColor(request.color());
+        }
+        category.setIcon(request.icon());
+        categoryRepository.save(category);
+        return new CategoryView(category.getId(), category.getName(), category.getColor(), category.getIcon());
+    }
+
+    @Transactional
+    public void deleteCategory(UUID userId, UUID categoryId) {
+        Category category = categoryRepository.findByIdAndUser_Id(categoryId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found"));
+        taskRepository.clearCategory(categoryId);
+        categoryRepository.delete(category);
+        timeAnalytics.invalidateAfterCommit(userId);
+    }
+
+    @Transactional
+    public TagView createTag(UUID userId, TagRequest request) {
+        if (tagRepository.existsByUser_IdAndName(userId, request.name())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Tag already exists");
+        }
+        Tag tag = new Tag(user(userId), request.name());
+        if (request.color() != null) {
+            tag.setColor(request.color());
+        }
+        try {
+            // Flushed here so a concurrent create of the same name hits (user_id, name) inside this call
+            tagRepository.saveAndFlush(tag);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Tag already exists");
+        }
+        return new TagView(tag.getId(), tag.getName(), tag.getColor());
+    }
+
+    @Transactional
+    public void deleteTag(UUID userId, UUID tagId) {
+        Tag tag = tagRepository.findByIdAndUser_Id(tagId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found"));
+        tagRepository.delete(tag);
+    }
+
+    // Returns the preference set version after the write
+    @Transactional
+    public long upsertPreferences(UUID userId, Map<String, String> values) {
+        for (String key : values.keySet()) {
+            if (key == null || key.isBlank() || key.length() > 100) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Preference keys are 1 to 100 characters");
+            }
+        }
+        return preferenceStore.upsert(userId, values)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
+    private User user(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        return userRepository.getReferenceById(userId);
+    }
+}
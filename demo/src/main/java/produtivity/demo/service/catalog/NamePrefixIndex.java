@@ -0,0 +1,113 @@
+package produtivity.demo.service.catalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index over a user's names. Names and every later word in
+ * them are kept in sorted arrays of folded keys (lower case, accents
+ * stripped), so a lookup is a binary search plus a short scan. Whole-name
+ * matches rank before matches on a later word; each group is alphabetical.
+ */
+final class NamePrefixIndex<T> {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Entry<T>[] names;
+    private final Entry<T>[] words;
+
+    private NamePrefixIndex(Entry<T>[] names, Entry<T>[] words) {
+        this.names = names;
+        this.words = words;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> NamePrefixIndex<T> of(List<T> values, Function<T, String> name) {
+        List<Entry<T>> names = new ArrayList<>(values.size());
+        List<Entry<T>> words = new ArrayList<>();
+        for (T value : values) {
+            String folded = fold(name.apply(value));
+            names.add(new Entry<>(folded, folded, value));
+            for (int i = 1; i < folded.length(); i++) {
+                if (Character.isLetterOrDigit(folded.charAt(i)) && !Character.isLetterOrDigit(folded.charAt(i - 1))) {
+                    words.add(new Entry<>(folded.substring(i), folded, value));
+                }
+            }
+        }
+        Comparator<Entry<T>> order = Comparator.<Entry<T>, String>comparing(Entry::key).thenComparing(Entry::name);
+        names.sort(order);
+        words.sort(order);
+        return new NamePrefixIndex<>(names.toArray(Entry[]::new), words.toArray(Entry[]::new));
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    List<T> complete(String prefix, int limit) {
+        String folded = fold(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<T> matches = new LinkedHashSet<>();
+        collect(names, folded, matches, limit, false);
+        if (matches.size() < limit) {
+            collect(words, folded, matches, limit, true);
+        }
+        return matches.isEmpty() ? List.of() : Collections.unmodifiableList(new ArrayList<>(matches));
+    }
+
+    // Word matches are gathered per range first so they can be ordered by the whole name
+    private static <T> void collect(Entry<T>[] entries, String prefix, Set<T> matches, int limit, boolean byName) {
+        int from = lowerBound(entries, prefix);
+        if (!byName) {
+            for (int i = from; i < entries.length && matches.size() < limit && entries[i].key.startsWith(prefix); i++) {
+                matches.add(entries[i].value);
+            }
+            return;
+        }
+        int to = from;
+        while (to < entries.length && entries[to].key.startsWith(prefix)) {
+            to++;
+        }
+        Entry<T>[] range = Arrays.copyOfRange(entries, from, to);
+        Arrays.sort(range, Comparator.comparing(Entry::name));
+        for (int i = 0; i < range.length && matches.size() < limit; i++) {
+            matches.add(range[i].value);
+        }
+    }
+
+    private static int lowerBound(Entry<?>[] entries, String key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key.compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String trimmed = value.strip().toLowerCase(Locale.ROOT);
+        return MARKS.matcher(Normalizer.normalize(trimmed, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    private record Entry<T>(String key, String name, T value) {
+    }
+}
@@ -0,0 +1,65 @@
+package produtivity.demo.service.catalog;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.config.CacheConfig;
+import produtivity.demo.dto.CategoryView;
+import produtivity.demo.dto.NameSuggestion;
+import produtivity.demo.dto.PreferenceSet;
+import produtivity.demo.dto.TagView;
+import produtivity.demo.repository.CategoryRepository;
+import produtivity.demo.repository.ProjectRepository;
+import produtivity.demo.repository.TagRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cached per-user reads of the small, read-mostly sets rendered alongside
+ * tasks and offered in pickers. Values are immutable views so cached entries never hold entities;
+ * {@link UserCatalogInvalidator} evicts a user's entry when one of the
+ * underlying rows is written. Loads are synchronized, so they run inside the
+ * cache's compute and an eviction for the same user waits for one in flight
+ * rather than being overwritten by it.
+ */
+@Component
+public class UserCatalog {
+
+    private final CategoryRepository categoryRepository;
+    private final TagRepository tagRepository;
+    private final ProjectRepository projectRepository;
+    private final UserPreferenceStore preferenceStore;
+
+    UserCatalog(CategoryRepository categoryRepository,
+                TagRepository tagRepository,
+                ProjectRepository projectRepository,
+                UserPreferenceStore preferenceStore) {
+        this.categoryRepository = categoryRepository;
+        this.tagRepository = tagRepository;
+        this.projectRepository = projectRepository;
+        this.preferenceStore = preferenceStore;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USER_CATEGORIES, key = "#userId", sync = true)
+    public List<CategoryView> categories(UUID userId) {
+        return List.copyOf(categoryRepository.findViews(userId));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USER_TAGS, key = "#userId", sync = true)
+    public List<TagView> tags(UUID userId) {
+        return List.copyOf(tagRepository.findViews(userId));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USER_PROJECTS, key = "#userId", sync = true)
+    public List<NameSuggestion> projects(UUID userId) {
+        return List.copyOf(projectRepository.findSuggestions(userId));
+    }
+
+    @Cacheable(cacheNames = CacheConfig.USER_PREFERENCES, key = "#userId", sync = true)
+    public PreferenceSet preferences(UUID userId) {
+        return preferenceStore.load(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+}
@@ -0,0 +1,68 @@
+package produtivity.demo.service.catalog;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import produtivity.demo.config.CacheConfig;
+import produtivity.demo.entity.Category;
+import produtivity.demo.entity.Project;
+import produtivity.demo.entity.Tag;
+import produtivity.demo.entity.UserPreference;
+
+import java.util.UUID;
+
+/**
+ * JPA entity listener that evicts the owning user's {@link UserCatalog} entry
+ * when a category, tag, project or preference row is written. Eviction waits for the
+ * commit, so rows read before it are dropped too; UserCatalog loads with sync = true,
+ * so a load still in flight at the commit completes before the eviction, not after.
+ * Instantiated by Hibernate through Spring's bean container.
+ */
+public class UserCatalogInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public UserCatalogInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onWrite(Object entity) {
+        if (entity instanceof Category category) {
+            evict(CacheConfig.USER_CATEGORIES, category.getUser().getId());
+        } else if (entity instanceof Tag tag) {
+            evict(CacheConfig.USER_TAGS, tag.getUser().getId());
+        } else if (entity instanceof Project project) {
+            evict(CacheConfig.USER_PROJECTS, project.getUser().getId());
+        } else if (entity instanceof UserPreference preference) {
+            evict(CacheConfig.USER_PREFERENCES, preference.getUser().getId());
+        }
+    }
+
+    private void evict(String cacheName, UUID userId) {
+        evictAfterCompletion(cacheManager.getCache(cacheName), userId);
+    }
+
+    // Shared with writers that bypass the entities
+    public static void evictAfterCompletion(Cache cache, UUID userId) {
+        if (cache == null || userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(userId);
+                }
+            });
+        } else {
+            cache.evict(userId);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package produtivity.demo.service.catalog;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import produtivity.demo.config.CacheConfig;
+import produtivity.demo.dto.PreferenceSet;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * SQL side of user preferences. A set is read with one join against the
+ * owning user row, and any number of keys is written with one upsert that
+ * also bumps users.preferences_version when a value actually changed.
+ */
+@Component
+class UserPreferenceStore {
+
+    private static final String LOAD_SQL = """
+            SELECT u.preferences_version, p.preference_key, p.preference_value
+            FROM users u
+            LEFT JOIN user_preferences p ON p.user_id = u.id
+            WHERE u.id = ?
+            """;
+
+    // Rows whose value is unchanged are skipped, so a no-op write keeps the version
+    private static final String UPSERT_SQL = """
+            WITH upserted AS (
+                INSERT INTO user_preferences AS p (user_id, preference_key, preference_value)
+                SELECT u.id, i.preference_key, i.preference_value
+                FROM unnest(?::varchar[], ?::text[]) AS i(preference_key, preference_value)
+                JOIN users u ON u.id = ?
+                ON CONFLICT (user_id, preference_key) DO UPDATE
+                SET preference_value = EXCLUDED.preference_value, updated_at = CURRENT_TIMESTAMP
+                WHERE p.preference_value IS DISTINCT FROM EXCLUDED.preference_value
+                RETURNING 1
+            )
+            UPDATE users SET preferences_version = preferences_version + 1
+            WHERE id = ? AND EXISTS (SELECT 1 FROM upserted)
+            RETURNING preferences_version
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    UserPreferenceStore(JdbcTemplate jdbcTemplate, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    // Empty when the user does not exist
+    Optional<PreferenceSet> load(UUID userId) {
+        Map<String, String> values = new TreeMap<>();
+        List<Long> version = new ArrayList<>(1);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            if (version.isEmpty()) {
+                version.add(rs.getLong("preferences_version"));
+            }
+            String key = rs.getString("preference_key");
+            if (key != null) {
+                values.put(key, rs.getString("preference_value"));
+            }
+        }, userId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        // Values may be null, which rules out Map.copyOf
+        return Optional.of(new PreferenceSet(version.get(0), Collections.unmodifiableMap(values)));
+    }
+
+    /**
+     * Upserts all entries in one statement and returns the resulting version,
+     * or empty when the user does not exist. Keys must be unique, which a Map
+     * guarantees; ON CONFLICT cannot touch the same row twice.
+     */
+    Optional<Long> upsert(UUID userId, Map<String, String> values) {
+        String[] keys = new String[values.size()];
+        String[] texts = new String[values.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            keys[i] = entry.getKey();
+            texts[i] = entry.getValue();
+            i++;
+        }
+        List<Long> bumped = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("varchar", keys));
+            ps.setArray(2, con.createArrayOf("text", texts));
+            ps.setObject(3, userId, Types.OTHER);
+            ps.setObject(4, userId, Types.OTHER);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+        UserCatalogInvalidator.evictAfterCompletion(cacheManager.getCache(CacheConfig.USER_PREFERENCES), userId);
+        if (!bumped.isEmpty()) {
+            return Optional.of(bumped.get(0));
+        }
+        return jdbcTemplate.queryForList("SELECT preferences_version FROM users WHERE id = ?", Long.class, userId)
+                .stream().findFirst();
+    }
+}
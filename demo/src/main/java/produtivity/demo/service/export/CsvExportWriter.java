@@ -0,0 +1,72 @@
+package produtivity.demo.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// RFC 4180 CSV with a header row; NULL is an empty field
+class CsvExportWriter extends ExportWriter {
+
+    private final Writer out;
+
+    CsvExportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+    }
+
+    @Override
+    void writeHeader() throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(names[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    void writeRow(ResultSet rs) throws SQLException, IOException {
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = text(rs, i);
+            if (value != null) {
+                writeField(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    void finish() throws IOException {
+        out.flush();
+    }
+
+    // Quotes only fields that need it, doubling embedded quotes
+    void writeField(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,8 @@
+package produtivity.demo.service.export;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// All fields optional; dates are inclusive days in the user's timezone
+public record ExportFilter(LocalDate from, LocalDate to, UUID projectId) {
+}
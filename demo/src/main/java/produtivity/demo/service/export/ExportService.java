@@ -0,0 +1,134 @@
+package produtivity.demo.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.service.UserTimezones;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Streams a user's time sessions or tasks straight from a forward-only
+ * cursor to an output stream. PostgreSQL only uses a cursor when the fetch
+ * size is set and autocommit is off, so each export runs in a read-only
+ * transaction with a fetch size; memory stays at one fetch of rows however
+ * large the history is. Rows come in index order, so no sort is spooled.
+ */
+@Service
+public class ExportService {
+
+    private static final String SESSIONS_SQL = """
+            SELECT s.id, s.project_id, p.name AS project_name, s.task_id, t.title AS task_title,
+                   s.start_time, s.end_time, s.duration, s.description, s.is_active
+            FROM time_sessions s
+            LEFT JOIN projects p ON p.id = s.project_id
+            LEFT JOIN tasks t ON t.id = s.task_id
+            WHERE s.user_id = ?
+            """;
+
+    private static final String TASKS_SQL = """
+            SELECT t.id, t.project_id, p.name AS project_name, t.title, t.description, t.status, t.priority,
+                   c.name AS category, t.due_date, t.estimated_duration, t.actual_duration,
+                   (SELECT string_agg(g.name, ';' ORDER BY g.name)
+                    FROM task_tags tt JOIN tags g ON g.id = tt.tag_id
+                    WHERE tt.task_id = t.id) AS tags,
+                   t.created_at, t.updated_at
+            FROM tasks t
+            JOIN projects p ON p.id = t.project_id
+            LEFT JOIN categories c ON c.id = t.category_id
+            WHERE p.user_id = ?
+            """;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final UserTimezones userTimezones;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         UserTimezones userTimezones,
+                         ObjectMapper objectMapper,
+                         @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.userTimezones = userTimezones;
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportTimeSessions(UUID userId, ExportFilter filter, ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(SESSIONS_SQL);
+        List<Object> args = new ArrayList<>(List.of(userId));
+        appendRange(sql, args, "s.start_time", userId, filter);
+        if (filter.projectId() != null) {
+            sql.append("AND s.project_id = ?\n");
+            args.add(filter.projectId());
+        }
+        sql.append("ORDER BY s.start_time, s.id");
+        stream(sql.toString(), args, format, out);
+    }
+
+    // The date range applies to when the task was created
+    public void exportTasks(UUID userId, ExportFilter filter, ExportFormat format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(TASKS_SQL);
+        List<Object> args = new ArrayList<>(List.of(userId));
+        appendRange(sql, args, "t.created_at", userId, filter);
+        if (filter.projectId() != null) {
+            sql.append("AND t.project_id = ?\n");
+            args.add(filter.projectId());
+        }
+        sql.append("ORDER BY t.project_id, t.position, t.id");
+        stream(sql.toString(), args, format, out);
+    }
+
+    private void appendRange(StringBuilder sql, List<Object> args, String column, UUID userId, ExportFilter filter) {
+        if (filter.from() == null && filter.to() == null) {
+            return;
+        }
+        ZoneId zone = userTimezones.zoneOf(userId);
+        if (filter.from() != null) {
+            sql.append("AND ").append(column).append(" >= ?\n");
+            args.add(OffsetDateTime.from(filter.from().atStartOfDay(zone)));
+        }
+        if (filter.to() != null) {
+            sql.append("AND ").append(column).append(" < ?\n");
+            args.add(OffsetDateTime.from(filter.to().plusDays(1).atStartOfDay(zone)));
+        }
+    }
+
+    private void stream(String sql, List<Object> args, ExportFormat format, OutputStream out) {
+        readOnly.executeWithoutResult(status -> cursorJdbcTemplate.query(sql, rs -> {
+            try {
+                ExportWriter writer = writer(format, out);
+                writer.begin(rs.getMetaData());
+                while (rs.next()) {
+                    writer.writeRow(rs);
+                }
+                writer.finish();
+            } catch (IOException e) {
+                // Usually the client went away; the transaction rolls back and closes the cursor
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }, args.toArray()));
+    }
+
+    private ExportWriter writer(ExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvExportWriter(out);
+            case NDJSON -> new NdjsonExportWriter(objectMapper.getFactory(), out);
+        };
+    }
+}
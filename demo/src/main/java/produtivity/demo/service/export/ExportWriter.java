@@ -0,0 +1,67 @@
+package produtivity.demo.service.export;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Writes the current row of a result set in one export format. Column names
+ * and value kinds are taken from the result set metadata once, so a row is
+ * written without building any intermediate object for it.
+ */
+abstract class ExportWriter {
+
+    // NUMBER covers integer columns only
+    enum Kind { TEXT, NUMBER, BOOLEAN, TIMESTAMP, DATE }
+
+    protected String[] names;
+    protected Kind[] kinds;
+
+    void begin(ResultSetMetaData meta) throws SQLException, IOException {
+        int count = meta.getColumnCount();
+        names = new String[count];
+        kinds = new Kind[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = meta.getColumnLabel(i + 1);
+            kinds[i] = kindOf(meta.getColumnType(i + 1));
+        }
+        writeHeader();
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+    // Flushes buffered output without closing the underlying stream
+    abstract void finish() throws IOException;
+
+    // Text form of a non-numeric column, or null for SQL NULL
+    protected String text(ResultSet rs, int index) throws SQLException {
+        int column = index + 1;
+        return switch (kinds[index]) {
+            case TIMESTAMP -> {
+                OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+                yield value != null ? value.toString() : null;
+            }
+            case DATE -> {
+                LocalDate value = rs.getObject(column, LocalDate.class);
+                yield value != null ? value.toString() : null;
+            }
+            default -> rs.getString(column);
+        };
+    }
+
+    private static Kind kindOf(int sqlType) {
+        return switch (sqlType) {
+            case Types.SMALLINT, Types.INTEGER, Types.BIGINT -> Kind.NUMBER;
+            case Types.BOOLEAN, Types.BIT -> Kind.BOOLEAN;
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> Kind.TIMESTAMP;
+            case Types.DATE -> Kind.DATE;
+            default -> Kind.TEXT;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package produtivity.demo.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// One JSON object per line, keyed by column label; numbers and booleans keep their JSON types
+class NdjsonExportWriter extends ExportWriter {
+
+    private final JsonGenerator json;
+
+    NdjsonExportWriter(JsonFactory factory, OutputStream out) throws IOException {
+        this.json = factory.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        // Lines are terminated explicitly instead of space-separated
+        this.json.setRootValueSeparator(null);
+    }
+
+    @Override
+    void writeHeader() {
+        // Each line is self-describing
+    }
+
+    @Override
+    void writeRow(ResultSet rs) throws SQLException, IOException {
+        json.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+            json.writeFieldName(names[i]);
+            switch (kinds[i]) {
+                case NUMBER -> {
+                    long value = rs.getLong(i + 1);
+                    if (rs.wasNull()) {
+                        json.writeNull();
+                    } else {
+                        json.writeNumber(value);
+                    }
+                }
+                case BOOLEAN -> {
+                    boolean value = rs.getBoolean(i + 1);
+                    if (rs.wasNull()) {
+                        json.writeNull();
+                    } else {
+                        json.writeBoolean(value);
+                    }
+                }
+                default -> json.writeString(text(rs, i));
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    void finish() throws IOException {
+        json.flush();
+    }
+}
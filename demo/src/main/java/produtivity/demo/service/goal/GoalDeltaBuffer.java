@@ -0,0 +1,50 @@
+package produtivity.demo.service.goal;
+
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.event.TaskStatusChangedEvent;
+import produtivity.demo.event.TimeSessionChange;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Goal-relevant changes collected during one transaction
+class GoalDeltaBuffer {
+
+    final List<TaskStatusChangedEvent> completions = new ArrayList<>();
+    final List<TimeSessionChange> sessionChanges = new ArrayList<>();
+    final Set<UUID> projectsToRecount = new HashSet<>();
+    final Set<UUID> userIds = new HashSet<>();
+
+    void add(TaskStatusChangedEvent event) {
+        boolean completionChanged = event.from() == TaskStatus.COMPLETED || event.to() == TaskStatus.COMPLETED;
+        if (completionChanged) {
+            completions.add(event);
+        }
+        if (completionChanged || event.from() == TaskStatus.CANCELLED || event.to() == TaskStatus.CANCELLED) {
+            projectsToRecount.add(event.projectId());
+        }
+        userIds.add(event.userId());
+    }
+
+    void add(TimeSessionChange change) {
+        boolean tracked = false;
+        if (change.before() != null && change.before().isTracked()) {
+            userIds.add(change.before().userId());
+            tracked = true;
+        }
+        if (change.after() != null && change.after().isTracked()) {
+            userIds.add(change.after().userId());
+            tracked = true;
+        }
+        if (tracked) {
+            sessionChanges.add(change);
+        }
+    }
+
+    boolean isEmpty() {
+        return completions.isEmpty() && sessionChanges.isEmpty() && projectsToRecount.isEmpty();
+    }
+}
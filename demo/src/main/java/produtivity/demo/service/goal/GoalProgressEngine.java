@@ -0,0 +1,299 @@
+package produtivity.demo.service.goal;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.entity.Goal.GoalStatus;
+import produtivity.demo.entity.Goal.GoalType;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.event.TaskStatusChangedEvent;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.service.UserTimezones;
+import produtivity.demo.service.rollup.DailyBuckets;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Keeps Goal.currentValue current from task status transitions and session
+ * writes instead of rescanning tasks and sessions per goal.
+ *
+ * TASK_COUNT goals count tasks completed within the goal's dates, TIME_SPENT
+ * goals sum tracked minutes within them (V14 keeps their unit in minutes) and
+ * PROJECT_COMPLETION goals hold the percentage of the project's non-cancelled
+ * tasks that are completed.
+ * Changes are buffered per transaction and applied just before it commits,
+ * with at most one UPDATE per affected goal.
+ */
+@Component
+public class GoalProgressEngine {
+
+    private static final String ACTIVE_GOALS_SQL = """
+            SELECT id, user_id, project_id, goal_type, start_date, end_date
+            FROM goals
+            WHERE user_id = ANY(?) AND status = ?
+            ORDER BY id
+            """;
+
+    private static final String PROJECT_COUNTS_SQL = """
+            SELECT project_id,
+                   count(*) FILTER (WHERE status = ?) AS completed,
+                   count(*) FILTER (WHERE status <> ?) AS counted
+            FROM tasks
+            WHERE project_id = ANY(?)
+            GROUP BY project_id
+            """;
+
+    private static final String USER_GOALS_SQL = """
+            SELECT id, project_id, goal_type, start_date, end_date
+            FROM goals
+            WHERE user_id = ? AND status = ?
+            ORDER BY id
+            """;
+
+    private static final String COMPLETED_TASKS_SQL = """
+            SELECT count(*)
+            FROM tasks t
+            JOIN projects p ON p.id = t.project_id
+            WHERE p.user_id = ? AND t.status = ? AND t.completed_at >= ? AND t.completed_at < ?
+              AND (?::uuid IS NULL OR t.project_id = ?)
+            """;
+
+    private static final String TRACKED_MINUTES_SQL = """
+            SELECT COALESCE(SUM(total_minutes), 0)
+            FROM time_session_daily_rollups
+            WHERE user_id = ? AND bucket_date BETWEEN ? AND ?
+              AND (?::uuid IS NULL OR project_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserTimezones userTimezones;
+
+    public GoalProgressEngine(JdbcTemplate jdbcTemplate,
+                              EntityManager entityManager,
+                              TransactionTemplate transactionTemplate,
+                              UserTimezones userTimezones) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.userTimezones = userTimezones;
+    }
+
+    @EventListener
+    public void onTaskStatusChanged(TaskStatusChangedEvent event) {
+        record(buffer -> buffer.add(event));
+    }
+
+    @EventListener
+    public void onSessionsChanged(TimeSessionsChangedEvent event) {
+        record(buffer -> event.changes().forEach(buffer::add));
+    }
+
+    private void record(Consumer<GoalDeltaBuffer> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            GoalDeltaBuffer buffer = new GoalDeltaBuffer();
+            change.accept(buffer);
+            transactionTemplate.executeWithoutResult(status -> flush(buffer));
+            return;
+        }
+        GoalDeltaBuffer buffer = (GoalDeltaBuffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            GoalDeltaBuffer created = new GoalDeltaBuffer();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    GoalProgressEngine.this.flush(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GoalProgressEngine.this);
+                }
+            });
+            buffer = created;
+        }
+        change.accept(buffer);
+    }
+
+    /**
+     * Recomputes every active goal of the user from tasks and the daily
+     * rollups, for writes that publish no change events such as bulk
+     * imports. Runs in the caller's transaction, after its rollups were
+     * rebuilt.
+     */
+    public void recount(UUID userId) {
+        ZoneId zone = userTimezones.zoneOf(userId);
+        List<GoalWindow> goals = jdbcTemplate.query(USER_GOALS_SQL, (rs, rowNum) -> new GoalWindow(
+                rs.getObject("id", UUID.class),
+                rs.getObject("project_id", UUID.class),
+                GoalType.valueOf(rs.getString("goal_type")),
+                rs.getObject("start_date", LocalDate.class),
+                rs.getObject("end_date", LocalDate.class)), userId, GoalStatus.ACTIVE.name());
+        Set<UUID> projectIds = new HashSet<>();
+        for (GoalWindow goal : goals) {
+            if (goal.type() == GoalType.PROJECT_COMPLETION && goal.projectId() != null) {
+                projectIds.add(goal.projectId());
+            }
+        }
+        Map<UUID, Integer> percentages = projectIds.isEmpty() ? Map.of() : completionPercentages(projectIds);
+
+        List<Object[]> values = new ArrayList<>();
+        for (GoalWindow goal : goals) {
+            Long value = switch (goal.type()) {
+                case TASK_COUNT -> jdbcTemplate.queryForObject(COMPLETED_TASKS_SQL, Long.class,
+                        userId, TaskStatus.COMPLETED.name(),
+                        goal.start().atStartOfDay(zone).toOffsetDateTime(),
+                        goal.end().plusDays(1).atStartOfDay(zone).toOffsetDateTime(),
+                        goal.projectId(), goal.projectId());
+                case TIME_SPENT -> jdbcTemplate.queryForObject(TRACKED_MINUTES_SQL, Long.class,
+                        userId, goal.start(), goal.end(), goal.projectId(), goal.projectId());
+                case PROJECT_COMPLETION -> goal.projectId() != null ? (long) percentages.get(goal.projectId()) : null;
+            };
+            if (value != null) {
+                values.add(new Object[]{value.intValue(), goal.id(), value.intValue()});
+            }
+        }
+        if (!values.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE goals SET current_value = ? WHERE id = ? AND current_value IS DISTINCT FROM ?",
+                    values, new int[]{Types.INTEGER, Types.OTHER, Types.INTEGER});
+        }
+    }
+
+    // Recounts every user with active goals, each in its own transaction
+    public int recountAll() {
+        List<UUID> userIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT user_id FROM goals WHERE status = ? ORDER BY user_id", UUID.class, GoalStatus.ACTIVE.name());
+        for (UUID userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> recount(userId));
+        }
+        return userIds.size();
+    }
+
+    void flush(GoalDeltaBuffer buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        Map<UUID, ZoneId> zones = userTimezones.lookup(buffer.userIds);
+        Map<DeltaKey, Long> amounts = new HashMap<>();
+        for (TaskStatusChangedEvent completion : buffer.completions) {
+            // Completions from before completed_at was kept fall back to the transition time
+            ZonedDateTime counted = completion.completedAt() != null ? completion.completedAt() : completion.changedAt();
+            LocalDate day = counted.withZoneSameInstant(zones.get(completion.userId())).toLocalDate();
+            int sign = completion.to() == TaskStatus.COMPLETED ? 1 : -1;
+            amounts.merge(new DeltaKey(completion.userId(), completion.projectId(), GoalType.TASK_COUNT, day), (long) sign, Long::sum);
+        }
+        for (TimeSessionChange change : buffer.sessionChanges) {
+            addMinutes(amounts, change.before(), zones, -1);
+            addMinutes(amounts, change.after(), zones, 1);
+        }
+        amounts.entrySet().removeIf(e -> e.getValue() == 0);
+        List<DeltaKey> deltas = new ArrayList<>(amounts.keySet());
+
+        Map<UUID, Integer> completionPercent = Map.of();
+        if (!buffer.projectsToRecount.isEmpty()) {
+            // Status changes may still sit in the persistence context
+            entityManager.flush();
+            completionPercent = completionPercentages(buffer.projectsToRecount);
+        }
+        Map<UUID, Integer> percentages = completionPercent;
+
+        Map<UUID, Long> goalDeltas = new TreeMap<>();
+        Map<UUID, Integer> goalValues = new TreeMap<>();
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(ACTIVE_GOALS_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", buffer.userIds.toArray()));
+            ps.setString(2, GoalStatus.ACTIVE.name());
+            return ps;
+        }, rs -> {
+            UUID goalId = rs.getObject("id", UUID.class);
+            UUID userId = rs.getObject("user_id", UUID.class);
+            UUID projectId = rs.getObject("project_id", UUID.class);
+            GoalType type = GoalType.valueOf(rs.getString("goal_type"));
+            LocalDate start = rs.getObject("start_date", LocalDate.class);
+            LocalDate end = rs.getObject("end_date", LocalDate.class);
+            if (type == GoalType.PROJECT_COMPLETION) {
+                if (projectId != null && percentages.containsKey(projectId)) {
+                    goalValues.put(goalId, percentages.get(projectId));
+                }
+                return;
+            }
+            long total = 0;
+            for (DeltaKey key : deltas) {
+                if (key.type() == type && key.userId().equals(userId)
+                        && (projectId == null || projectId.equals(key.projectId()))
+                        && !key.day().isBefore(start) && !key.day().isAfter(end)) {
+                    total += amounts.get(key);
+                }
+            }
+            if (total != 0) {
+                goalDeltas.put(goalId, total);
+            }
+        });
+
+        if (!goalDeltas.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE goals SET current_value = GREATEST(0, COALESCE(current_value, 0) + ?) WHERE id = ?",
+                    goalDeltas.entrySet().stream().map(e -> new Object[]{e.getValue(), e.getKey()}).toList(),
+                    new int[]{Types.BIGINT, Types.OTHER});
+        }
+        if (!goalValues.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE goals SET current_value = ? WHERE id = ? AND current_value IS DISTINCT FROM ?",
+                    goalValues.entrySet().stream().map(e -> new Object[]{e.getValue(), e.getKey(), e.getValue()}).toList(),
+                    new int[]{Types.INTEGER, Types.OTHER, Types.INTEGER});
+        }
+    }
+
+    private static void addMinutes(Map<DeltaKey, Long> amounts, TimeSessionSnapshot session,
+                                   Map<UUID, ZoneId> zones, int sign) {
+        if (session == null || !session.isTracked()) {
+            return;
+        }
+        DailyBuckets.split(session.startTime(), session.effectiveEndTime(), session.duration(), zones.get(session.userId()))
+                .forEach((day, minutes) -> amounts.merge(
+                        new DeltaKey(session.userId(), session.projectId(), GoalType.TIME_SPENT, day),
+                        (long) sign * minutes, Long::sum));
+    }
+
+    private Map<UUID, Integer> completionPercentages(Set<UUID> projectIds) {
+        Map<UUID, Integer> percentages = new HashMap<>();
+        projectIds.forEach(id -> percentages.put(id, 0));
+        jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement(PROJECT_COUNTS_SQL);
+            ps.setString(1, TaskStatus.COMPLETED.name());
+            ps.setString(2, TaskStatus.CANCELLED.name());
+            ps.setArray(3, con.createArrayOf("uuid", projectIds.toArray()));
+            return ps;
+        }, rs -> {
+            long counted = rs.getLong("counted");
+            long completed = rs.getLong("completed");
+            percentages.put(rs.getObject("project_id", UUID.class),
+                    counted == 0 ? 0 : (int) (completed * 100 / counted));
+        });
+        return percentages;
+    }
+
+    private record GoalWindow(UUID id, UUID projectId, GoalType type, LocalDate start, LocalDate end) {
+    }
+
+    private record DeltaKey(UUID userId, UUID projectId, GoalType type, LocalDate day) {
+    }
+}
@@ -0,0 +1,443 @@
+package produtivity.demo.service.imports;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.config.CacheConfig;
+import produtivity.demo.dto.BrowserImportResult;
+import produtivity.demo.entity.Project.ProjectStatus;
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.repository.UserRepository;
+import produtivity.demo.service.analytics.TimeAnalytics;
+import produtivity.demo.service.catalog.UserCatalogInvalidator;
+import produtivity.demo.service.goal.GoalProgressEngine;
+import produtivity.demo.service.ordering.TaskPositions;
+import produtivity.demo.service.rollup.TimeRollupRebuildJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Imports the frontend's localStorage blob (see app/utils/storage.js) into
+ * projects, tasks and time sessions. The blob is read token by token, each
+ * project or task is written to a JDBC batch as soon as its object closes,
+ * and only id mappings are kept, so a multi-megabyte export never becomes
+ * an object tree. All writes for the user run in one transaction.
+ *
+ * The blob's numeric ids become name-based UUIDs scoped to the user, and
+ * every insert skips existing ids, so importing the same blob twice is a
+ * no-op. Tasks reference projects by name; names with no project in the
+ * blob get one, and completed tasks count as completed at import. taskTimers
+ * (seconds per task) become one closed session starting when the task was
+ * created, whose minutes are added to the task's actual_duration only when
+ * the session is new. The blob has no goals, and its running timer is not
+ * imported; the user's active goals are recounted from what was written.
+ */
+@Service
+public class BrowserStateImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserStateImporter.class);
+
+    private static final String PROJECT_INSERT_SQL = """
+            INSERT INTO projects (id, user_id, name, color, status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private static final String TASK_INSERT_SQL = """
+            INSERT INTO tasks (id, project_id, title, description, priority, status, due_date, position, created_at,
+                               completed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private static final String SESSION_INSERT_SQL = """
+            INSERT INTO time_sessions (id, user_id, task_id, project_id, start_time, end_time, duration, description, is_active)
+            SELECT v.id, v.user_id, v.task_id, v.project_id, v.start_time, v.end_time, v.duration,
+                   'Imported from browser storage', false
+            FROM (VALUES (?::uuid, ?::uuid, ?::uuid, ?::uuid, ?::timestamptz, ?::timestamptz, ?::integer))
+                AS v (id, user_id, task_id, project_id, start_time, end_time, duration)
+            WHERE NOT EXISTS (SELECT 1 FROM time_sessions t WHERE t.id = v.id)
+            ON CONFLICT (id, start_time) DO NOTHING
+            """;
+
+    private static final String TASK_DURATION_SQL =
+            "UPDATE tasks SET actual_duration = COALESCE(actual_duration, 0) + ? WHERE id = ?";
+
+    private static final int[] PROJECT_TYPES = {Types.OTHER, Types.OTHER, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE};
+    private static final int[] TASK_TYPES = {Types.OTHER, Types.OTHER, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE, Types.BIGINT, Types.TIMESTAMP_WITH_TIMEZONE,
+            Types.TIMESTAMP_WITH_TIMEZONE};
+    private static final int[] SESSION_TYPES = {Types.OTHER, Types.OTHER, Types.OTHER, Types.OTHER,
+            Types.TIMESTAMP_WITH_TIMEZONE, Types.TIMESTAMP_WITH_TIMEZONE, Types.INTEGER};
+    private static final int[] TASK_DURATION_TYPES = {Types.INTEGER, Types.OTHER};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final TimeRollupRebuildJob rollupRebuildJob;
+    private final TimeAnalytics timeAnalytics;
+    private final GoalProgressEngine goalProgressEngine;
+    private final ImportTracker tracker;
+    private final JsonFactory jsonFactory;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+
+    public BrowserStateImporter(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                UserRepository userRepository,
+                                TimeRollupRebuildJob rollupRebuildJob,
+                                TimeAnalytics timeAnalytics,
+                                GoalProgressEngine goalProgressEngine,
+                                ImportTracker tracker,
+                                ObjectMapper objectMapper,
+                                CacheManager cacheManager,
+                                @Value("${import.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.rollupRebuildJob = rollupRebuildJob;
+        this.timeAnalytics = timeAnalytics;
+        this.goalProgressEngine = goalProgressEngine;
+        this.tracker = tracker;
+        this.jsonFactory = objectMapper.getFactory();
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+    }
+
+    public BrowserImportResult importState(UUID userId, InputStream in) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        ImportProgress progress = tracker.begin(userId, ImportKind.BROWSER_STATE);
+        try {
+            long started = System.nanoTime();
+            Run run = new Run(userId, progress);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (JsonParser parser = jsonFactory.createParser(in)) {
+                    run.read(parser);
+                } catch (IOException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable browser export: " + e.getMessage(), e);
+                }
+                run.writeTimers();
+                if (run.projects > 0) {
+                    UserCatalogInvalidator.evictAfterCompletion(cacheManager.getCache(CacheConfig.USER_PROJECTS), userId);
+                }
+                if (run.sessions > 0) {
+                    rollupRebuildJob.rebuildUsers(List.of(userId));
+                    timeAnalytics.invalidateAfterCommit(userId);
+                }
+                if (run.tasks > 0 || run.sessions > 0) {
+                    goalProgressEngine.recount(userId);
+                }
+            });
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Imported browser state for user {}: {} projects, {} tasks, {} sessions, {} skipped in {} ms",
+                    userId, run.projects, run.tasks, run.sessions, run.skipped, elapsedMillis);
+            return new BrowserImportResult(progress.importId, run.projects, run.tasks, run.sessions, run.skipped,
+                    elapsedMillis);
+        } finally {
+            tracker.end(progress);
+        }
+    }
+
+    // Stable id for one of the blob's entities, scoped to the importing user
+    static UUID blobId(UUID userId, String kind, String id) {
+        return UUID.nameUUIDFromBytes(("browser:" + userId + ":" + kind + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record TaskRef(UUID id, UUID projectId, OffsetDateTime createdAt) {
+    }
+
+    // State of one import: id mappings, pending batches and counters
+    private final class Run {
+
+        private final UUID userId;
+        private final ImportProgress progress;
+        private final OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        private final Map<String, UUID> projectsByName = new HashMap<>();
+        private final Map<UUID, Integer> tasksPerProject = new HashMap<>();
+        private final Map<String, TaskRef> tasksByBlobId = new HashMap<>();
+        private final Map<String, Long> timerSeconds = new HashMap<>();
+        private final List<Object[]> projectBatch = new ArrayList<>();
+        private final List<Object[]> taskBatch = new ArrayList<>();
+        private int projects;
+        private int tasks;
+        private int sessions;
+        private int skipped;
+
+        Run(UUID userId, ImportProgress progress) {
+            this.userId = userId;
+            this.progress = progress;
+        }
+
+        void read(JsonParser parser) throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected the export to be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "projects" -> eachObject(parser, value, this::project);
+                    case "tasks" -> eachObject(parser, value, this::task);
+                    case "taskTimers" -> timers(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            flushProjects();
+            flushTasks();
+        }
+
+        private void project(JsonParser parser) throws IOException {
+            String id = null;
+            String name = null;
+            String color = null;
+            String status = null;
+            String createdAt = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> id = scalar(parser);
+                    case "name" -> name = scalar(parser);
+                    case "color" -> color = scalar(parser);
+                    case "status" -> status = scalar(parser);
+                    case "createdAt" -> createdAt = scalar(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            progress.read.increment();
+            if (name == null || name.isBlank() || projectsByName.containsKey(name.strip())) {
+                skipped++;
+                return;
+            }
+            addProject(blobId(userId, "project", id != null ? id : name), name.strip(), color,
+                    constant(ProjectStatus.class, status, ProjectStatus.ACTIVE), timestamp(createdAt));
+        }
+
+        private void task(JsonParser parser) throws IOException {
+            String id = null;
+            String title = null;
+            String description = null;
+            String project = null;
+            String priority = null;
+            String status = null;
+            String dueDate = null;
+            String createdAt = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> id = scalar(parser);
+                    case "title" -> title = scalar(parser);
+                    case "description" -> description = scalar(parser);
+                    case "project" -> project = scalar(parser);
+                    case "priority" -> priority = scalar(parser);
+                    case "status" -> status = scalar(parser);
+                    case "dueDate" -> dueDate = scalar(parser);
+                    case "createdAt" -> createdAt = scalar(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            progress.read.increment();
+            if (id == null || title == null || title.isBlank() || tasksByBlobId.containsKey(id)) {
+                skipped++;
+                return;
+            }
+            String projectName = project != null && !project.isBlank() ? project.strip() : "General";
+            UUID projectId = projectsByName.get(projectName);
+            if (projectId == null) {
+                projectId = addProject(blobId(userId, "project-name", projectName), projectName, null,
+                        ProjectStatus.ACTIVE, now);
+            }
+            UUID taskId = blobId(userId, "task", id);
+            OffsetDateTime created = timestamp(createdAt);
+            int index = tasksPerProject.merge(projectId, 1, Integer::sum) - 1;
+            tasksByBlobId.put(id, new TaskRef(taskId, projectId, created));
+            String clippedTitle = title.strip();
+            TaskStatus taskStatus = constant(TaskStatus.class, status, TaskStatus.TODO);
+            taskBatch.add(new Object[]{taskId, projectId,
+                    clippedTitle.length() > 300 ? clippedTitle.substring(0, 300) : clippedTitle, description,
+                    constant(TaskPriority.class, priority, TaskPriority.MEDIUM).name(), taskStatus.name(),
+                    dueDate != null ? timestamp(dueDate) : null,
+                    TaskPositions.spread(index), created, taskStatus == TaskStatus.COMPLETED ? now : null});
+            if (taskBatch.size() >= batchSize) {
+                // Tasks reference projects, so pending projects go first
+                flushProjects();
+                flushTasks();
+            }
+        }
+
+        // {"<task id>": seconds, ...}; kept until the end since the blob may list timers before tasks
+        private void timers(JsonParser parser, JsonToken value) throws IOException {
+            if (value != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String taskId = parser.currentName();
+                JsonToken seconds = parser.nextToken();
+                if (seconds.isNumeric() && parser.getLongValue() > 0) {
+                    timerSeconds.put(taskId, parser.getLongValue());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        void writeTimers() {
+            List<Object[]> sessionBatch = new ArrayList<>();
+            for (Map.Entry<String, Long> timer : timerSeconds.entrySet()) {
+                TaskRef task = tasksByBlobId.get(timer.getKey());
+                if (task == null) {
+                    skipped++;
+                    continue;
+                }
+                int minutes = (int) Math.round(timer.getValue() / 60.0);
+                OffsetDateTime end = task.createdAt().plusSeconds(timer.getValue());
+                sessionBatch.add(new Object[]{blobId(userId, "timer", timer.getKey()), userId, task.id(),
+                        task.projectId(), task.createdAt(), end, minutes});
+                if (sessionBatch.size() >= batchSize) {
+                    flushSessions(sessionBatch);
+                }
+            }
+            flushSessions(sessionBatch);
+        }
+
+        // Adds each new session's minutes to its task; sessions already present were counted before
+        private void flushSessions(List<Object[]> sessionBatch) {
+            if (sessionBatch.isEmpty()) {
+                return;
+            }
+            int[] counts = jdbcTemplate.batchUpdate(SESSION_INSERT_SQL, sessionBatch, SESSION_TYPES);
+            List<Object[]> durationBatch = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    Object[] session = sessionBatch.get(i);
+                    durationBatch.add(new Object[]{session[6], session[2]});
+                }
+            }
+            if (!durationBatch.isEmpty()) {
+                jdbcTemplate.batchUpdate(TASK_DURATION_SQL, durationBatch, TASK_DURATION_TYPES);
+            }
+            sessions += durationBatch.size();
+            sessionBatch.clear();
+        }
+
+        private UUID addProject(UUID id, String name, String color, ProjectStatus status, OffsetDateTime createdAt) {
+            projectsByName.put(name, id);
+            projectBatch.add(new Object[]{id, userId, name.length() > 200 ? name.substring(0, 200) : name,
+                    color != null && color.length() <= 7 ? color : "#3B82F6", status.name(), createdAt});
+            if (projectBatch.size() >= batchSize) {
+                flushProjects();
+            }
+            return id;
+        }
+
+        private void flushProjects() {
+            if (!projectBatch.isEmpty()) {
+                projects += inserted(jdbcTemplate.batchUpdate(PROJECT_INSERT_SQL, projectBatch, PROJECT_TYPES));
+                progress.staged.add(projectBatch.size());
+                projectBatch.clear();
+            }
+        }
+
+        private void flushTasks() {
+            if (!taskBatch.isEmpty()) {
+                tasks += inserted(jdbcTemplate.batchUpdate(TASK_INSERT_SQL, taskBatch, TASK_TYPES));
+                progress.staged.add(taskBatch.size());
+                taskBatch.clear();
+            }
+        }
+
+        private OffsetDateTime timestamp(String value) {
+            if (value == null) {
+                return now;
+            }
+            try {
+                return OffsetDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                return now;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ObjectReader {
+        void read(JsonParser parser) throws IOException;
+    }
+
+    // Calls reader once per object in the array, positioned inside the object; other values are skipped
+    private static void eachObject(JsonParser parser, JsonToken value, ObjectReader reader) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (element == null) {
+                throw new IOException("Unexpected end of input");
+            }
+            if (element == JsonToken.START_OBJECT) {
+                reader.read(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // Text of a scalar value; null for JSON null, objects and arrays
+    private static String scalar(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    // The app stores lowercase names such as "in_progress"
+    private static <E extends Enum<E>> E constant(Class<E> type, String value, E defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.strip().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+
+    private static int inserted(int[] counts) {
+        int inserted = 0;
+        for (int count : counts) {
+            inserted += Math.max(count, 0);
+        }
+        return inserted;
+    }
+}
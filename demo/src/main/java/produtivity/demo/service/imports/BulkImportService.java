@@ -0,0 +1,310 @@
+package produtivity.demo.service.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.config.CacheConfig;
+import produtivity.demo.dto.ImportProgressView;
+import produtivity.demo.dto.ImportResult;
+import produtivity.demo.repository.UserRepository;
+import produtivity.demo.service.UserTimezones;
+import produtivity.demo.service.analytics.TimeAnalytics;
+import produtivity.demo.service.catalog.UserCatalogInvalidator;
+import produtivity.demo.service.export.ExportFormat;
+import produtivity.demo.service.goal.GoalProgressEngine;
+import produtivity.demo.service.ordering.TaskPositions;
+import produtivity.demo.service.rollup.TimeRollupRebuildJob;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Bulk import of time sessions and tasks through PostgreSQL COPY. Input is
+ * read as a stream in the formats the export writes; a worker validates
+ * records into batches while the request thread resolves project, task and
+ * tag references per batch and COPYs the batch into a temporary staging
+ * table. One INSERT ... SELECT then moves the staged rows into place, so
+ * rows whose ids already exist are skipped and the whole import commits or
+ * rolls back as one transaction. Daily rollups are rebuilt for the user in
+ * the same transaction, and the user's active goals are recounted from them,
+ * since imported rows publish no change events.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final String SESSION_STAGE_SQL = """
+            CREATE TEMPORARY TABLE import_time_sessions (
+                id UUID, project_id UUID, task_id UUID, start_time TIMESTAMP WITH TIME ZONE,
+                end_time TIMESTAMP WITH TIME ZONE, duration INTEGER, description TEXT
+            ) ON COMMIT DROP
+            """;
+
+    private static final String SESSION_COPY_SQL = """
+            COPY import_time_sessions (id, project_id, task_id, start_time, end_time, duration, description)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    // Imported sessions publish no change events, so their minutes are added to
+    // their tasks' actual_duration here, as TaskDurationAccumulator would
+    private static final String SESSION_INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO time_sessions (id, user_id, project_id, task_id, start_time, end_time, duration, description, is_active)
+                SELECT DISTINCT ON (s.id) s.id, ?, s.project_id, s.task_id, s.start_time, s.end_time, s.duration,
+                       s.description, false
+                FROM import_time_sessions s
+                WHERE NOT EXISTS (SELECT 1 FROM time_sessions t WHERE t.id = s.id)
+                ORDER BY s.id
+                ON CONFLICT (id, start_time) DO NOTHING
+                RETURNING task_id, duration
+            ), durations AS (
+                UPDATE tasks t
+                SET actual_duration = COALESCE(t.actual_duration, 0) + d.minutes
+                FROM (
+                    SELECT task_id, SUM(duration) AS minutes
+                    FROM inserted
+                    WHERE task_id IS NOT NULL AND duration IS NOT NULL
+                    GROUP BY task_id
+                ) d
+                WHERE t.id = d.task_id
+            )
+            SELECT count(*) FROM inserted
+            """;
+
+    private static final String TASK_STAGE_SQL = """
+            CREATE TEMPORARY TABLE import_tasks (
+                seq BIGINT, id UUID, project_id UUID, title TEXT, description TEXT, status TEXT, priority TEXT,
+                due_date TIMESTAMP WITH TIME ZONE, estimated_duration INTEGER, completed_at TIMESTAMP WITH TIME ZONE
+            ) ON COMMIT DROP
+            """;
+
+    private static final String TASK_TAG_STAGE_SQL =
+            "CREATE TEMPORARY TABLE import_task_tags (task_id UUID, tag_id UUID) ON COMMIT DROP";
+
+    private static final String TASK_COPY_SQL = """
+            COPY import_tasks (seq, id, project_id, title, description, status, priority, due_date,
+                               estimated_duration, completed_at)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    private static final String TASK_TAG_COPY_SQL = "COPY import_task_tags (task_id, tag_id) FROM STDIN (FORMAT csv)";
+
+    // Imported tasks go after each project's existing tasks, in file order, one gap apart.
+    // actual_duration starts at 0: it is the sum of the task's sessions, which are imported
+    // separately and add their minutes then. Completed tasks without a completion time count as
+    // completed at import
+    private static final String TASK_INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO tasks (id, project_id, title, description, status, priority, due_date,
+                                   estimated_duration, completed_at, position)
+                SELECT s.id, s.project_id, s.title, s.description, s.status, s.priority, s.due_date,
+                       s.estimated_duration,
+                       CASE WHEN s.status = 'COMPLETED' THEN COALESCE(s.completed_at, now()) END,
+                       COALESCE((SELECT max(t.position) FROM tasks t WHERE t.project_id = s.project_id), 0)
+                           + row_number() OVER (PARTITION BY s.project_id ORDER BY s.seq) * ?
+                FROM import_tasks s
+                ON CONFLICT (id) DO NOTHING
+                RETURNING id
+            ), linked AS (
+                INSERT INTO task_tags (task_id, tag_id)
+                SELECT st.task_id, st.tag_id FROM import_task_tags st JOIN inserted i ON i.id = st.task_id
+                ON CONFLICT DO NOTHING
+            )
+            SELECT count(*) FROM inserted
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final UserTimezones userTimezones;
+    private final TimeRollupRebuildJob rollupRebuildJob;
+    private final TimeAnalytics timeAnalytics;
+    private final GoalProgressEngine goalProgressEngine;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final ImportTracker tracker;
+    private final AsyncTaskExecutor readers;
+    private final int batchSize;
+    private final int maxReportedRejects;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             UserRepository userRepository,
+                             UserTimezones userTimezones,
+                             TimeRollupRebuildJob rollupRebuildJob,
+                             TimeAnalytics timeAnalytics,
+                             GoalProgressEngine goalProgressEngine,
+                             CacheManager cacheManager,
+                             ObjectMapper objectMapper,
+                             ImportTracker tracker,
+                             SimpleAsyncTaskExecutorBuilder executorBuilder,
+                             @Value("${import.batch-size:5000}") int batchSize,
+                             @Value("${import.max-reported-rejects:100}") int maxReportedRejects) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.userTimezones = userTimezones;
+        this.rollupRebuildJob = rollupRebuildJob;
+        this.timeAnalytics = timeAnalytics;
+        this.goalProgressEngine = goalProgressEngine;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.tracker = tracker;
+        this.readers = executorBuilder.threadNamePrefix("import-").build();
+        this.batchSize = batchSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    public ImportResult importTimeSessions(UUID userId, ExportFormat format, InputStream in) {
+        return run(userId, ImportKind.TIME_SESSIONS, (progress, rejects) -> {
+            ZoneId zone = userTimezones.zoneOf(userId);
+            ImportNames names = new ImportNames(jdbcTemplate, userId);
+            jdbcTemplate.execute(SESSION_STAGE_SQL);
+            ImportPipeline.run(reader(format, in), record -> SessionImportRow.parse(record, zone),
+                    batch -> stageSessions(batch, names, rejects, progress), batchSize, rejects, progress, readers);
+            Integer count = jdbcTemplate.queryForObject(SESSION_INSERT_SQL, Integer.class, userId);
+            int inserted = count != null ? count : 0;
+            if (inserted > 0) {
+                rollupRebuildJob.rebuildUsers(List.of(userId));
+                goalProgressEngine.recount(userId);
+                timeAnalytics.invalidateAfterCommit(userId);
+            }
+            return inserted;
+        });
+    }
+
+    public ImportResult importTasks(UUID userId, ExportFormat format, InputStream in) {
+        return run(userId, ImportKind.TASKS, (progress, rejects) -> {
+            ZoneId zone = userTimezones.zoneOf(userId);
+            ImportNames names = new ImportNames(jdbcTemplate, userId);
+            jdbcTemplate.execute(TASK_STAGE_SQL);
+            jdbcTemplate.execute(TASK_TAG_STAGE_SQL);
+            ImportPipeline.run(reader(format, in), record -> TaskImportRow.parse(record, zone),
+                    batch -> stageTasks(batch, names, rejects, progress), batchSize, rejects, progress, readers);
+            if (names.tagsCreated()) {
+                UserCatalogInvalidator.evictAfterCompletion(cacheManager.getCache(CacheConfig.USER_TAGS), userId);
+            }
+            Integer count = jdbcTemplate.queryForObject(TASK_INSERT_SQL, Integer.class, TaskPositions.GAP);
+            int inserted = count != null ? count : 0;
+            if (inserted > 0) {
+                goalProgressEngine.recount(userId);
+            }
+            return inserted;
+        });
+    }
+
+    public List<ImportProgressView> running(UUID userId) {
+        return tracker.running(userId);
+    }
+
+    private void stageSessions(List<SessionImportRow> batch, ImportNames names,
+                               ImportRejects rejects, ImportProgress progress) {
+        names.loadProjects(
+                batch.stream().map(SessionImportRow::projectId).filter(Objects::nonNull).toList(),
+                batch.stream().map(SessionImportRow::projectName).filter(Objects::nonNull).toList());
+        names.loadTasks(batch.stream().map(SessionImportRow::taskId).filter(Objects::nonNull).toList());
+        CopyBuffer copy = new CopyBuffer();
+        for (SessionImportRow row : batch) {
+            UUID projectId;
+            try {
+                projectId = names.project(row.projectId(), row.projectName());
+                if (row.taskId() != null) {
+                    UUID taskProject = names.taskProject(row.taskId());
+                    if (projectId != null && !projectId.equals(taskProject)) {
+                        throw new RowRejectedException("task does not belong to project");
+                    }
+                    projectId = taskProject;
+                }
+            } catch (RowRejectedException e) {
+                rejects.add(row.line(), e.getMessage());
+                continue;
+            }
+            copy.value(row.id()).value(projectId).value(row.taskId()).value(row.startTime())
+                    .value(row.endTime()).value(row.duration()).value(row.description())
+                    .endRow();
+        }
+        progress.staged.add(copy.copyInto(jdbcTemplate, SESSION_COPY_SQL));
+    }
+
+    private void stageTasks(List<TaskImportRow> batch, ImportNames names,
+                            ImportRejects rejects, ImportProgress progress) {
+        names.loadProjects(
+                batch.stream().map(TaskImportRow::projectId).filter(Objects::nonNull).toList(),
+                batch.stream().map(TaskImportRow::projectName).filter(Objects::nonNull).toList());
+        names.ensureTags(batch.stream().flatMap(row -> row.tags().stream()).toList());
+        CopyBuffer tasks = new CopyBuffer();
+        CopyBuffer tags = new CopyBuffer();
+        for (TaskImportRow row : batch) {
+            UUID projectId;
+            try {
+                projectId = names.project(row.projectId(), row.projectName());
+            } catch (RowRejectedException e) {
+                rejects.add(row.line(), e.getMessage());
+                continue;
+            }
+            tasks.value(row.line()).value(row.id()).value(projectId).value(row.title()).value(row.description())
+                    .value(row.status().name()).value(row.priority().name()).value(row.dueDate())
+                    .value(row.estimatedDuration()).value(row.completedAt())
+                    .endRow();
+            for (String tag : row.tags()) {
+                UUID tagId = names.tag(tag);
+                if (tagId != null) {
+                    tags.value(row.id()).value(tagId).endRow();
+                }
+            }
+        }
+        progress.staged.add(tasks.copyInto(jdbcTemplate, TASK_COPY_SQL));
+        tags.copyInto(jdbcTemplate, TASK_TAG_COPY_SQL);
+    }
+
+    private ImportResult run(UUID userId, ImportKind kind, ImportBody body) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        ImportProgress progress = tracker.begin(userId, kind);
+        try {
+            long started = System.nanoTime();
+            ImportRejects rejects = new ImportRejects(maxReportedRejects, progress);
+            Integer imported = transactionTemplate.execute(status -> body.run(progress, rejects));
+            long inserted = imported != null ? imported : 0;
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Imported {} of {} {} records for user {} ({} rejected) in {} ms",
+                    inserted, progress.read.sum(), kind, userId, progress.rejected.sum(), elapsedMillis);
+            return new ImportResult(progress.importId, progress.read.sum(), inserted,
+                    progress.staged.sum() - inserted, progress.rejected.sum(), rejects.list(), elapsedMillis);
+        } finally {
+            tracker.end(progress);
+        }
+    }
+
+    private RecordReader reader(ExportFormat format, InputStream in) {
+        try {
+            return switch (format) {
+                case CSV -> new CsvRecordReader(in);
+                case NDJSON -> new NdjsonRecordReader(objectMapper.getFactory(), in);
+            };
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable input", e);
+        }
+    }
+
+    // Stages and inserts inside the import transaction, returning the rows inserted
+    @FunctionalInterface
+    private interface ImportBody {
+        Integer run(ImportProgress progress, ImportRejects rejects);
+    }
+}
@@ -0,0 +1,73 @@
+package produtivity.demo.service.imports;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+
+/**
+ * One batch of rows encoded for COPY ... FROM STDIN (FORMAT csv). Strings
+ * are always quoted so an empty string stays distinct from NULL, which is
+ * written as an empty unquoted field.
+ */
+final class CopyBuffer {
+
+    private final StringBuilder text = new StringBuilder();
+    private boolean rowStarted;
+    private int rows;
+
+    CopyBuffer value(Object value) {
+        if (rowStarted) {
+            text.append(',');
+        }
+        rowStarted = true;
+        if (value == null) {
+            return this;
+        }
+        if (!(value instanceof String s)) {
+            text.append(value);
+            return this;
+        }
+        text.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                text.append('"');
+            }
+            // PostgreSQL text cannot hold NUL
+            if (c != '\0') {
+                text.append(c);
+            }
+        }
+        text.append('"');
+        return this;
+    }
+
+    void endRow() {
+        text.append('\n');
+        rowStarted = false;
+        rows++;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    // Runs the COPY on the transaction's connection and returns the rows copied
+    long copyInto(JdbcTemplate jdbcTemplate, String copySql) {
+        if (rows == 0) {
+            return 0;
+        }
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql, new StringReader(text.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return copied != null ? copied : 0;
+    }
+}
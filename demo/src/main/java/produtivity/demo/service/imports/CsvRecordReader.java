@@ -0,0 +1,116 @@
+package produtivity.demo.service.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// RFC 4180 CSV with a header row, read one record at a time; quoted fields may span lines
+class CsvRecordReader implements RecordReader {
+
+    // Bounds memory for a record whose closing quote never comes
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final Reader in;
+    private String[] header;
+    private long line = 1;
+    private boolean eof;
+
+    CsvRecordReader(InputStream in) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = new String[names.size()];
+            // Normalising also drops a leading byte order mark
+            for (int i = 0; i < header.length; i++) {
+                header[i] = ImportRecord.normalize(names.get(i));
+            }
+        }
+        while (true) {
+            long start = line;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            Map<String, String> values = HashMap.newHashMap(header.length);
+            for (int i = 0; i < header.length && i < fields.size(); i++) {
+                values.put(header[i], fields.get(i));
+            }
+            return new ImportRecord(start, values);
+        }
+    }
+
+    // One record's fields, or null at end of input
+    private List<String> readRecord() throws IOException {
+        if (eof) {
+            return null;
+        }
+        int c = in.read();
+        if (c == -1) {
+            eof = true;
+            return null;
+        }
+        long start = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int chars = 0;
+        while (true) {
+            if (c == -1) {
+                eof = true;
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field in the record on line " + start);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++chars > MAX_RECORD_CHARS) {
+                throw new IOException("Record on line " + start + " is longer than " + MAX_RECORD_CHARS + " characters");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = in.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                    field.append('"');
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package produtivity.demo.service.imports;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.UUID;
+
+// Field parsers shared by the row validators; bad values reject the row naming the column
+final class ImportFields {
+
+    private ImportFields() {
+    }
+
+    static String requiredText(ImportRecord record, String column, int maxLength) {
+        String value = text(record, column, maxLength);
+        if (value == null) {
+            throw new RowRejectedException(column + " is required");
+        }
+        return value;
+    }
+
+    static String text(ImportRecord record, String column, int maxLength) {
+        String value = record.get(column);
+        if (value != null && value.length() > maxLength) {
+            throw new RowRejectedException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    static UUID uuid(ImportRecord record, String column) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new RowRejectedException(column + " is not a UUID");
+        }
+    }
+
+    static Integer minutes(ImportRecord record, String column) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int minutes = Integer.parseInt(value);
+            if (minutes < 0) {
+                throw new RowRejectedException(column + " must not be negative");
+            }
+            return minutes;
+        } catch (NumberFormatException e) {
+            throw new RowRejectedException(column + " is not a whole number of minutes");
+        }
+    }
+
+    // ISO date-times with an offset, or local date-times and dates read in the user's zone
+    static OffsetDateTime timestamp(ImportRecord record, String column, ZoneId zone) {
+        String value = record.get(column);
+        if (value == null) {
+            return null;
+        }
+        String iso = value.length() > 10 && value.charAt(10) == ' ' ? value.replace(' ', 'T') : value;
+        try {
+            if (iso.length() == 10) {
+                return OffsetDateTime.from(LocalDate.parse(iso).atStartOfDay(zone));
+            }
+            try {
+                return OffsetDateTime.parse(iso);
+            } catch (DateTimeParseException e) {
+                return OffsetDateTime.from(LocalDateTime.parse(iso).atZone(zone));
+            }
+        } catch (DateTimeParseException e) {
+            throw new RowRejectedException(column + " is not an ISO-8601 date-time");
+        }
+    }
+
+    // Matches enum constants case-insensitively, allowing spaces or dashes for underscores
+    static <E extends Enum<E>> E constant(ImportRecord record, String column, Class<E> type, E defaultValue) {
+        String value = record.get(column);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new RowRejectedException(column + " '" + value + "' is not one of the allowed values");
+        }
+    }
+}
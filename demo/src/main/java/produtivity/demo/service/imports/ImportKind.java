@@ -0,0 +1,7 @@
+package produtivity.demo.service.imports;
+
+public enum ImportKind {
+    TIME_SESSIONS,
+    TASKS,
+    BROWSER_STATE
+}
@@ -0,0 +1,146 @@
+package produtivity.demo.service.imports;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resolves the project, task and tag references of one import. Each batch
+ * looks up only the references it has not seen before, in one query per
+ * kind; misses are remembered too, so a name or id is queried at most once
+ * per import. Project names match case-insensitively, oldest project first.
+ */
+final class ImportNames {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UUID userId;
+    // Values are null for references that do not resolve
+    private final Map<UUID, UUID> projectIds = new HashMap<>();
+    private final Map<String, UUID> projectNames = new HashMap<>();
+    private final Map<UUID, UUID> taskProjects = new HashMap<>();
+    private final Map<String, UUID> tagIds = new HashMap<>();
+    private boolean tagsCreated;
+
+    ImportNames(JdbcTemplate jdbcTemplate, UUID userId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userId = userId;
+    }
+
+    void loadProjects(Collection<UUID> ids, Collection<String> names) {
+        List<UUID> newIds = ids.stream().distinct().filter(id -> !projectIds.containsKey(id)).toList();
+        List<String> newNames = names.stream().map(ImportNames::key).distinct()
+                .filter(name -> !projectNames.containsKey(name)).toList();
+        if (newIds.isEmpty() && newNames.isEmpty()) {
+            return;
+        }
+        newIds.forEach(id -> projectIds.put(id, null));
+        newNames.forEach(name -> projectNames.put(name, null));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    SELECT id, name FROM projects
+                    WHERE user_id = ? AND (id = ANY(?) OR lower(name) = ANY(?))
+                    ORDER BY created_at, id
+                    """);
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("uuid", newIds.toArray()));
+            ps.setArray(3, con.createArrayOf("text", newNames.toArray()));
+            return ps;
+        }, rs -> {
+            UUID id = rs.getObject("id", UUID.class);
+            projectIds.computeIfPresent(id, (k, v) -> id);
+            projectNames.computeIfPresent(key(rs.getString("name")), (k, v) -> v != null ? v : id);
+        });
+    }
+
+    void loadTasks(Collection<UUID> ids) {
+        List<UUID> newIds = ids.stream().distinct().filter(id -> !taskProjects.containsKey(id)).toList();
+        if (newIds.isEmpty()) {
+            return;
+        }
+        newIds.forEach(id -> taskProjects.put(id, null));
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    SELECT t.id, t.project_id FROM tasks t
+                    JOIN projects p ON p.id = t.project_id
+                    WHERE p.user_id = ? AND t.id = ANY(?)
+                    """);
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("uuid", newIds.toArray()));
+            return ps;
+        }, rs -> {
+            taskProjects.put(rs.getObject("id", UUID.class), rs.getObject("project_id", UUID.class));
+        });
+    }
+
+    // Creates the tags the user does not have yet
+    void ensureTags(Collection<String> names) {
+        List<String> newNames = names.stream().distinct().filter(name -> !tagIds.containsKey(name)).toList();
+        if (newNames.isEmpty()) {
+            return;
+        }
+        int created = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO tags (user_id, name)
+                    SELECT ?, name FROM unnest(?::text[]) AS name
+                    ON CONFLICT (user_id, name) DO NOTHING
+                    """);
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("text", newNames.toArray()));
+            return ps;
+        });
+        tagsCreated |= created > 0;
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id, name FROM tags WHERE user_id = ? AND name = ANY(?)");
+            ps.setObject(1, userId);
+            ps.setArray(2, con.createArrayOf("text", newNames.toArray()));
+            return ps;
+        }, rs -> {
+            tagIds.put(rs.getString("name"), rs.getObject("id", UUID.class));
+        });
+    }
+
+    // An explicit id wins over a name; neither means no project
+    UUID project(UUID id, String name) {
+        if (id != null) {
+            UUID owned = projectIds.get(id);
+            if (owned == null) {
+                throw new RowRejectedException("project not found");
+            }
+            return owned;
+        }
+        if (name != null) {
+            UUID named = projectNames.get(key(name));
+            if (named == null) {
+                throw new RowRejectedException("project '" + name + "' not found");
+            }
+            return named;
+        }
+        return null;
+    }
+
+    UUID taskProject(UUID taskId) {
+        UUID projectId = taskProjects.get(taskId);
+        if (projectId == null) {
+            throw new RowRejectedException("task not found");
+        }
+        return projectId;
+    }
+
+    UUID tag(String name) {
+        return tagIds.get(name);
+    }
+
+    boolean tagsCreated() {
+        return tagsCreated;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,111 @@
+package produtivity.demo.service.imports;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Two-stage import pipeline. A worker thread reads and validates records
+ * into batches while the calling thread, which owns the transaction,
+ * resolves and copies the previous batch. The hand-off queue holds two
+ * batches, so at most four are in memory whatever the input size.
+ */
+final class ImportPipeline {
+
+    private static final int QUEUE_BATCHES = 2;
+
+    private sealed interface Stage<T> {
+    }
+
+    private record Batch<T>(List<T> rows) implements Stage<T> {
+    }
+
+    private record End<T>() implements Stage<T> {
+    }
+
+    private record Failed<T>(Exception cause) implements Stage<T> {
+    }
+
+    private ImportPipeline() {
+    }
+
+    /**
+     * Runs validate on the worker for every record and sink on the caller
+     * for every full batch. Validation reports bad rows by throwing
+     * {@link RowRejectedException}; unreadable input fails the import.
+     */
+    static <T> void run(RecordReader reader,
+                        Function<ImportRecord, T> validate,
+                        Consumer<List<T>> sink,
+                        int batchSize,
+                        ImportRejects rejects,
+                        ImportProgress progress,
+                        AsyncTaskExecutor executor) {
+        BlockingQueue<Stage<T>> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        Future<?> producer = executor.submit(() -> {
+            try {
+                List<T> batch = new ArrayList<>(batchSize);
+                ImportRecord record;
+                while ((record = reader.next()) != null) {
+                    progress.read.increment();
+                    try {
+                        batch.add(validate.apply(record));
+                    } catch (RowRejectedException e) {
+                        rejects.add(record.line(), e.getMessage());
+                    }
+                    if (batch.size() == batchSize) {
+                        queue.put(new Batch<>(batch));
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    queue.put(new Batch<>(batch));
+                }
+                queue.put(new End<>());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                try {
+                    queue.put(new Failed<>(e));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        try {
+            while (true) {
+                Stage<T> stage = queue.take();
+                if (stage instanceof Batch<T> batch) {
+                    sink.accept(batch.rows());
+                } else if (stage instanceof Failed<T> failed) {
+                    throw failure(failed.cause());
+                } else {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } finally {
+            // Stops a worker still reading when the copy side failed
+            producer.cancel(true);
+        }
+    }
+
+    private static RuntimeException failure(Exception cause) {
+        if (cause instanceof IOException) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unreadable input: " + cause.getMessage(), cause);
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,29 @@
+package produtivity.demo.service.imports;
+
+import produtivity.demo.dto.ImportProgressView;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live counters of one running import; read records, rows copied into staging, and rejects
+final class ImportProgress {
+
+    final UUID importId;
+    final UUID userId;
+    final ImportKind kind;
+    final Instant startedAt = Instant.now();
+    final LongAdder read = new LongAdder();
+    final LongAdder staged = new LongAdder();
+    final LongAdder rejected = new LongAdder();
+
+    ImportProgress(UUID importId, UUID userId, ImportKind kind) {
+        this.importId = importId;
+        this.userId = userId;
+        this.kind = kind;
+    }
+
+    ImportProgressView view() {
+        return new ImportProgressView(importId, kind, startedAt, read.sum(), staged.sum(), rejected.sum());
+    }
+}
@@ -0,0 +1,29 @@
+package produtivity.demo.service.imports;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One input record as raw text, keyed by normalised column name so that
+ * "start_time", "startTime" and "Start Time" all address the same field.
+ * Line is where the record starts, for reporting rejects.
+ */
+record ImportRecord(long line, Map<String, String> values) {
+
+    // Blank values read as missing
+    String get(String column) {
+        String value = values.get(normalize(column));
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    static String normalize(String column) {
+        StringBuilder key = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+}
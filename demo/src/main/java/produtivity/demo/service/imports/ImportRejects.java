@@ -0,0 +1,42 @@
+package produtivity.demo.service.imports;
+
+import produtivity.demo.dto.ImportRejection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Counts every reject but keeps only the first few, so a bad file cannot grow the report without bound
+final class ImportRejects {
+
+    private final int limit;
+    private final List<ImportRejection> kept = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ImportProgress progress;
+
+    ImportRejects(int limit, ImportProgress progress) {
+        this.limit = limit;
+        this.progress = progress;
+    }
+
+    void add(long line, String reason) {
+        progress.rejected.increment();
+        lock.lock();
+        try {
+            if (kept.size() < limit) {
+                kept.add(new ImportRejection(line, reason));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<ImportRejection> list() {
+        lock.lock();
+        try {
+            return List.copyOf(kept);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
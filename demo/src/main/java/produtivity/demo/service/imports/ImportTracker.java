@@ -0,0 +1,48 @@
+package produtivity.demo.service.imports;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.ImportProgressView;
+import produtivity.demo.entity.id.TimeOrderedUuid;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+// Running imports on this node, for progress polling; also caps how many run at once
+@Component
+class ImportTracker {
+
+    private final Map<UUID, ImportProgress> running = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+
+    ImportTracker(@Value("${import.max-concurrent:2}") int maxConcurrent) {
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    ImportProgress begin(UUID userId, ImportKind kind) {
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many imports are running, retry later");
+        }
+        ImportProgress progress = new ImportProgress(TimeOrderedUuid.next(), userId, kind);
+        running.put(progress.importId, progress);
+        return progress;
+    }
+
+    void end(ImportProgress progress) {
+        if (running.remove(progress.importId) != null) {
+            permits.release();
+        }
+    }
+
+    List<ImportProgressView> running(UUID userId) {
+        return running.values().stream()
+                .filter(p -> p.userId.equals(userId))
+                .map(ImportProgress::view)
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package produtivity.demo.service.imports;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// One JSON object per line; arrays of scalars (e.g. tags) are joined with ';' like the CSV form
+class NdjsonRecordReader implements RecordReader {
+
+    private final JsonParser parser;
+
+    NdjsonRecordReader(JsonFactory factory, InputStream in) throws IOException {
+        this.parser = factory.createParser(in);
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        long line = parser.currentTokenLocation().getLineNr();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object on line " + line);
+        }
+        Map<String, String> values = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = ImportRecord.normalize(parser.currentName());
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_ARRAY) {
+                StringJoiner joined = new StringJoiner(";");
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken().isScalarValue()) {
+                        joined.add(parser.getValueAsString());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                values.put(name, joined.toString());
+            } else if (value == JsonToken.START_OBJECT) {
+                parser.skipChildren();
+            } else if (value != JsonToken.VALUE_NULL) {
+                values.put(name, parser.getValueAsString());
+            }
+        }
+        return new ImportRecord(line, values);
+    }
+}
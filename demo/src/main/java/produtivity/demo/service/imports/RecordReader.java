@@ -0,0 +1,10 @@
+package produtivity.demo.service.imports;
+
+import java.io.IOException;
+
+// Pulls records off an input stream one at a time; malformed input that cannot be resynchronised throws
+interface RecordReader {
+
+    // Null at end of input
+    ImportRecord next() throws IOException;
+}
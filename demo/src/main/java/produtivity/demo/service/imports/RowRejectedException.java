@@ -0,0 +1,9 @@
+package produtivity.demo.service.imports;
+
+// Thrown by row validation; the reason is reported back and the row skipped. Carries no stack trace.
+final class RowRejectedException extends RuntimeException {
+
+    RowRejectedException(String reason) {
+        super(reason, null, false, false);
+    }
+}
@@ -0,0 +1,57 @@
+package produtivity.demo.service.imports;
+
+import produtivity.demo.entity.id.TimeOrderedUuid;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+// A validated time session row; project and task references are resolved in bulk later
+record SessionImportRow(
+        long line,
+        UUID id,
+        UUID projectId,
+        String projectName,
+        UUID taskId,
+        OffsetDateTime startTime,
+        OffsetDateTime endTime,
+        int duration,
+        String description) {
+
+    // Accepts the columns the time session export writes; rows without an id get a new one
+    static SessionImportRow parse(ImportRecord record, ZoneId zone) {
+        String active = record.get("is_active");
+        if (active != null && Boolean.parseBoolean(active)) {
+            throw new RowRejectedException("running sessions cannot be imported");
+        }
+        UUID id = ImportFields.uuid(record, "id");
+        OffsetDateTime start = ImportFields.timestamp(record, "start_time", zone);
+        if (start == null) {
+            throw new RowRejectedException("start_time is required");
+        }
+        OffsetDateTime end = ImportFields.timestamp(record, "end_time", zone);
+        Integer duration = ImportFields.minutes(record, "duration");
+        if (end == null && duration == null) {
+            throw new RowRejectedException("end_time or duration is required");
+        }
+        if (end != null && end.isBefore(start)) {
+            throw new RowRejectedException("end_time is before start_time");
+        }
+        if (end == null) {
+            end = start.plusMinutes(duration);
+        } else if (duration == null) {
+            duration = (int) Duration.between(start, end).toMinutes();
+        }
+        return new SessionImportRow(
+                record.line(),
+                id != null ? id : TimeOrderedUuid.next(),
+                ImportFields.uuid(record, "project_id"),
+                ImportFields.text(record, "project_name", 200),
+                ImportFields.uuid(record, "task_id"),
+                start,
+                end,
+                duration,
+                record.get("description"));
+    }
+}
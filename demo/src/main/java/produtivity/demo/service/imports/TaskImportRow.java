@@ -0,0 +1,73 @@
+package produtivity.demo.service.imports;
+
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.entity.id.TimeOrderedUuid;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// A validated task row; project and tag names are resolved in bulk later
+record TaskImportRow(
+        long line,
+        UUID id,
+        UUID projectId,
+        String projectName,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        OffsetDateTime dueDate,
+        Integer estimatedDuration,
+        OffsetDateTime completedAt,
+        List<String> tags) {
+
+    private static final int MAX_TAG_LENGTH = 50;
+
+    // Accepts the columns the task export writes; tags are ';'-separated names. actual_duration
+    // is ignored, since it is derived from the task's sessions. A completed task's updated_at
+    // stands in for its completion time, which the export does not carry
+    static TaskImportRow parse(ImportRecord record, ZoneId zone) {
+        UUID id = ImportFields.uuid(record, "id");
+        UUID projectId = ImportFields.uuid(record, "project_id");
+        String projectName = ImportFields.text(record, "project_name", 200);
+        if (projectId == null && projectName == null) {
+            throw new RowRejectedException("project_id or project_name is required");
+        }
+        List<String> tags = tags(record.get("tags"));
+        TaskStatus status = ImportFields.constant(record, "status", TaskStatus.class, TaskStatus.TODO);
+        return new TaskImportRow(
+                record.line(),
+                id != null ? id : TimeOrderedUuid.next(),
+                projectId,
+                projectName,
+                ImportFields.requiredText(record, "title", 300),
+                record.get("description"),
+                status,
+                ImportFields.constant(record, "priority", TaskPriority.class, TaskPriority.MEDIUM),
+                ImportFields.timestamp(record, "due_date", zone),
+                ImportFields.minutes(record, "estimated_duration"),
+                status == TaskStatus.COMPLETED ? ImportFields.timestamp(record, "updated_at", zone) : null,
+                tags);
+    }
+
+    private static List<String> tags(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        List<String> tags = Arrays.stream(value.split(";"))
+                .map(String::strip)
+                .filter(tag -> !tag.isEmpty())
+                .distinct()
+                .toList();
+        for (String tag : tags) {
+            if (tag.length() > MAX_TAG_LENGTH) {
+                throw new RowRejectedException("tag '" + tag + "' is longer than " + MAX_TAG_LENGTH + " characters");
+            }
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,92 @@
+package produtivity.demo.service.ordering;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * SQL side of task ordering. Moves hold a shared transaction-level advisory
+ * lock on the project and respreads hold an exclusive one, so a respread never
+ * runs underneath a move that read the old keys.
+ */
+@Component
+class TaskOrderStore {
+
+    private static final int LOCK_NAMESPACE = 0x5441534b; // "TASK"
+
+    private static final String FIRST_SQL = """
+            SELECT position FROM tasks
+            WHERE project_id = ? AND id <> ?
+            ORDER BY position, id
+            LIMIT 1
+            """;
+
+    private static final String NEXT_SQL = """
+            SELECT position FROM tasks
+            WHERE project_id = ? AND id <> ? AND (position, id) > (?, ?)
+            ORDER BY position, id
+            LIMIT 1
+            """;
+
+    private static final String RESPREAD_SQL = """
+            UPDATE tasks t
+            SET position = ranked.rn * ?, updated_at = CURRENT_TIMESTAMP
+            FROM (
+                SELECT id, row_number() OVER (ORDER BY position, id) AS rn
+                FROM tasks
+                WHERE project_id = ?
+            ) ranked
+            WHERE t.id = ranked.id AND t.position IS DISTINCT FROM ranked.rn * ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TaskOrderStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void lockShared(UUID projectId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(?, ?)", rs -> {
+        }, LOCK_NAMESPACE, projectId.hashCode());
+    }
+
+    void lockExclusive(UUID projectId) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {
+        }, LOCK_NAMESPACE, projectId.hashCode());
+    }
+
+    // Null when the task is not (or no longer) in the project
+    Long position(UUID projectId, UUID taskId) {
+        List<Long> positions = jdbcTemplate.queryForList(
+                "SELECT position FROM tasks WHERE id = ? AND project_id = ?", Long.class, taskId, projectId);
+        return positions.isEmpty() ? null : positions.get(0);
+    }
+
+    // Position of the first task in the project other than the moving one
+    Long first(UUID projectId, UUID movingId) {
+        List<Long> positions = jdbcTemplate.queryForList(FIRST_SQL, Long.class, projectId, movingId);
+        return positions.isEmpty() ? null : positions.get(0);
+    }
+
+    // Position of the task directly after (position, id), skipping the moving one
+    Long next(UUID projectId, UUID movingId, long position, UUID id) {
+        List<Long> positions = jdbcTemplate.queryForList(NEXT_SQL, Long.class, projectId, movingId, position, id);
+        return positions.isEmpty() ? null : positions.get(0);
+    }
+
+    void setPosition(UUID taskId, long position) {
+        jdbcTemplate.update("UPDATE tasks SET position = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?",
+                ps -> {
+                    ps.setLong(1, position);
+                    ps.setObject(2, taskId, Types.OTHER);
+                });
+    }
+
+    // Callers must hold the exclusive lock for the project
+    int respread(UUID projectId) {
+        return jdbcTemplate.update(RESPREAD_SQL, TaskPositions.GAP, projectId, TaskPositions.GAP);
+    }
+}
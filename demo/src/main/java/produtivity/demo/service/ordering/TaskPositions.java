@@ -0,0 +1,41 @@
+package produtivity.demo.service.ordering;
+
+import java.util.OptionalLong;
+
+/**
+ * Sparse ordering keys for tasks within a project. Keys start 2^20 apart so
+ * about twenty moves can land in the same gap before its neighbours have to
+ * be respread.
+ */
+public final class TaskPositions {
+
+    public static final long GAP = 1L << 20;
+
+    private TaskPositions() {
+    }
+
+    // Position for the n-th task (0-based) of a freshly spread project
+    public static long spread(long index) {
+        return (index + 1) * GAP;
+    }
+
+    /**
+     * Key strictly between the given neighbours, either of which may be null
+     * for the start or end of the list. Empty when the gap is used up.
+     */
+    public static OptionalLong between(Long previous, Long next) {
+        if (previous == null && next == null) {
+            return OptionalLong.of(GAP);
+        }
+        if (previous == null) {
+            return next > Long.MIN_VALUE + GAP ? OptionalLong.of(next - GAP) : OptionalLong.empty();
+        }
+        if (next == null) {
+            return previous < Long.MAX_VALUE - GAP ? OptionalLong.of(previous + GAP) : OptionalLong.empty();
+        }
+        if (next - previous < 2) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(previous + (next - previous) / 2);
+    }
+}
@@ -0,0 +1,98 @@
+package produtivity.demo.service.ordering;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TaskMoveResult;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.repository.TaskRepository.TaskOwnership;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Moves a task within its project by giving it a key between its new
+ * neighbours, which writes only the moved row. When two neighbours have no
+ * room left between them the whole project is respread once and the move is
+ * retried.
+ */
+@Service
+public class TaskReorderService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskReorderService.class);
+
+    private final TaskOrderStore store;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskReorderService(TaskOrderStore store,
+                              TaskRepository taskRepository,
+                              TransactionTemplate transactionTemplate) {
+        this.store = store;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Places the task directly after afterTaskId, or first when it is null
+    public TaskMoveResult move(UUID userId, UUID taskId, UUID afterTaskId) {
+        if (taskId.equals(afterTaskId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A task cannot be moved after itself");
+        }
+        UUID projectId = resolveProject(userId, taskId, afterTaskId);
+
+        boolean respread = false;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            OptionalLong position = transactionTemplate.execute(status -> tryMove(projectId, taskId, afterTaskId));
+            if (position != null && position.isPresent()) {
+                return new TaskMoveResult(taskId, projectId, position.getAsLong(), respread);
+            }
+            int rows = transactionTemplate.execute(status -> {
+                store.lockExclusive(projectId);
+                return store.respread(projectId);
+            });
+            log.debug("Respread {} tasks in project {}", rows, projectId);
+            respread = true;
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Could not place task, retry the move");
+    }
+
+    private OptionalLong tryMove(UUID projectId, UUID taskId, UUID afterTaskId) {
+        store.lockShared(projectId);
+        Long previous = null;
+        Long next;
+        if (afterTaskId == null) {
+            next = store.first(projectId, taskId);
+        } else {
+            previous = store.position(projectId, afterTaskId);
+            if (previous == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+            }
+            next = store.next(projectId, taskId, previous, afterTaskId);
+        }
+        OptionalLong position = TaskPositions.between(previous, next);
+        position.ifPresent(p -> store.setPosition(taskId, p));
+        return position;
+    }
+
+    private UUID resolveProject(UUID userId, UUID taskId, UUID afterTaskId) {
+        List<UUID> ids = new ArrayList<>(2);
+        ids.add(taskId);
+        if (afterTaskId != null) {
+            ids.add(afterTaskId);
+        }
+        List<TaskOwnership> owned = taskRepository.findOwnership(userId, ids);
+        if (owned.size() != ids.size()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+        }
+        UUID projectId = owned.get(0).getProjectId();
+        if (owned.stream().anyMatch(t -> !t.getProjectId().equals(projectId))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tasks belong to different projects");
+        }
+        return projectId;
+    }
+}
@@ -0,0 +1,210 @@
+package produtivity.demo.service.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of time_sessions in shape: creates the next
+ * months ahead of time and, when retention is enabled, detaches months that
+ * fell out of the window instead of deleting their rows. Detached months stay
+ * behind as plain tables for archiving unless drop-detached is set.
+ *
+ * Sessions outside every monthly partition (old history, imports, re-ingested
+ * rows of detached months) land in time_sessions_default. Each run gives
+ * every month found there its own partition, or, for months already past the
+ * retention window, moves the rows into that month's archive table (or
+ * deletes them with drop-detached), so the default partition stays empty.
+ *
+ * Each partition change runs in its own short transaction under an advisory
+ * lock, so several nodes can run the job without racing each other.
+ */
+@Component
+public class TimeSessionPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeSessionPartitionMaintainer.class);
+
+    private static final int LOCK_NAMESPACE = 0x50415254; // "PART"
+    private static final Pattern PARTITION_NAME = Pattern.compile("time_sessions_p(\\d{4})_(\\d{2})");
+
+    private static final String PARTITIONS_SQL = """
+            SELECT c.relname
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'time_sessions'::regclass
+            """;
+
+    private static final String DEFAULT_MONTHS_SQL = """
+            SELECT DISTINCT date_trunc('month', start_time AT TIME ZONE 'UTC')::date
+            FROM time_sessions_default
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TimeSessionRetention retention;
+    private final int monthsAhead;
+    private final boolean dropDetached;
+
+    public TimeSessionPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate,
+                                          TimeSessionRetention retention,
+                                          @Value("${time-sessions.partitions.months-ahead:3}") int monthsAhead,
+                                          @Value("${time-sessions.retention.drop-detached:false}") boolean dropDetached) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.dropDetached = dropDetached;
+    }
+
+    // Catches up after downtime longer than the months created ahead
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${time-sessions.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            Instant now = Instant.now();
+            YearMonth current = YearMonth.from(now.atOffset(ZoneOffset.UTC));
+            Set<YearMonth> attached = attachedMonths();
+            Optional<YearMonth> oldestKept = retention.oldestKeptMonth(now);
+            Set<YearMonth> needed = new TreeSet<>();
+            for (int i = 0; i <= monthsAhead; i++) {
+                needed.add(current.plusMonths(i));
+            }
+            for (YearMonth month : defaultMonths()) {
+                if (oldestKept.isPresent() && month.isBefore(oldestKept.get())) {
+                    archive(month);
+                } else {
+                    needed.add(month);
+                }
+            }
+            for (YearMonth month : needed) {
+                if (!attached.contains(month)) {
+                    create(month);
+                }
+            }
+            if (oldestKept.isPresent()) {
+                for (YearMonth month : attached) {
+                    if (month.isBefore(oldestKept.get())) {
+                        detach(month);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("time_sessions partition maintenance failed, will retry on the next run", e);
+        }
+    }
+
+    // Rows that arrived for the month before its partition existed sit in the default partition
+    private void create(YearMonth month) {
+        String table = partitionName(month);
+        String from = boundLiteral(month);
+        String to = boundLiteral(month.plusMonths(1));
+        int moved = inLockedTransaction(() -> {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE time_sessions INCLUDING DEFAULTS)");
+            int rows = jdbcTemplate.update("WITH moved AS ("
+                    + "DELETE FROM time_sessions_default WHERE start_time >= " + from + " AND start_time < " + to
+                    + " RETURNING *) INSERT INTO " + table + " SELECT * FROM moved");
+            jdbcTemplate.execute("ALTER TABLE time_sessions ATTACH PARTITION " + table
+                    + " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            return rows;
+        });
+        log.info("Created partition {} ({} rows moved from the default partition)", table, moved);
+    }
+
+    // Rows of a month past the retention window go where detaching would have put them
+    private void archive(YearMonth month) {
+        String table = partitionName(month);
+        String range = "start_time >= " + boundLiteral(month) + " AND start_time < " + boundLiteral(month.plusMonths(1));
+        int moved = inLockedTransaction(() -> {
+            if (dropDetached) {
+                return jdbcTemplate.update("DELETE FROM time_sessions_default WHERE " + range);
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " (LIKE time_sessions INCLUDING DEFAULTS)");
+            // A detached table keeps its primary key, and rows may have been archived before
+            return jdbcTemplate.update("WITH moved AS (DELETE FROM time_sessions_default WHERE " + range
+                    + " RETURNING *) INSERT INTO " + table + " SELECT * FROM moved ON CONFLICT DO NOTHING");
+        });
+        log.info("{} {} rows of {} past the retention window from the default partition",
+                dropDetached ? "Dropped" : "Archived", moved, month);
+    }
+
+    private void detach(YearMonth month) {
+        String table = partitionName(month);
+        inLockedTransaction(() -> {
+            jdbcTemplate.execute("ALTER TABLE time_sessions DETACH PARTITION " + table);
+            if (dropDetached) {
+                jdbcTemplate.execute("DROP TABLE " + table);
+            }
+            return 0;
+        });
+        log.info("{} partition {} past the retention window", dropDetached ? "Dropped" : "Detached", table);
+    }
+
+    private Set<YearMonth> attachedMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(PARTITIONS_SQL, String.class)) {
+            parseMonth(name).ifPresent(months::add);
+        }
+        return months;
+    }
+
+    private Set<YearMonth> defaultMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+        for (LocalDate month : jdbcTemplate.queryForList(DEFAULT_MONTHS_SQL, LocalDate.class)) {
+            months.add(YearMonth.from(month));
+        }
+        return months;
+    }
+
+    private int inLockedTransaction(IntSupplier work) {
+        Integer result = transactionTemplate.execute(status -> {
+            // Give up rather than queue ahead of every session query behind a long-running one
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, 0)", (RowCallbackHandler) rs -> {}, LOCK_NAMESPACE);
+            return work.getAsInt();
+        });
+        return result != null ? result : 0;
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("time_sessions_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    static Optional<YearMonth> parseMonth(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int monthValue = Integer.parseInt(matcher.group(2));
+        if (monthValue < 1 || monthValue > 12) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), monthValue));
+    }
+
+    private static String boundLiteral(YearMonth month) {
+        return "'" + TimeSessionRetention.startOf(month) + "'::timestamptz";
+    }
+}
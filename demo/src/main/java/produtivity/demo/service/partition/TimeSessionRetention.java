@@ -0,0 +1,53 @@
+package produtivity.demo.service.partition;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * How many months of session detail stay attached to time_sessions. Older
+ * monthly partitions are detached, and the daily rollups for their days are
+ * frozen: rebuilds leave them alone instead of recomputing them from rows
+ * that are no longer there.
+ */
+@Component
+public class TimeSessionRetention {
+
+    // Sessions may spill into the next local day, and local days lag UTC by up to 14 hours
+    private static final int ROLLUP_MARGIN_DAYS = 2;
+
+    private final int months;
+
+    public TimeSessionRetention(@Value("${time-sessions.retention.months:0}") int months) {
+        this.months = Math.max(0, months);
+    }
+
+    public boolean isEnabled() {
+        return months > 0;
+    }
+
+    // Start of the oldest month that is kept, or empty when retention is disabled
+    public Optional<YearMonth> oldestKeptMonth(Instant now) {
+        return isEnabled()
+                ? Optional.of(YearMonth.from(now.atOffset(ZoneOffset.UTC)).minusMonths(months))
+                : Optional.empty();
+    }
+
+    public Optional<Instant> cutoff(Instant now) {
+        return oldestKeptMonth(now).map(TimeSessionRetention::startOf);
+    }
+
+    // First rollup day that can still be recomputed from attached sessions
+    public Optional<LocalDate> rollupHorizon(Instant now) {
+        return oldestKeptMonth(now).map(month -> month.atDay(1).plusDays(ROLLUP_MARGIN_DAYS));
+    }
+
+    static Instant startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,32 @@
+package produtivity.demo.service.query;
+
+import produtivity.demo.service.query.TaskFilter.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last row of a page. Due
+ * dates are carried as epoch microseconds, the precision PostgreSQL stores.
+ */
+record TaskCursor(TaskSort sort, long key, UUID id) {
+
+    String encode() {
+        String raw = sort.name() + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new TaskCursor(TaskSort.valueOf(parts[0]), Long.parseLong(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package produtivity.demo.service.query;
+
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Criteria for the task listing. Empty status/priority sets mean any value;
+ * the due-date bounds are inclusive and either may be null.
+ */
+public record TaskFilter(
+        UUID projectId,
+        Set<TaskStatus> statuses,
+        Set<TaskPriority> priorities,
+        UUID categoryId,
+        UUID tagId,
+        ZonedDateTime dueFrom,
+        ZonedDateTime dueTo,
+        TaskSort sort) {
+
+    public enum TaskSort {
+        POSITION, DUE_DATE
+    }
+
+    public TaskFilter {
+        statuses = statuses != null ? Set.copyOf(statuses) : Set.of();
+        priorities = priorities != null ? Set.copyOf(priorities) : Set.of();
+        if (sort == null) {
+            sort = projectId != null ? TaskSort.POSITION : TaskSort.DUE_DATE;
+        }
+    }
+}
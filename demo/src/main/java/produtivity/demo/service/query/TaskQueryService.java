@@ -0,0 +1,88 @@
+package produtivity.demo.service.query;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TaskPage;
+import produtivity.demo.dto.TaskSummaryView;
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.service.query.TaskFilter.TaskSort;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Task listing with keyset pagination. Each page is fetched with one extra
+ * row to tell whether another page follows; the cursor carries the sort key
+ * of the last row returned, so deep pages cost the same as the first.
+ */
+@Service
+public class TaskQueryService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final RowMapper<TaskSummaryView> ROW_MAPPER = (rs, rowNum) -> {
+        OffsetDateTime due = rs.getObject("due_date", OffsetDateTime.class);
+        return new TaskSummaryView(
+                rs.getObject("id", UUID.class),
+                rs.getObject("project_id", UUID.class),
+                rs.getObject("category_id", UUID.class),
+                rs.getString("title"),
+                TaskStatus.valueOf(rs.getString("status")),
+                TaskPriority.valueOf(rs.getString("priority")),
+                due != null ? due.toZonedDateTime() : null,
+                (Integer) rs.getObject("estimated_duration"),
+                (Integer) rs.getObject("actual_duration"),
+                rs.getLong("position"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskQueryService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public TaskPage find(UUID userId, TaskFilter filter, String cursor, int limit) {
+        if (filter.sort() == TaskSort.POSITION && filter.projectId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "projectId is required when sorting by position");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskCursor after = cursor != null ? decode(cursor, filter.sort()) : null;
+
+        TaskQuerySql.Statement statement = TaskQuerySql.build(userId, filter, after, limit + 1);
+        List<TaskSummaryView> rows = jdbcTemplate.query(statement.sql(), statement.parameters(), ROW_MAPPER);
+        if (rows.size() <= limit) {
+            return new TaskPage(rows, null);
+        }
+        List<TaskSummaryView> page = rows.subList(0, limit);
+        return new TaskPage(List.copyOf(page), cursorAfter(page.get(limit - 1), filter.sort()).encode());
+    }
+
+    private static TaskCursor decode(String cursor, TaskSort sort) {
+        TaskCursor decoded;
+        try {
+            decoded = TaskCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        if (decoded.sort() != sort) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor was issued for a different sort");
+        }
+        return decoded;
+    }
+
+    private static TaskCursor cursorAfter(TaskSummaryView last, TaskSort sort) {
+        long key = sort == TaskSort.POSITION
+                ? last.position()
+                : ChronoUnit.MICROS.between(Instant.EPOCH, last.dueDate().toInstant());
+        return new TaskCursor(sort, key, last.id());
+    }
+}
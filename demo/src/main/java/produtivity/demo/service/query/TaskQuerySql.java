@@ -0,0 +1,115 @@
+package produtivity.demo.service.query;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.service.query.TaskFilter.TaskSort;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Builds the listing statement. Predicates are only added for filters that
+ * are set, and the seek condition uses a row comparison on (key, id) so it
+ * lines up with the composite indexes from V6.
+ *
+ * The indexes lead with project_id, so a listing over all of the user's
+ * projects cannot be read from one of them in order. It instead takes at
+ * most one page from each project through a lateral index scan and sorts
+ * only those, so a page costs projects * limit rows however deep it is.
+ */
+final class TaskQuerySql {
+
+    private static final String COLUMNS = """
+            SELECT t.id, t.project_id, t.category_id, t.title, t.status, t.priority, t.due_date,
+                   t.estimated_duration, t.actual_duration, t.position
+            """;
+
+    private TaskQuerySql() {
+    }
+
+    record Statement(String sql, MapSqlParameterSource parameters) {
+    }
+
+    static Statement build(UUID userId, TaskFilter filter, TaskCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId, Types.OTHER)
+                .addValue("limit", limit);
+        String order = filter.sort() == TaskSort.POSITION ? "ORDER BY t.position, t.id\n" : "ORDER BY t.due_date, t.id\n";
+
+        if (filter.projectId() != null) {
+            params.addValue("projectId", filter.projectId(), Types.OTHER);
+            String sql = COLUMNS + """
+                    FROM tasks t
+                    JOIN projects p ON p.id = t.project_id
+                    WHERE p.user_id = :userId
+                      AND t.project_id = :projectId
+                    """ + predicates(filter, after, params) + order + "LIMIT :limit";
+            return new Statement(sql, params);
+        }
+        String sql = COLUMNS + """
+                FROM projects p
+                CROSS JOIN LATERAL (
+                """ + COLUMNS + """
+                    FROM tasks t
+                    WHERE t.project_id = p.id
+                """ + predicates(filter, after, params) + order + """
+                    LIMIT :limit
+                ) t
+                WHERE p.user_id = :userId
+                """ + order + "LIMIT :limit";
+        return new Statement(sql, params);
+    }
+
+    // Conditions on t after the project condition, each starting with AND
+    private static String predicates(TaskFilter filter, TaskCursor after, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder();
+        if (filter.statuses().size() == 1) {
+            // Equality keeps (project_id, status, position, id) usable for ordering
+            sql.append("  AND t.status = :status\n");
+            params.addValue("status", filter.statuses().iterator().next().name());
+        } else if (!filter.statuses().isEmpty()) {
+            sql.append("  AND t.status IN (:statuses)\n");
+            params.addValue("statuses", filter.statuses().stream().map(TaskStatus::name).toList());
+        }
+        if (!filter.priorities().isEmpty()) {
+            sql.append("  AND t.priority IN (:priorities)\n");
+            params.addValue("priorities", filter.priorities().stream().map(TaskPriority::name).toList());
+        }
+        if (filter.categoryId() != null) {
+            sql.append("  AND t.category_id = :categoryId\n");
+            params.addValue("categoryId", filter.categoryId(), Types.OTHER);
+        }
+        if (filter.tagId() != null) {
+            sql.append("  AND EXISTS (SELECT 1 FROM task_tags tt WHERE tt.task_id = t.id AND tt.tag_id = :tagId)\n");
+            params.addValue("tagId", filter.tagId(), Types.OTHER);
+        }
+        if (filter.sort() == TaskSort.DUE_DATE || filter.dueFrom() != null || filter.dueTo() != null) {
+            sql.append("  AND t.due_date IS NOT NULL\n");
+        }
+        if (filter.dueFrom() != null) {
+            sql.append("  AND t.due_date >= :dueFrom\n");
+            params.addValue("dueFrom", filter.dueFrom().toOffsetDateTime(), Types.TIMESTAMP_WITH_TIMEZONE);
+        }
+        if (filter.dueTo() != null) {
+            sql.append("  AND t.due_date <= :dueTo\n");
+            params.addValue("dueTo", filter.dueTo().toOffsetDateTime(), Types.TIMESTAMP_WITH_TIMEZONE);
+        }
+
+        if (after != null) {
+            if (filter.sort() == TaskSort.POSITION) {
+                sql.append("  AND (t.position, t.id) > (:afterKey, :afterId)\n");
+                params.addValue("afterKey", after.key());
+            } else {
+                sql.append("  AND (t.due_date, t.id) > (:afterKey, :afterId)\n");
+                params.addValue("afterKey", Instant.EPOCH.plus(after.key(), ChronoUnit.MICROS).atOffset(ZoneOffset.UTC),
+                        Types.TIMESTAMP_WITH_TIMEZONE);
+            }
+            params.addValue("afterId", after.id(), Types.OTHER);
+        }
+        return sql.toString();
+    }
+}
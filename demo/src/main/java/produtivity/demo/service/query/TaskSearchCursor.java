@@ -0,0 +1,32 @@
+package produtivity.demo.service.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor for search results: the rank and id of the last hit,
+ * plus a hash of the query it was issued for. The rank travels as its float
+ * bits so the next page compares against exactly the value PostgreSQL returned.
+ */
+record TaskSearchCursor(int queryHash, float rank, UUID id) {
+
+    String encode() {
+        String raw = queryHash + ":" + Float.floatToIntBits(rank) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new TaskSearchCursor(Integer.parseInt(parts[0]),
+                    Float.intBitsToFloat(Integer.parseInt(parts[1])), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+}
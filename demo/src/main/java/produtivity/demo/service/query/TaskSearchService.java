@@ -0,0 +1,146 @@
+package produtivity.demo.service.query;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TaskSearchHit;
+import produtivity.demo.dto.TaskSearchPage;
+import produtivity.demo.entity.Task.TaskPriority;
+import produtivity.demo.entity.Task.TaskStatus;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over a user's task titles and descriptions, ranked by
+ * ts_rank_cd with title matches weighted above description matches. Pages
+ * are keyset-paginated on (rank, id); headlines are only computed for the
+ * rows of the page being returned, since ts_headline re-parses the text.
+ */
+@Service
+public class TaskSearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    // Control characters mark matches so the text can be escaped before the markers become tags
+    private static final char START_MARK = '\u0002';
+    private static final char STOP_MARK = '\u0003';
+
+    private static final String TITLE_OPTIONS = "StartSel=" + START_MARK + ", StopSel=" + STOP_MARK + ", HighlightAll=true";
+    private static final String SNIPPET_OPTIONS = "StartSel=" + START_MARK + ", StopSel=" + STOP_MARK
+            + ", MaxWords=24, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private static final String SEARCH_SQL = """
+            WITH q AS (SELECT websearch_to_tsquery('english', :query) AS query),
+            page AS (
+                SELECT t.id, t.project_id, t.title, t.description, t.status, t.priority,
+                       ts_rank_cd(t.search_vector, q.query) AS rank
+                FROM q, projects p
+                JOIN tasks t ON t.project_id = p.id
+                WHERE p.user_id = :userId AND t.search_vector @@ q.query
+                %s
+                ORDER BY rank DESC, t.id DESC
+                LIMIT :limit
+            )
+            SELECT page.id, page.project_id, page.status, page.priority, page.rank,
+                   ts_headline('english', page.title, q.query, :titleOptions) AS title,
+                   CASE WHEN page.description IS NOT NULL
+                        THEN ts_headline('english', page.description, q.query, :snippetOptions)
+                   END AS snippet
+            FROM page, q
+            ORDER BY page.rank DESC, page.id DESC
+            """;
+
+    private static final String AFTER_CURSOR = """
+            AND (ts_rank_cd(t.search_vector, q.query), t.id) < (:afterRank, :afterId)
+            """;
+
+    private static final RowMapper<TaskSearchHit> ROW_MAPPER = (rs, rowNum) -> new TaskSearchHit(
+            rs.getObject("id", UUID.class),
+            rs.getObject("project_id", UUID.class),
+            toHtml(rs.getString("title")),
+            TaskStatus.valueOf(rs.getString("status")),
+            TaskPriority.valueOf(rs.getString("priority")),
+            rs.getFloat("rank"),
+            snippet(rs.getString("snippet")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskSearchService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public TaskSearchPage search(UUID userId, String query, String cursor, int limit) {
+        String terms = query != null ? query.strip() : "";
+        if (terms.isEmpty() || terms.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must be 1 to " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        TaskSearchCursor after = cursor != null ? decode(cursor, terms) : null;
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", terms)
+                .addValue("userId", userId)
+                .addValue("limit", limit + 1)
+                .addValue("titleOptions", TITLE_OPTIONS)
+                .addValue("snippetOptions", SNIPPET_OPTIONS);
+        if (after != null) {
+            parameters.addValue("afterRank", after.rank(), Types.REAL)
+                    .addValue("afterId", after.id());
+        }
+        String sql = SEARCH_SQL.formatted(after != null ? AFTER_CURSOR : "");
+        List<TaskSearchHit> rows = jdbcTemplate.query(sql, parameters, ROW_MAPPER);
+        if (rows.size() <= limit) {
+            return new TaskSearchPage(rows, null);
+        }
+        List<TaskSearchHit> page = rows.subList(0, limit);
+        TaskSearchHit last = page.get(limit - 1);
+        return new TaskSearchPage(List.copyOf(page), new TaskSearchCursor(terms.hashCode(), last.rank(), last.id()).encode());
+    }
+
+    private static TaskSearchCursor decode(String cursor, String terms) {
+        TaskSearchCursor decoded;
+        try {
+            decoded = TaskSearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        if (decoded.queryHash() != terms.hashCode()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor was issued for a different query");
+        }
+        return decoded;
+    }
+
+    // A headline without any marker means the description did not match
+    private static String snippet(String headline) {
+        return headline != null && headline.indexOf(START_MARK) >= 0 ? toHtml(headline) : null;
+    }
+
+    static String toHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(headline.length() + 16);
+        for (int i = 0; i < headline.length(); i++) {
+            char c = headline.charAt(i);
+            switch (c) {
+                case START_MARK -> html.append("<mark>");
+                case STOP_MARK -> html.append("</mark>");
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package produtivity.demo.service.rollup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a session's minutes across the calendar days it covers in a given
+ * timezone, proportionally to wall-clock overlap. The parts always add up to
+ * the session's recorded duration.
+ */
+public final class DailyBuckets {
+
+    private DailyBuckets() {}
+
+    public static Map<LocalDate, Integer> split(ZonedDateTime start, ZonedDateTime end, int minutes, ZoneId zone) {
+        ZonedDateTime localStart = start.withZoneSameInstant(zone);
+        ZonedDateTime localEnd = end.withZoneSameInstant(zone);
+        LocalDate firstDay = localStart.toLocalDate();
+        LocalDate lastDay = localEnd.toLocalDate();
+
+        Map<LocalDate, Integer> buckets = new LinkedHashMap<>();
+        long totalSeconds = Duration.between(localStart, localEnd).getSeconds();
+        if (!lastDay.isAfter(firstDay) || totalSeconds <= 0) {
+            buckets.put(firstDay, minutes);
+            return buckets;
+        }
+
+        // Cumulative rounding so that rounding errors never accumulate
+        long coveredSeconds = 0;
+        int allocated = 0;
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            ZonedDateTime dayStart = day.atStartOfDay(zone);
+            ZonedDateTime dayEnd = day.plusDays(1).atStartOfDay(zone);
+            ZonedDateTime from = localStart.isAfter(dayStart) ? localStart : dayStart;
+            ZonedDateTime to = localEnd.isBefore(dayEnd) ? localEnd : dayEnd;
+            coveredSeconds += Math.max(0, Duration.between(from, to).getSeconds());
+            int cumulative = (int) Math.round((double) minutes * coveredSeconds / totalSeconds);
+            if (cumulative > allocated || day.equals(firstDay)) {
+                buckets.put(day, cumulative - allocated);
+            }
+            allocated = cumulative;
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,70 @@
+package produtivity.demo.service.rollup;
+
+import produtivity.demo.event.TimeSessionSnapshot;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Sums per-day minute and session-count deltas by (user, project, task, day).
+ * Entries come out in a fixed key order so concurrent writers lock rows in
+ * the same sequence.
+ */
+public class RollupAccumulator {
+
+    private static final Comparator<UUID> NULLS_FIRST = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Comparator<BucketKey> KEY_ORDER = Comparator
+            .comparing(BucketKey::userId)
+            .thenComparing(BucketKey::date)
+            .thenComparing(BucketKey::projectId, NULLS_FIRST)
+            .thenComparing(BucketKey::taskId, NULLS_FIRST);
+
+    private final Map<BucketKey, Delta> deltas = new TreeMap<>(KEY_ORDER);
+
+    public void add(TimeSessionSnapshot session, ZoneId zone, int sign) {
+        Map<LocalDate, Integer> days = DailyBuckets.split(
+                session.startTime(), session.effectiveEndTime(), session.duration(), zone);
+        LocalDate startDay = session.startTime().withZoneSameInstant(zone).toLocalDate();
+        for (Map.Entry<LocalDate, Integer> day : days.entrySet()) {
+            BucketKey key = new BucketKey(session.userId(), session.projectId(), session.taskId(), day.getKey());
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.minutes += (long) sign * day.getValue();
+            // A session is counted once, on the day it started
+            if (day.getKey().equals(startDay)) {
+                delta.sessions += sign;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries().isEmpty();
+    }
+
+    public List<Map.Entry<BucketKey, Delta>> entries() {
+        return deltas.entrySet().stream()
+                .filter(e -> e.getValue().minutes != 0 || e.getValue().sessions != 0)
+                .toList();
+    }
+
+    public record BucketKey(UUID userId, UUID projectId, UUID taskId, LocalDate date) {
+    }
+
+    public static class Delta {
+        long minutes;
+        int sessions;
+
+        public long minutes() {
+            return minutes;
+        }
+
+        public int sessions() {
+            return sessions;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package produtivity.demo.service.rollup;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import produtivity.demo.service.rollup.RollupAccumulator.BucketKey;
+import produtivity.demo.service.rollup.RollupAccumulator.Delta;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * SQL side of the daily rollups. Incremental writers hold a shared
+ * transaction-level advisory lock per user and rebuilds hold an exclusive one,
+ * so a rebuild never interleaves with in-flight deltas for the same user.
+ */
+@Component
+public class RollupWriter {
+
+    private static final int LOCK_NAMESPACE = 0x524f4c4c; // "ROLL"
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO time_session_daily_rollups AS r (user_id, project_id, task_id, bucket_date, total_minutes, session_count)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, bucket_date, project_id, task_id) DO UPDATE
+            SET total_minutes = r.total_minutes + EXCLUDED.total_minutes,
+                session_count = r.session_count + EXCLUDED.session_count,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO time_session_daily_rollups (user_id, project_id, task_id, bucket_date, total_minutes, session_count)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int[] ARG_TYPES = {Types.OTHER, Types.OTHER, Types.OTHER, Types.DATE, Types.BIGINT, Types.INTEGER};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RollupWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void lockShared(Collection<UUID> userIds) {
+        lock("pg_advisory_xact_lock_shared", userIds);
+    }
+
+    public void lockExclusive(Collection<UUID> userIds) {
+        lock("pg_advisory_xact_lock", userIds);
+    }
+
+    public void applyDeltas(RollupAccumulator accumulator) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, toParameters(accumulator.entries()), ARG_TYPES);
+    }
+
+    // Callers must hold the exclusive lock for the given users. Only days from
+    // fromDate on are replaced (all days when null); earlier rollups are kept
+    public void replace(Collection<UUID> userIds, RollupAccumulator accumulator, LocalDate fromDate) {
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("DELETE FROM time_session_daily_rollups WHERE user_id = ANY(?)"
+                    + (fromDate != null ? " AND bucket_date >= ?" : ""));
+            ps.setArray(1, con.createArrayOf("uuid", userIds.toArray()));
+            if (fromDate != null) {
+                ps.setObject(2, fromDate);
+            }
+            return ps;
+        });
+        List<Map.Entry<BucketKey, Delta>> entries = accumulator.entries();
+        if (fromDate != null) {
+            entries = entries.stream().filter(e -> !e.getKey().date().isBefore(fromDate)).toList();
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, toParameters(entries), ARG_TYPES);
+    }
+
+    private void lock(String function, Collection<UUID> userIds) {
+        String sql = "SELECT " + function + "(?, ?)";
+        userIds.stream()
+                .mapToInt(UUID::hashCode)
+                .distinct()
+                .sorted()
+                .forEach(key -> jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {}, LOCK_NAMESPACE, key));
+    }
+
+    private static List<Object[]> toParameters(List<Map.Entry<BucketKey, Delta>> entries) {
+        return entries.stream()
+                .map(e -> new Object[]{
+                        e.getKey().userId(),
+                        e.getKey().projectId(),
+                        e.getKey().taskId(),
+                        e.getKey().date(),
+                        e.getValue().minutes(),
+                        e.getValue().sessions()})
+                .toList();
+    }
+}
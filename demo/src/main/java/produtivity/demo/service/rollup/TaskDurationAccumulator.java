@@ -0,0 +1,146 @@
+package produtivity.demo.service.rollup;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind for tasks.actual_duration. Committed session changes add
+ * their minutes (or take back the minutes they had before) to a per-task
+ * delta in memory; every flush interval the deltas are applied in a single
+ * UPDATE. A busy task therefore gets one row update per interval however
+ * many sessions stop on it, and the updated_at trigger no longer fires for
+ * these writes (V13). Pending deltas are flushed on shutdown, after the
+ * timer registry has written its last sessions.
+ *
+ * Deltas are only taken after commit, so rolled-back sessions never count.
+ * What a crash loses between flushes is corrected by
+ * {@link TaskDurationReconciler}.
+ */
+@Component
+public class TaskDurationAccumulator {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDurationAccumulator.class);
+
+    private static final String APPLY_SQL = """
+            UPDATE tasks t
+            SET actual_duration = COALESCE(t.actual_duration, 0) + d.delta
+            FROM unnest(?::uuid[], ?::int[]) AS d(id, delta)
+            WHERE t.id = d.id
+            """;
+
+    private final Map<UUID, Integer> deltas = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer flushTimer;
+
+    public TaskDurationAccumulator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushTimer = Timer.builder("tasks.duration.flush")
+                .description("Time to apply buffered actual_duration deltas")
+                .register(meterRegistry);
+        Gauge.builder("tasks.duration.pending", deltas, Map::size)
+                .description("Tasks with actual_duration deltas waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    // Also runs for events published outside a transaction, whose writes are already committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSessionsChanged(TimeSessionsChangedEvent event) {
+        for (TimeSessionChange change : event.changes()) {
+            add(change.before(), -1);
+            add(change.after(), 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.actual-duration.flush-interval:10s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<UUID, Integer> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                flushTimer.record(() -> apply(batch));
+            } catch (RuntimeException e) {
+                log.warn("Flushing actual_duration for {} tasks failed, will retry", batch.size(), e);
+                batch.forEach(this::merge);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Lets the reconciler compare against the table without deltas in flight
+    <T> T runExclusively(Supplier<T> work) {
+        flushLock.lock();
+        try {
+            flush();
+            return work.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    boolean hasPending(UUID taskId) {
+        return deltas.containsKey(taskId);
+    }
+
+    private void add(TimeSessionSnapshot session, int sign) {
+        if (session != null && session.isTracked() && session.taskId() != null && session.duration() != 0) {
+            merge(session.taskId(), sign * session.duration());
+        }
+    }
+
+    private void merge(UUID taskId, int minutes) {
+        deltas.merge(taskId, minutes, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private Map<UUID, Integer> drain() {
+        Map<UUID, Integer> batch = new HashMap<>();
+        Set<UUID> taskIds = deltas.keySet();
+        for (UUID taskId : taskIds) {
+            Integer delta = deltas.remove(taskId);
+            if (delta != null) {
+                batch.put(taskId, delta);
+            }
+        }
+        return batch;
+    }
+
+    private void apply(Map<UUID, Integer> batch) {
+        UUID[] ids = batch.keySet().toArray(UUID[]::new);
+        Integer[] minutes = batch.values().toArray(Integer[]::new);
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement(APPLY_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids));
+            ps.setArray(2, con.createArrayOf("integer", minutes));
+            return ps;
+        });
+    }
+}
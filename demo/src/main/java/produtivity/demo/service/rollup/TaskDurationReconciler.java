@@ -0,0 +1,153 @@
+package produtivity.demo.service.rollup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import produtivity.demo.service.partition.TimeSessionRetention;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Corrects tasks.actual_duration where it drifted from the sum of the task's
+ * closed sessions, e.g. after deltas were lost in a crash. That sum is the
+ * column's only source: imports add their sessions' minutes rather than
+ * taking a task's actual_duration from the file. Tasks are walked in id
+ * order in chunks; each chunk is compared with pending deltas flushed and
+ * flushing held off, and written with a compare-and-set so a concurrent edit
+ * is left for the next run.
+ *
+ * Tasks whose sessions changed within the grace window are skipped, since
+ * their delta may still be on its way to the accumulator. With session
+ * retention enabled only tasks created after the retention cutoff are
+ * checked; older ones may have minutes in detached partitions.
+ */
+@Component
+public class TaskDurationReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskDurationReconciler.class);
+
+    private static final String CHUNK_SQL = """
+            SELECT t.id, t.actual_duration, s.tracked, s.last_change
+            FROM (
+                SELECT id, actual_duration
+                FROM tasks
+                WHERE id > ? AND (?::timestamptz IS NULL OR created_at >= ?)
+                ORDER BY id
+                LIMIT ?
+            ) t
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(SUM(duration) FILTER (WHERE is_active IS NOT TRUE), 0) AS tracked,
+                       MAX(updated_at) AS last_change
+                FROM time_sessions
+                WHERE task_id = t.id
+            ) s
+            ORDER BY t.id
+            """;
+
+    private static final String CORRECT_SQL = """
+            UPDATE tasks SET actual_duration = ?
+            WHERE id = ? AND actual_duration IS NOT DISTINCT FROM ?
+            """;
+
+    private static final int[] CORRECT_TYPES = {Types.INTEGER, Types.OTHER, Types.INTEGER};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskDurationAccumulator accumulator;
+    private final TimeSessionRetention retention;
+    private final Counter corrected;
+    private final int chunkSize;
+    private final Duration grace;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TaskDurationReconciler(JdbcTemplate jdbcTemplate,
+                                  TaskDurationAccumulator accumulator,
+                                  TimeSessionRetention retention,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${tasks.actual-duration.reconcile.chunk-size:1000}") int chunkSize,
+                                  @Value("${tasks.actual-duration.reconcile.grace:2m}") Duration grace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accumulator = accumulator;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+        this.grace = grace;
+        this.corrected = Counter.builder("tasks.duration.corrected")
+                .description("Tasks whose actual_duration the reconciler corrected")
+                .register(meterRegistry);
+    }
+
+    // Returns the number of tasks corrected
+    @Scheduled(cron = "${tasks.actual-duration.reconcile.cron:0 45 3 * * *}")
+    public int reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            Instant now = Instant.now();
+            Timestamp createdFrom = retention.cutoff(now).map(Timestamp::from).orElse(null);
+            OffsetDateTime settledBefore = now.minus(grace).atOffset(ZoneOffset.UTC);
+            // The nil UUID sorts first in PostgreSQL's unsigned byte order
+            UUID after = new UUID(0, 0);
+            int checked = 0;
+            int fixed = 0;
+            Chunk chunk;
+            do {
+                UUID from = after;
+                chunk = accumulator.runExclusively(() -> reconcileChunk(from, createdFrom, settledBefore));
+                checked += chunk.read();
+                fixed += chunk.corrected();
+                after = chunk.lastId();
+            } while (chunk.read() == chunkSize);
+            corrected.increment(fixed);
+            log.info("Reconciled actual_duration of {} tasks, corrected {}", checked, fixed);
+            return fixed;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Chunk reconcileChunk(UUID after, Timestamp createdFrom, OffsetDateTime settledBefore) {
+        List<Row> rows = jdbcTemplate.query(CHUNK_SQL, (rs, rowNum) -> new Row(
+                rs.getObject("id", UUID.class),
+                (Integer) rs.getObject("actual_duration"),
+                rs.getInt("tracked"),
+                rs.getObject("last_change", OffsetDateTime.class)), after, createdFrom, createdFrom, chunkSize);
+        if (rows.isEmpty()) {
+            return new Chunk(0, 0, after);
+        }
+        List<Object[]> drifts = new ArrayList<>();
+        for (Row row : rows) {
+            int recorded = row.recorded() != null ? row.recorded() : 0;
+            boolean settled = row.lastChange() == null || row.lastChange().isBefore(settledBefore);
+            if (recorded != row.tracked() && settled && !accumulator.hasPending(row.id())) {
+                drifts.add(new Object[]{row.tracked(), row.id(), row.recorded()});
+            }
+        }
+        int updated = 0;
+        if (!drifts.isEmpty()) {
+            for (int count : jdbcTemplate.batchUpdate(CORRECT_SQL, drifts, CORRECT_TYPES)) {
+                updated += Math.max(count, 0);
+            }
+        }
+        return new Chunk(rows.size(), updated, rows.get(rows.size() - 1).id());
+    }
+
+    private record Row(UUID id, Integer recorded, int tracked, OffsetDateTime lastChange) {
+    }
+
+    private record Chunk(int read, int corrected, UUID lastId) {
+    }
+}
@@ -0,0 +1,68 @@
+package produtivity.demo.service.rollup;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.service.UserTimezones;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Keeps time_session_daily_rollups in step with session writes. Runs just
+ * before the writing transaction commits, so rollups and sessions commit or
+ * roll back together.
+ */
+@Component
+public class TimeRollupMaintainer {
+
+    private final RollupWriter rollupWriter;
+    private final UserTimezones userTimezones;
+
+    public TimeRollupMaintainer(RollupWriter rollupWriter, UserTimezones userTimezones) {
+        this.rollupWriter = rollupWriter;
+        this.userTimezones = userTimezones;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onSessionsChanged(TimeSessionsChangedEvent event) {
+        Set<UUID> userIds = new TreeSet<>();
+        for (TimeSessionChange change : event.changes()) {
+            if (change.before() != null && change.before().isTracked()) {
+                userIds.add(change.before().userId());
+            }
+            if (change.after() != null && change.after().isTracked()) {
+                userIds.add(change.after().userId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, ZoneId> zones = userTimezones.lookup(userIds);
+        RollupAccumulator accumulator = new RollupAccumulator();
+        for (TimeSessionChange change : event.changes()) {
+            apply(accumulator, change.before(), zones, -1);
+            apply(accumulator, change.after(), zones, 1);
+        }
+        if (accumulator.isEmpty()) {
+            return;
+        }
+
+        rollupWriter.lockShared(userIds);
+        rollupWriter.applyDeltas(accumulator);
+    }
+
+    private static void apply(RollupAccumulator accumulator, TimeSessionSnapshot session,
+                              Map<UUID, ZoneId> zones, int sign) {
+        if (session != null && session.isTracked()) {
+            accumulator.add(session, zones.get(session.userId()), sign);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package produtivity.demo.service.rollup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.service.UserTimezones;
+import produtivity.demo.service.goal.GoalProgressEngine;
+import produtivity.demo.service.partition.TimeSessionRetention;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recomputes daily rollups from time_sessions. Users are split into chunks
+ * that are rebuilt in parallel, each chunk in its own transaction. Needed
+ * after backfills and whenever a user's timezone changes. With session
+ * retention enabled only days after the retention cutoff are recomputed;
+ * rollups for detached months are kept as they are.
+ */
+@Component
+public class TimeRollupRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeRollupRebuildJob.class);
+
+    private static final String SESSIONS_SQL = """
+            SELECT id, user_id, project_id, task_id, start_time, end_time, duration
+            FROM time_sessions
+            WHERE user_id = ANY(?) AND is_active IS NOT TRUE AND duration IS NOT NULL AND start_time >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RollupWriter rollupWriter;
+    private final UserTimezones userTimezones;
+    private final TimeSessionRetention retention;
+    private final GoalProgressEngine goalProgressEngine;
+    private final int chunkSize;
+    private final int parallelism;
+    private final boolean backfillOnStartup;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TimeRollupRebuildJob(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                TransactionTemplate transactionTemplate,
+                                RollupWriter rollupWriter,
+                                UserTimezones userTimezones,
+                                TimeSessionRetention retention,
+                                GoalProgressEngine goalProgressEngine,
+                                @Value("${time-sessions.rollups.rebuild.chunk-size:200}") int chunkSize,
+                                @Value("${time-sessions.rollups.rebuild.parallelism:4}") int parallelism,
+                                @Value("${time-sessions.rollups.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = transactionTemplate;
+        this.rollupWriter = rollupWriter;
+        this.userTimezones = userTimezones;
+        this.retention = retention;
+        this.goalProgressEngine = goalProgressEngine;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    // Fills the rollups once for databases that predate them. TIME_SPENT goals are counted from
+    // the rollups, so they are recounted once the rollups exist
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        Boolean needed = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM time_sessions)
+                   AND NOT EXISTS (SELECT 1 FROM time_session_daily_rollups)
+                """, Boolean.class);
+        if (Boolean.TRUE.equals(needed)) {
+            rebuildAll();
+            int users = goalProgressEngine.recountAll();
+            log.info("Recounted active goals of {} users after the rollup backfill", users);
+        }
+    }
+
+    @Async
+    public void rebuildAllInBackground() {
+        rebuildAll();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public RebuildResult rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A rollup rebuild is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            List<UUID> userIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id", UUID.class);
+            List<Future<Integer>> chunks = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+                for (int from = 0; from < userIds.size(); from += chunkSize) {
+                    List<UUID> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                    chunks.add(executor.submit(() -> rebuildUsers(chunk)));
+                }
+            }
+            int sessions = 0;
+            for (Future<Integer> chunk : chunks) {
+                sessions += chunk.get();
+            }
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Rebuilt daily rollups for {} users ({} sessions) in {} ms", userIds.size(), sessions, elapsedMillis);
+            return new RebuildResult(userIds.size(), sessions, elapsedMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollup rebuild failed", e.getCause());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Rebuilds the given users in one transaction and returns the number of sessions read
+    public int rebuildUsers(List<UUID> userIds) {
+        Instant now = Instant.now();
+        Instant cutoff = retention.cutoff(now).orElse(Instant.EPOCH);
+        LocalDate horizon = retention.rollupHorizon(now).orElse(null);
+        Integer sessions = transactionTemplate.execute(status -> {
+            rollupWriter.lockExclusive(userIds);
+            Map<UUID, ZoneId> zones = userTimezones.lookup(userIds);
+            RollupAccumulator accumulator = new RollupAccumulator();
+            int[] count = {0};
+            streamingJdbcTemplate.query(con -> {
+                var ps = con.prepareStatement(SESSIONS_SQL);
+                ps.setArray(1, con.createArrayOf("uuid", userIds.toArray()));
+                ps.setObject(2, cutoff.atOffset(ZoneOffset.UTC));
+                return ps;
+            }, rs -> {
+                OffsetDateTime end = rs.getObject("end_time", OffsetDateTime.class);
+                TimeSessionSnapshot session = new TimeSessionSnapshot(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("user_id", UUID.class),
+                        rs.getObject("project_id", UUID.class),
+                        rs.getObject("task_id", UUID.class),
+                        rs.getObject("start_time", OffsetDateTime.class).toZonedDateTime(),
+                        end != null ? end.toZonedDateTime() : null,
+                        rs.getInt("duration"),
+                        false);
+                accumulator.add(session, zones.get(session.userId()), 1);
+                count[0]++;
+            });
+            rollupWriter.replace(userIds, accumulator, horizon);
+            return count[0];
+        });
+        return sessions != null ? sessions : 0;
+    }
+
+    public record RebuildResult(int users, int sessions, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,38 @@
+package produtivity.demo.service.timer;
+
+import produtivity.demo.event.TimeSessionSnapshot;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * A running timer as held by {@link ActiveSessionRegistry}. Instances are
+ * immutable; heartbeats and checkpoints replace the map entry.
+ */
+public record ActiveSession(
+        UUID sessionId,
+        UUID userId,
+        UUID projectId,
+        UUID taskId,
+        ZonedDateTime startTime,
+        String description,
+        Instant lastHeartbeat,
+        Instant checkpointed) {
+    
+    public ActiveSession withHeartbeat(Instant heartbeat) {
+        return new ActiveSession(sessionId, userId, projectId, taskId, startTime, description, heartbeat, checkpointed);
+    }
+    
+    public ActiveSession withCheckpoint(Instant checkpoint) {
+        return new ActiveSession(sessionId, userId, projectId, taskId, startTime, description, lastHeartbeat, checkpoint);
+    }
+    
+    public boolean needsCheckpoint() {
+        return checkpointed == null || lastHeartbeat.isAfter(checkpointed);
+    }
+    
+    public TimeSessionSnapshot snapshot() {
+        return new TimeSessionSnapshot(sessionId, userId, projectId, taskId, startTime, null, null, true);
+    }
+}
@@ -0,0 +1,335 @@
+package produtivity.demo.service.timer;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TimerStartRequest;
+import produtivity.demo.entity.id.TimeOrderedUuid;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.repository.ProjectRepository;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.repository.TaskRepository.TaskOwnership;
+import produtivity.demo.service.timer.PendingWrite.Started;
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process view of running timers, one per user. Heartbeats only touch
+ * memory; start/stop transitions and heartbeat checkpoints are written to
+ * time_sessions in batches every flush interval, which bounds what a crash
+ * can lose. On startup the registry reloads is_active rows and closes those
+ * whose last checkpoint is older than the stale threshold. Starts and stops
+ * are announced right away as {@link TimerChangedEvent}s for live streams.
+ *
+ * Assumes each user's timer requests are served by a single node.
+ */
+@Component
+// Shut down first, so the sessions written by the final flush still reach the duration accumulator
+@DependsOn("taskDurationAccumulator")
+public class ActiveSessionRegistry implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveSessionRegistry.class);
+
+    private final Map<UUID, ActiveSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<PendingWrite> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ActiveSessionStore store;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final Duration staleAfter;
+    private final int maxPending;
+
+    public ActiveSessionRegistry(ActiveSessionStore store,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TaskRepository taskRepository,
+                                 ProjectRepository projectRepository,
+                                 @Value("${time-sessions.active.stale-after:10m}") Duration staleAfter,
+                                 @Value("${time-sessions.active.max-pending-writes:100000}") int maxPending) {
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.staleAfter = staleAfter;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        recover();
+    }
+
+    public Optional<ActiveSession> current(UUID userId) {
+        return Optional.ofNullable(sessions.get(userId));
+    }
+
+    public Optional<ActiveSession> find(UUID userId, UUID sessionId) {
+        return current(userId).filter(s -> s.sessionId().equals(sessionId));
+    }
+
+    public Collection<ActiveSession> all() {
+        return sessions.values();
+    }
+
+    // Starting a timer stops the user's running one, if any
+    public ActiveSession start(UUID userId, TimerStartRequest request) {
+        if (pendingCount.get() >= maxPending) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Timer writes are backed up, retry shortly");
+        }
+        UUID projectId = resolveProject(userId, request);
+        Instant now = Instant.now();
+        ActiveSession session = new ActiveSession(TimeOrderedUuid.next(), userId, projectId, request.taskId(),
+                ZonedDateTime.now(), request.description(), now, now);
+        AtomicReference<Stopped> replaced = new AtomicReference<>();
+        sessions.compute(userId, (id, previous) -> {
+            if (previous != null) {
+                Stopped stop = stopped(previous, session.startTime());
+                enqueue(stop);
+                replaced.set(stop);
+            }
+            enqueue(new Started(session));
+            return session;
+        });
+        eventPublisher.publishEvent(new TimerChangedEvent(userId, session, replaced.get()));
+        return session;
+    }
+
+    public ActiveSession heartbeat(UUID userId, UUID sessionId) {
+        Instant now = Instant.now();
+        ActiveSession updated = sessions.computeIfPresent(userId,
+                (id, s) -> s.sessionId().equals(sessionId) ? s.withHeartbeat(now) : s);
+        if (updated == null || !updated.sessionId().equals(sessionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No such running timer");
+        }
+        return updated;
+    }
+
+    // Stops the user's timer; sessionId may be null to stop whatever is running
+    public Optional<Stopped> stop(UUID userId, UUID sessionId, ZonedDateTime endTime) {
+        AtomicReference<Stopped> result = new AtomicReference<>();
+        sessions.computeIfPresent(userId, (id, s) -> {
+            if (sessionId != null && !s.sessionId().equals(sessionId)) {
+                return s;
+            }
+            ZonedDateTime end = endTime != null ? endTime : ZonedDateTime.now();
+            if (end.isBefore(s.startTime())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endTime is before startTime");
+            }
+            Stopped stop = stopped(s, end);
+            enqueue(stop);
+            result.set(stop);
+            return null;
+        });
+        if (result.get() != null) {
+            eventPublisher.publishEvent(new TimerChangedEvent(userId, null, result.get()));
+        }
+        return Optional.ofNullable(result.get());
+    }
+
+    @Scheduled(fixedDelayString = "${time-sessions.active.flush-interval:5s}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            reapStale();
+            List<PendingWrite> writes = drain();
+            List<ActiveSession> checkpoints = sessions.values().stream()
+                    .filter(ActiveSession::needsCheckpoint)
+                    .toList();
+            if (writes.isEmpty() && checkpoints.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(writes, checkpoints));
+            } catch (RuntimeException e) {
+                log.warn("Flushing {} timer writes failed, retrying them one by one", writes.size(), e);
+                if (!writeIndividually(writes, checkpoints)) {
+                    return;
+                }
+            }
+            for (ActiveSession checkpointed : checkpoints) {
+                sessions.computeIfPresent(checkpointed.userId(), (id, s) ->
+                        s.sessionId().equals(checkpointed.sessionId()) ? s.withCheckpoint(checkpointed.lastHeartbeat()) : s);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<PendingWrite> writes, List<ActiveSession> checkpoints) {
+        List<Started> started = new ArrayList<>();
+        List<Stopped> stopped = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            if (write instanceof Started s) {
+                started.add(s);
+            } else if (write instanceof Stopped s) {
+                stopped.add(s);
+            }
+        }
+        if (!started.isEmpty()) {
+            store.insertStarted(started);
+        }
+        List<Stopped> applied = stopped.isEmpty() ? List.of() : store.applyStopped(stopped);
+        if (!checkpoints.isEmpty()) {
+            store.checkpoint(checkpoints);
+        }
+
+        List<TimeSessionChange> changes = new ArrayList<>();
+        started.forEach(s -> changes.add(TimeSessionChange.created(s.session().snapshot())));
+        for (Stopped stop : applied) {
+            ActiveSession s = stop.session();
+            changes.add(new TimeSessionChange(s.snapshot(), new TimeSessionSnapshot(s.sessionId(), s.userId(),
+                    s.projectId(), s.taskId(), s.startTime(), stop.endTime(), stop.duration(), false)));
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new TimeSessionsChangedEvent(changes));
+        }
+    }
+
+    /**
+     * Fallback after a failed batch. A write the database rejects on its own,
+     * e.g. a stop for a task deleted in the meantime, is logged and dropped so
+     * it cannot hold back every later flush. Any other failure looks like an
+     * outage: the remaining writes go back to the queue and false is returned.
+     */
+    private boolean writeIndividually(List<PendingWrite> writes, List<ActiveSession> checkpoints) {
+        for (int i = 0; i < writes.size(); i++) {
+            PendingWrite write = writes.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(write), List.of()));
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping {} for timer session {} of user {}, rejected by the database",
+                        write.getClass().getSimpleName(), write.session().sessionId(), write.session().userId(), e);
+            } catch (RuntimeException e) {
+                log.warn("Writing timer sessions failed, will retry {} writes", writes.size() - i, e);
+                requeue(writes.subList(i, writes.size()));
+                return false;
+            }
+        }
+        if (checkpoints.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(), checkpoints));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Checkpointing {} running timers failed, will retry", checkpoints.size(), e);
+            return false;
+        }
+    }
+
+    private void recover() {
+        Instant cutoff = Instant.now().minus(staleAfter);
+        int closed = 0;
+        for (ActiveSession session : store.loadActive()) {
+            if (session.lastHeartbeat().isBefore(cutoff)) {
+                enqueue(stopped(session, session.lastHeartbeat().atZone(session.startTime().getZone())));
+                closed++;
+                continue;
+            }
+            // Rows come ordered by start time, so a later session replaces an earlier one
+            ActiveSession previous = sessions.put(session.userId(), session);
+            if (previous != null) {
+                enqueue(stopped(previous, previous.lastHeartbeat().atZone(previous.startTime().getZone())));
+                closed++;
+            }
+        }
+        log.info("Loaded {} running timers, closed {} stale or duplicate sessions", sessions.size(), closed);
+        flush();
+    }
+
+    // Timers whose client stopped sending heartbeats end at their last heartbeat
+    private void reapStale() {
+        Instant cutoff = Instant.now().minus(staleAfter);
+        for (Iterator<ActiveSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            ActiveSession session = it.next();
+            if (session.lastHeartbeat().isBefore(cutoff) && sessions.remove(session.userId(), session)) {
+                Stopped stop = stopped(session, session.lastHeartbeat().atZone(session.startTime().getZone()));
+                enqueue(stop);
+                eventPublisher.publishEvent(new TimerChangedEvent(session.userId(), null, stop));
+            }
+        }
+    }
+
+    private UUID resolveProject(UUID userId, TimerStartRequest request) {
+        if (request.taskId() != null) {
+            List<TaskOwnership> tasks = taskRepository.findOwnership(userId, List.of(request.taskId()));
+            if (tasks.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+            }
+            UUID taskProject = tasks.get(0).getProjectId();
+            if (request.projectId() != null && !request.projectId().equals(taskProject)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Task does not belong to project");
+            }
+            return taskProject;
+        }
+        if (request.projectId() != null && projectRepository.findOwnedIds(userId, List.of(request.projectId())).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
+        return request.projectId();
+    }
+
+    private static Stopped stopped(ActiveSession session, ZonedDateTime end) {
+        int minutes = (int) Math.max(0, Duration.between(session.startTime(), end).toMinutes());
+        return new Stopped(session, end, minutes);
+    }
+
+    private void enqueue(PendingWrite write) {
+        pending.addLast(write);
+        pendingCount.incrementAndGet();
+    }
+
+    private List<PendingWrite> drain() {
+        List<PendingWrite> writes = new ArrayList<>();
+        PendingWrite write;
+        while ((write = pending.pollFirst()) != null) {
+            pendingCount.decrementAndGet();
+            writes.add(write);
+        }
+        return writes;
+    }
+
+    private void requeue(List<PendingWrite> writes) {
+        for (ListIterator<PendingWrite> it = writes.listIterator(writes.size()); it.hasPrevious(); ) {
+            pending.addFirst(it.previous());
+            pendingCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package produtivity.demo.service.timer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import produtivity.demo.service.timer.PendingWrite.Started;
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// SQL side of the active-session registry. Updates also match on start_time so
+// they are pruned to a single time_sessions partition
+@Component
+class ActiveSessionStore {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO time_sessions (id, user_id, task_id, project_id, start_time, description, is_active, last_heartbeat_at)
+            VALUES (?, ?, ?, ?, ?, ?, true, ?)
+            ON CONFLICT (id, start_time) DO NOTHING
+            """;
+
+    private static final String STOP_SQL = """
+            UPDATE time_sessions
+            SET end_time = ?, duration = ?, is_active = false, last_heartbeat_at = ?
+            WHERE id = ? AND start_time = ? AND is_active
+            """;
+
+    private static final String CHECKPOINT_SQL = """
+            UPDATE time_sessions SET last_heartbeat_at = ? WHERE id = ? AND start_time = ? AND is_active
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ActiveSessionStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    List<ActiveSession> loadActive() {
+        return jdbcTemplate.query("""
+                SELECT id, user_id, project_id, task_id, start_time, description, last_heartbeat_at
+                FROM time_sessions
+                WHERE is_active
+                ORDER BY start_time
+                """, (rs, rowNum) -> {
+            OffsetDateTime heartbeat = rs.getObject("last_heartbeat_at", OffsetDateTime.class);
+            OffsetDateTime start = rs.getObject("start_time", OffsetDateTime.class);
+            Instant lastSeen = heartbeat != null ? heartbeat.toInstant() : start.toInstant();
+            return new ActiveSession(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("user_id", UUID.class),
+                    rs.getObject("project_id", UUID.class),
+                    rs.getObject("task_id", UUID.class),
+                    start.toZonedDateTime(),
+                    rs.getString("description"),
+                    lastSeen,
+                    lastSeen);
+        });
+    }
+
+    void insertStarted(List<Started> started) {
+        List<Object[]> rows = new ArrayList<>(started.size());
+        for (Started write : started) {
+            ActiveSession s = write.session();
+            rows.add(new Object[]{s.sessionId(), s.userId(), s.taskId(), s.projectId(),
+                    s.startTime().toOffsetDateTime(), s.description(), utc(s.lastHeartbeat())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, new int[]{Types.OTHER, Types.OTHER, Types.OTHER, Types.OTHER,
+                Types.TIMESTAMP_WITH_TIMEZONE, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE});
+    }
+
+    // Returns the stops that actually closed a row; others were already closed elsewhere
+    List<Stopped> applyStopped(List<Stopped> stopped) {
+        List<Object[]> rows = new ArrayList<>(stopped.size());
+        for (Stopped write : stopped) {
+            rows.add(new Object[]{write.endTime().toOffsetDateTime(), write.duration(),
+                    utc(write.session().lastHeartbeat()), write.session().sessionId(),
+                    write.session().startTime().toOffsetDateTime()});
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(STOP_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setObject(1, row[0], Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setInt(2, (Integer) row[1]);
+            ps.setObject(3, row[2], Types.TIMESTAMP_WITH_TIMEZONE);
+            ps.setObject(4, row[3], Types.OTHER);
+            ps.setObject(5, row[4], Types.TIMESTAMP_WITH_TIMEZONE);
+        });
+        List<Stopped> applied = new ArrayList<>(stopped.size());
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    applied.add(stopped.get(index));
+                }
+                index++;
+            }
+        }
+        return applied;
+    }
+
+    void checkpoint(List<ActiveSession> sessions) {
+        List<Object[]> rows = sessions.stream()
+                .map(s -> new Object[]{utc(s.lastHeartbeat()), s.sessionId(), s.startTime().toOffsetDateTime()})
+                .toList();
+        jdbcTemplate.batchUpdate(CHECKPOINT_SQL, rows,
+                new int[]{Types.TIMESTAMP_WITH_TIMEZONE, Types.OTHER, Types.TIMESTAMP_WITH_TIMEZONE});
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
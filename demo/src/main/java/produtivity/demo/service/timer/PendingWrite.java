@@ -0,0 +1,15 @@
+package produtivity.demo.service.timer;
+
+import java.time.ZonedDateTime;
+
+// Timer transitions waiting to be flushed to time_sessions, in the order they happened
+public sealed interface PendingWrite {
+    
+    ActiveSession session();
+    
+    record Started(ActiveSession session) implements PendingWrite {
+    }
+    
+    record Stopped(ActiveSession session, ZonedDateTime endTime, int duration) implements PendingWrite {
+    }
+}
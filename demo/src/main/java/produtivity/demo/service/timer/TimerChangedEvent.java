@@ -0,0 +1,14 @@
+package produtivity.demo.service.timer;
+
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+
+import java.util.UUID;
+
+/**
+ * Published by {@link ActiveSessionRegistry} as soon as a user's timer
+ * starts or stops in memory, ahead of the batched write. {@code started} is
+ * null when a timer was only stopped; {@code stopped} is null unless a
+ * running timer ended, including one replaced by a new start.
+ */
+public record TimerChangedEvent(UUID userId, ActiveSession started, Stopped stopped) {
+}
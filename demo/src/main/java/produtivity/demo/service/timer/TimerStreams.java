@@ -0,0 +1,386 @@
+package produtivity.demo.service.timer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import produtivity.demo.dto.ActiveSessionView;
+import produtivity.demo.dto.TimeSessionView;
+import produtivity.demo.dto.TimerSnapshot;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Server-sent event streams of each user's running timer.
+ *
+ * Subscribers get a snapshot, then started and stopped events as
+ * {@link ActiveSessionRegistry} announces them. One shared ticker sends every
+ * subscriber a tick with the elapsed time, or a heartbeat comment when no
+ * timer runs; a subscriber that received anything within the last half
+ * interval is skipped, so ticks and heartbeats coalesce with real events.
+ *
+ * Started and stopped events carry ids of the form incarnation-sequence and
+ * are kept per user for resume-window. A reconnect with Last-Event-ID gets
+ * the events it missed, or a fresh snapshot when they are no longer known,
+ * e.g. after a restart.
+ *
+ * Frames are queued per subscriber and written on virtual threads, one
+ * writer per subscriber at a time; a subscriber whose queue exceeds
+ * max-queued-events is closed and left to reconnect.
+ */
+@Component
+public class TimerStreams {
+
+    private static final String INCARNATION = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ActiveSessionRegistry registry;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Cache<UUID, EventLog> logs;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter rejectedForNode;
+    private final Counter rejectedForUser;
+    private final Counter dropped;
+    private final int maxSubscribers;
+    private final int maxPerUser;
+    private final int resumeBuffer;
+    private final int maxQueued;
+    private final Duration timeout;
+    private final long coalesceNanos;
+
+    public TimerStreams(ActiveSessionRegistry registry,
+                        MeterRegistry meterRegistry,
+                        @Value("${timers.stream.max-subscribers:20000}") int maxSubscribers,
+                        @Value("${timers.stream.max-per-user:10}") int maxPerUser,
+                        @Value("${timers.stream.tick-interval:15s}") Duration tickInterval,
+                        @Value("${timers.stream.timeout:30m}") Duration timeout,
+                        @Value("${timers.stream.resume-window:5m}") Duration resumeWindow,
+                        @Value("${timers.stream.resume-buffer:16}") int resumeBuffer,
+                        @Value("${timers.stream.max-queued-events:32}") int maxQueued) {
+        this.registry = registry;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerUser = maxPerUser;
+        this.resumeBuffer = resumeBuffer;
+        this.maxQueued = maxQueued;
+        this.timeout = timeout;
+        this.coalesceNanos = tickInterval.toNanos() / 2;
+        this.logs = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(resumeWindow)
+                .build();
+        Gauge.builder("timers.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open running-timer event streams")
+                .register(meterRegistry);
+        this.rejectedForNode = rejected(meterRegistry, "node-limit");
+        this.rejectedForUser = rejected(meterRegistry, "user-limit");
+        this.dropped = Counter.builder("timers.stream.dropped")
+                .description("Timer streams closed because the client fell too far behind")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            rejectedForNode.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open timer streams");
+        }
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeout.toMillis()));
+        AtomicBoolean admitted = new AtomicBoolean();
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxPerUser) {
+                set.add(subscriber);
+                admitted.set(true);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!admitted.get()) {
+            subscriberCount.decrementAndGet();
+            rejectedForUser.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open timer streams for this user");
+        }
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Registered before reading state, so an event in between is delivered twice rather than lost
+        List<Frame> missed = missedSince(userId, lastEventId);
+        if (missed != null) {
+            missed.forEach(subscriber::offer);
+        } else {
+            subscriber.offer(snapshot(userId));
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onTimerChanged(TimerChangedEvent event) {
+        long before = sequence.get();
+        List<Frame> frames = new ArrayList<>(2);
+        if (event.stopped() != null) {
+            frames.add(new Frame(nextId(), "stopped", TimeSessionView.of(event.stopped())));
+        }
+        if (event.started() != null) {
+            frames.add(new Frame(nextId(), "started", ActiveSessionView.of(event.started(), Instant.now())));
+        }
+        logs.get(event.userId(), id -> new EventLog(before)).append(frames, resumeBuffer);
+        Set<Subscriber> set = subscribers.get(event.userId());
+        if (set != null) {
+            for (Subscriber subscriber : set) {
+                frames.forEach(subscriber::offer);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${timers.stream.tick-interval:15s}")
+    public void tick() {
+        long now = System.nanoTime();
+        Instant at = Instant.now();
+        subscribers.forEach((userId, set) -> {
+            Frame frame = registry.current(userId)
+                    .map(session -> new Frame(null, "tick", ActiveSessionView.of(session, at)))
+                    .orElse(Frame.HEARTBEAT);
+            for (Subscriber subscriber : set) {
+                if (subscriber.queued.get() == 0 && now - subscriber.lastSent >= coalesceNanos) {
+                    subscriber.offer(frame);
+                }
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        writers.shutdownNow();
+    }
+
+    private Frame snapshot(UUID userId) {
+        TimerSnapshot snapshot = new TimerSnapshot(registry.current(userId)
+                .map(session -> ActiveSessionView.of(session, Instant.now()))
+                .orElse(null));
+        return new Frame(INCARNATION + "-" + sequence.get(), "snapshot", snapshot);
+    }
+
+    // Null when the stream cannot be resumed exactly and needs a snapshot
+    private List<Frame> missedSince(UUID userId, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        if (after < 0) {
+            return null;
+        }
+        EventLog log = logs.getIfPresent(userId);
+        if (log == null) {
+            // No transitions within the window; nothing was missed if the id is recent enough
+            return after >= sequence.get() ? List.of() : null;
+        }
+        return log.since(after);
+    }
+
+    static long parseSequence(String lastEventId) {
+        if (lastEventId == null) {
+            return -1;
+        }
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash <= 0 || !lastEventId.substring(0, dash).equals(INCARNATION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String nextId() {
+        return INCARNATION + "-" + sequence.incrementAndGet();
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("timers.stream.rejected")
+                .description("Timer stream subscriptions refused by the connection limits")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record Frame(String id, String name, Object data) {
+
+        static final Frame HEARTBEAT = new Frame(null, null, null);
+
+        long sequence() {
+            return Long.parseLong(id.substring(id.lastIndexOf('-') + 1));
+        }
+    }
+
+    /**
+     * A user's recent started and stopped events. Events up to truncatedAt
+     * were dropped from the buffer or predate it, so only ids at or past it
+     * can be resumed.
+     */
+    private static final class EventLog {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+        private long truncatedAt;
+
+        EventLog(long createdAt) {
+            this.truncatedAt = createdAt;
+        }
+
+        void append(List<Frame> added, int capacity) {
+            lock.lock();
+            try {
+                for (Frame frame : added) {
+                    frames.addLast(frame);
+                    if (frames.size() > capacity) {
+                        truncatedAt = frames.removeFirst().sequence();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<Frame> since(long after) {
+            lock.lock();
+            try {
+                if (after < truncatedAt) {
+                    return null;
+                }
+                List<Frame> missed = new ArrayList<>();
+                for (Frame frame : frames) {
+                    if (frame.sequence() > after) {
+                        missed.add(frame);
+                    }
+                }
+                return missed;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final class Subscriber {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final ConcurrentLinkedQueue<Frame> frames = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private final AtomicBoolean detached = new AtomicBoolean();
+        private volatile long lastSent = System.nanoTime();
+
+        Subscriber(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Frame frame) {
+            if (detached.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                dropped.increment();
+                close();
+                return;
+            }
+            frames.add(frame);
+            schedule();
+        }
+
+        private void schedule() {
+            if (writing.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::write);
+                } catch (RuntimeException e) {
+                    writing.set(false);
+                    close();
+                }
+            }
+        }
+
+        private void write() {
+            try {
+                Frame frame;
+                while (!detached.get() && (frame = frames.poll()) != null) {
+                    queued.decrementAndGet();
+                    send(frame);
+                    lastSent = System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                writing.set(false);
+            }
+            // A frame offered after the last poll but before writing was cleared
+            if (!frames.isEmpty() && !detached.get()) {
+                schedule();
+            }
+        }
+
+        private void send(Frame frame) throws IOException {
+            if (frame.name() == null) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(frame.name())
+                    .data(frame.data(), MediaType.APPLICATION_JSON);
+            if (frame.id() != null) {
+                event.id(frame.id());
+            }
+            emitter.send(event);
+        }
+
+        void close() {
+            if (detach()) {
+                try {
+                    emitter.complete();
+                } catch (RuntimeException e) {
+                    // The response is already gone
+                }
+            }
+        }
+
+        boolean detach() {
+            if (!detached.compareAndSet(false, true)) {
+                return false;
+            }
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(userId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            return true;
+        }
+    }
+}
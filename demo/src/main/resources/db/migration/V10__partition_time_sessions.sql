@@ -0,0 +1,73 @@
+-- Range-partitions time_sessions by month of start_time (UTC month boundaries).
+-- Partitioned tables can only enforce uniqueness that includes the partition
+-- key, so the primary key becomes (id, start_time); writers that may see an id
+-- again with a different start_time check for the id before inserting.
+-- Future partitions are created by TimeSessionPartitionMaintainer; rows outside
+-- every monthly partition land in time_sessions_default until one is created.
+-- Existing rows are copied, so this migration needs a maintenance window on
+-- large databases.
+
+ALTER TABLE time_sessions RENAME TO time_sessions_unpartitioned;
+ALTER TABLE time_sessions_unpartitioned RENAME CONSTRAINT time_sessions_pkey TO time_sessions_unpartitioned_pkey;
+DROP TRIGGER IF EXISTS update_time_sessions_updated_at ON time_sessions_unpartitioned;
+DROP INDEX IF EXISTS idx_time_sessions_user_id;
+DROP INDEX IF EXISTS idx_time_sessions_task_id;
+DROP INDEX IF EXISTS idx_time_sessions_start_time;
+DROP INDEX IF EXISTS idx_time_sessions_active;
+DROP INDEX IF EXISTS idx_time_sessions_user_start;
+
+CREATE TABLE time_sessions (
+    id UUID NOT NULL DEFAULT uuid_generate_v7(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    task_id UUID REFERENCES tasks(id) ON DELETE CASCADE,
+    project_id UUID REFERENCES projects(id) ON DELETE CASCADE,
+    start_time TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_time TIMESTAMP WITH TIME ZONE,
+    duration INTEGER, -- in minutes
+    description TEXT,
+    is_active BOOLEAN DEFAULT false,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    last_heartbeat_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+
+-- Range scans per user, exports and rollup rebuilds; user_id alone is its prefix
+CREATE INDEX idx_time_sessions_user_start ON time_sessions(user_id, start_time, id);
+CREATE INDEX idx_time_sessions_task_id ON time_sessions(task_id);
+CREATE INDEX idx_time_sessions_active ON time_sessions(user_id) WHERE is_active;
+
+CREATE TABLE time_sessions_default PARTITION OF time_sessions DEFAULT;
+
+-- One partition per month from the oldest session (at most ten years back) to three months ahead
+DO $$
+DECLARE
+    current_month DATE := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    oldest_month DATE;
+    month DATE;
+BEGIN
+    SELECT date_trunc('month', min(start_time) AT TIME ZONE 'UTC')::date INTO oldest_month
+    FROM time_sessions_unpartitioned;
+    month := GREATEST(LEAST(COALESCE(oldest_month, current_month), current_month),
+                      (current_month - INTERVAL '120 months')::date);
+    WHILE month <= (current_month + INTERVAL '3 months')::date LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF time_sessions FOR VALUES FROM (%L) TO (%L)',
+                       'time_sessions_p' || to_char(month, 'YYYY_MM'),
+                       month::timestamp AT TIME ZONE 'UTC',
+                       (month + INTERVAL '1 month')::timestamp AT TIME ZONE 'UTC');
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO time_sessions (id, user_id, task_id, project_id, start_time, end_time, duration, description,
+                           is_active, created_at, updated_at, last_heartbeat_at)
+SELECT id, user_id, task_id, project_id, start_time, end_time, duration, description,
+       is_active, created_at, updated_at, last_heartbeat_at
+FROM time_sessions_unpartitioned;
+
+DROP TABLE time_sessions_unpartitioned;
+
+CREATE TRIGGER update_time_sessions_updated_at BEFORE UPDATE ON time_sessions
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
+
+ANALYZE time_sessions;
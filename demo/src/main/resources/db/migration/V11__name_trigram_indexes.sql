@@ -0,0 +1,8 @@
+-- Trigram indexes behind tag and project autocomplete. They serve substring
+-- (ILIKE '%x%') and similarity (%) matches on the names; the user_id filter
+-- comes from the existing user indexes and is combined in a bitmap AND.
+-- Substring matches need at least three characters to use them.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_tags_name_trgm ON tags USING gin (name gin_trgm_ops);
+CREATE INDEX idx_projects_name_trgm ON projects USING gin (name gin_trgm_ops);
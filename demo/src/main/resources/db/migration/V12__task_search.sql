@@ -0,0 +1,13 @@
+-- Full-text search over task titles (weight A) and descriptions (weight B).
+-- The stored generated column is recomputed by PostgreSQL on every write, so
+-- the index never lags the text. Adding it rewrites tasks once.
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+ALTER TABLE tasks ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english'::regconfig, coalesce(description, '')), 'B')
+) STORED;
+
+-- Searches are scoped to one user's projects; leading with project_id lets a
+-- search match within those projects instead of across every user's tasks
+CREATE INDEX idx_tasks_project_search ON tasks USING gin (project_id, search_vector);
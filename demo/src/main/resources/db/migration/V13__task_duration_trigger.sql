@@ -0,0 +1,10 @@
+-- actual_duration is maintained in batches by the task duration accumulator.
+-- Those writes should not count as edits, so updated_at is only bumped when
+-- some other column is set.
+DROP TRIGGER IF EXISTS update_tasks_updated_at ON tasks;
+
+CREATE TRIGGER update_tasks_updated_at
+    BEFORE UPDATE OF project_id, category_id, title, description, priority, status,
+                     due_date, estimated_duration, position
+    ON tasks
+    FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
@@ -0,0 +1,21 @@
+-- TASK_COUNT goals count a task on the day it was completed. Reopening it must
+-- take the count back from that day, not the day of the reopen, so the
+-- completion time is kept on the task. Existing completions fall back to
+-- their last edit.
+ALTER TABLE tasks ADD COLUMN completed_at TIMESTAMP WITH TIME ZONE;
+
+UPDATE tasks SET completed_at = updated_at WHERE status = 'COMPLETED';
+
+-- TIME_SPENT progress is kept in minutes, which is what the engine always
+-- added. Goals set in hours get their target converted, and new ones must be
+-- stated in minutes. Their progress is not recounted here: on databases that
+-- predate the daily rollups those are only filled at startup, which recounts
+-- active goals once they are.
+UPDATE goals SET target_value = target_value * 60
+WHERE goal_type = 'TIME_SPENT' AND unit = 'hours';
+
+UPDATE goals SET unit = 'minutes'
+WHERE goal_type = 'TIME_SPENT' AND unit IS DISTINCT FROM 'minutes';
+
+ALTER TABLE goals ADD CONSTRAINT goals_time_spent_unit_check
+    CHECK (goal_type <> 'TIME_SPENT' OR unit = 'minutes');
@@ -0,0 +1,17 @@
+-- Per-day totals of tracked time, bucketed in the owning user's timezone.
+-- Maintained incrementally by the application; rebuildable from time_sessions.
+-- (Versions start at 2: baseline-on-migrate marks existing init.sql databases as version 1.)
+CREATE TABLE time_session_daily_rollups (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    project_id UUID REFERENCES projects(id) ON DELETE CASCADE,
+    task_id UUID REFERENCES tasks(id) ON DELETE CASCADE,
+    bucket_date DATE NOT NULL,
+    total_minutes BIGINT NOT NULL DEFAULT 0,
+    session_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_time_session_daily_rollups_bucket
+        UNIQUE NULLS NOT DISTINCT (user_id, bucket_date, project_id, task_id)
+);
+
+CREATE INDEX idx_time_session_daily_rollups_project ON time_session_daily_rollups(project_id, bucket_date);
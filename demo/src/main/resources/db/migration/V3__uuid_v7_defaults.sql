@@ -0,0 +1,28 @@
+-- Time-ordered UUIDv7 ids for rows inserted outside Hibernate (bulk SQL, psql, triggers).
+-- Overlays the 48-bit Unix millisecond timestamp onto a random v4 uuid and sets the version nibble to 7.
+CREATE OR REPLACE FUNCTION uuid_generate_v7()
+RETURNS uuid
+LANGUAGE sql
+VOLATILE
+AS $$
+    SELECT encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                        FROM 1 FOR 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid
+$$;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE projects ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE categories ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE time_sessions ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE goals ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE file_attachments ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE tags ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE user_preferences ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE time_session_daily_rollups ALTER COLUMN id SET DEFAULT uuid_generate_v7();
@@ -0,0 +1,5 @@
+-- Last heartbeat checkpoint of a running timer, written by the active-session registry.
+-- Used on restart to close timers whose client went away.
+ALTER TABLE time_sessions ADD COLUMN last_heartbeat_at TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX idx_time_sessions_active ON time_sessions(user_id) WHERE is_active;
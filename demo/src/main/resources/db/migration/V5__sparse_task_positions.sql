@@ -0,0 +1,13 @@
+-- Task order keys become sparse so a move rewrites only the moved row.
+-- Existing tasks are spread 2^20 apart in their current order.
+ALTER TABLE tasks ALTER COLUMN position TYPE BIGINT;
+
+UPDATE tasks t
+SET position = ranked.rn * 1048576
+FROM (
+    SELECT id, row_number() OVER (PARTITION BY project_id ORDER BY position, created_at, id) AS rn
+    FROM tasks
+) ranked
+WHERE t.id = ranked.id;
+
+CREATE INDEX idx_tasks_project_position ON tasks(project_id, position, id);
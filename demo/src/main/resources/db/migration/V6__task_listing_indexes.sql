@@ -0,0 +1,7 @@
+-- Composite indexes behind the keyset-paginated task listing. Each one serves
+-- both the filter and the (sort key, id) order, so a page is a bounded range
+-- scan that starts at the cursor whatever the page number.
+CREATE INDEX idx_tasks_project_status_position ON tasks(project_id, status, position, id);
+CREATE INDEX idx_tasks_project_due_date ON tasks(project_id, due_date, id) WHERE due_date IS NOT NULL;
+CREATE INDEX idx_tasks_category_id ON tasks(category_id) WHERE category_id IS NOT NULL;
+CREATE INDEX idx_task_tags_tag_id ON task_tags(tag_id, task_id);
@@ -0,0 +1,2 @@
+-- Bumped by every write to a user's preferences; served as the ETag of the preference set.
+ALTER TABLE users ADD COLUMN preferences_version BIGINT NOT NULL DEFAULT 0;
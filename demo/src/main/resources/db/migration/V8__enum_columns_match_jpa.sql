@@ -0,0 +1,25 @@
+-- JPA persists enums by name (TODO, IN_PROGRESS, ...) while init.sql constrained
+-- and defaulted these columns to lowercase values, so entity writes failed the
+-- CHECKs and rows created with the defaults could not be read back.
+ALTER TABLE projects DROP CONSTRAINT IF EXISTS projects_status_check;
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_priority_check;
+ALTER TABLE tasks DROP CONSTRAINT IF EXISTS tasks_status_check;
+ALTER TABLE goals DROP CONSTRAINT IF EXISTS goals_goal_type_check;
+ALTER TABLE goals DROP CONSTRAINT IF EXISTS goals_status_check;
+
+UPDATE projects SET status = upper(status) WHERE status <> upper(status);
+UPDATE tasks SET priority = upper(priority) WHERE priority <> upper(priority);
+UPDATE tasks SET status = upper(status) WHERE status <> upper(status);
+UPDATE goals SET goal_type = upper(goal_type) WHERE goal_type <> upper(goal_type);
+UPDATE goals SET status = upper(status) WHERE status <> upper(status);
+
+ALTER TABLE projects ALTER COLUMN status SET DEFAULT 'ACTIVE',
+    ADD CONSTRAINT projects_status_check CHECK (status IN ('ACTIVE', 'COMPLETED', 'PAUSED', 'ARCHIVED'));
+ALTER TABLE tasks ALTER COLUMN priority SET DEFAULT 'MEDIUM',
+    ALTER COLUMN status SET DEFAULT 'TODO',
+    ADD CONSTRAINT tasks_priority_check CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'URGENT')),
+    ADD CONSTRAINT tasks_status_check CHECK (status IN ('TODO', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED'));
+ALTER TABLE goals ALTER COLUMN goal_type SET DEFAULT 'TASK_COUNT',
+    ALTER COLUMN status SET DEFAULT 'ACTIVE',
+    ADD CONSTRAINT goals_goal_type_check CHECK (goal_type IN ('TASK_COUNT', 'TIME_SPENT', 'PROJECT_COMPLETION')),
+    ADD CONSTRAINT goals_status_check CHECK (status IN ('ACTIVE', 'COMPLETED', 'FAILED', 'PAUSED'));
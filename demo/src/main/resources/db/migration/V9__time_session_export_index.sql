@@ -0,0 +1,3 @@
+-- Exports and range scans read a user's sessions in start order; this index
+-- lets the export cursor stream rows without sorting the whole history first.
+CREATE INDEX idx_time_sessions_user_start ON time_sessions(user_id, start_time, id);
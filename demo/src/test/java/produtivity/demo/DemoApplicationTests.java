@@ -1,8 +1,11 @@
 package produtivity.demo;
 
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
+// Boots the full context, which migrates and connects to PostgreSQL
+@Tag("database")
 @SpringBootTest
 class DemoApplicationTests {
 
@@ -0,0 +1,164 @@
+package produtivity.demo.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import produtivity.demo.DemoApplication;
+import produtivity.demo.security.JwtTokenProvider;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the dashboard endpoint while a storm of logins hits
+ * /auth/login. Dashboard latency is measured alone first and then with the
+ * storm running; with hashing confined to its pool, the storm should mostly
+ * show up as 429s on the login side rather than as dashboard latency.
+ */
+@Tag("benchmark")
+class LoginStormBenchmark {
+
+    private static final int DASHBOARD_CLIENTS = 50;
+    private static final int LOGIN_CLIENTS = 400;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+    private static final String PASSWORD = "correct horse battery staple";
+
+    // A storm may slow the dashboard somewhat, but not by an order of magnitude
+    private static final double MAX_P99_SLOWDOWN = 3.0;
+
+    @Test
+    void dashboardStaysResponsiveDuringLoginStorm() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=true",
+                        "time-sessions.rollups.backfill-on-startup=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            UUID userId = UUID.randomUUID();
+            String username = "storm-" + userId;
+            jdbcTemplate.update("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, ?)",
+                    userId, username, userId + "@storm.local", new BCryptPasswordEncoder().encode(PASSWORD));
+            try {
+                String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                String token = context.getBean(JwtTokenProvider.class).issue(userId, username, List.of());
+                HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+                HttpRequest dashboard = HttpRequest.newBuilder(URI.create(base + "/api/users/" + userId + "/dashboard"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build();
+                HttpRequest login = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"login\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+                        .build();
+
+                Result quiet = drive(client, dashboard, DASHBOARD_CLIENTS, null, 0);
+                Map<Integer, AtomicInteger> loginStatuses = new ConcurrentHashMap<>();
+                Result storm = drive(client, dashboard, DASHBOARD_CLIENTS, login, LOGIN_CLIENTS, loginStatuses);
+
+                System.out.printf("quiet  %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  errors %d%n",
+                        quiet.requestsPerSecond(), quiet.p50Millis(), quiet.p99Millis(), quiet.errors());
+                System.out.printf("storm  %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  errors %d%n",
+                        storm.requestsPerSecond(), storm.p50Millis(), storm.p99Millis(), storm.errors());
+                System.out.println("login statuses " + loginStatuses);
+
+                assertThat(storm.completed()).isPositive();
+                assertThat(storm.errors()).isZero();
+                assertThat(loginStatuses).containsKey(200);
+                assertThat(storm.p99Millis()).isLessThan(Math.max(quiet.p99Millis() * MAX_P99_SLOWDOWN, 50));
+            } finally {
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+            }
+        }
+    }
+
+    private static Result drive(HttpClient client, HttpRequest measured, int measuredClients,
+                                HttpRequest background, int backgroundClients) throws InterruptedException {
+        return drive(client, measured, measuredClients, background, backgroundClients, new ConcurrentHashMap<>());
+    }
+
+    private static Result drive(HttpClient client, HttpRequest measured, int measuredClients,
+                                HttpRequest background, int backgroundClients,
+                                Map<Integer, AtomicInteger> backgroundStatuses) throws InterruptedException {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long stopAt = measureFrom + MEASURE.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < backgroundClients; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < stopAt) {
+                        int status;
+                        try {
+                            status = client.send(background, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        backgroundStatuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            for (int i = 0; i < measuredClients; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < stopAt) {
+                        long begin = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(measured, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (begin < measureFrom) {
+                            continue;
+                        }
+                        if (ok) {
+                            latencies.add(System.nanoTime() - begin);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return new Result(0, 0, 0, 0, errors.get());
+        }
+        return new Result(sorted.length,
+                sorted.length / (MEASURE.toNanos() / 1_000_000_000.0),
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0,
+                errors.get());
+    }
+
+    private record Result(int completed, double requestsPerSecond, double p50Millis, double p99Millis, int errors) {
+    }
+}
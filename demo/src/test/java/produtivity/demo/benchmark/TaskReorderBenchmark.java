@@ -0,0 +1,167 @@
+package produtivity.demo.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.dto.TaskMoveResult;
+import produtivity.demo.service.ordering.TaskPositions;
+import produtivity.demo.service.ordering.TaskReorderService;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent drag-and-drop moves in a 10k-task project: sparse keys (one row
+ * per move) against renumbering every following task of a dense ordering.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TaskReorderBenchmark {
+
+    private static final int TASKS = 10_000;
+    private static final int THREADS = 8;
+    private static final int MOVES_PER_THREAD = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskReorderService taskReorderService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void seedUser() {
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, 'x')",
+                userId, "bench-" + userId, userId + "@bench.local");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void sparseKeysVersusDenseRenumbering() throws Exception {
+        List<UUID> sparse = seedProject(TaskPositions.GAP);
+        List<UUID> dense = seedProject(1);
+
+        AtomicInteger respreads = new AtomicInteger();
+        Result sparseResult = run(() -> {
+            UUID task = pick(sparse);
+            UUID after = pick(sparse);
+            if (task.equals(after)) {
+                return;
+            }
+            TaskMoveResult result = taskReorderService.move(userId, task, after);
+            if (result.respread()) {
+                respreads.incrementAndGet();
+            }
+        });
+
+        UUID denseProject = projectOf(dense.get(0));
+        Result denseResult = run(() -> {
+            UUID task = pick(dense);
+            int target = ThreadLocalRandom.current().nextInt(1, TASKS + 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("UPDATE tasks SET position = position + 1 WHERE project_id = ? AND position >= ?",
+                        denseProject, target);
+                jdbcTemplate.update("UPDATE tasks SET position = ? WHERE id = ?", target, task);
+            });
+        });
+
+        System.out.printf("sparse: %.0f moves/s, p50 %.2f ms, p95 %.2f ms, %d failed, %d respreads%n",
+                sparseResult.movesPerSecond(), sparseResult.p50Millis(), sparseResult.p95Millis(),
+                sparseResult.failures(), respreads.get());
+        System.out.printf("dense:  %.0f moves/s, p50 %.2f ms, p95 %.2f ms, %d failed%n",
+                denseResult.movesPerSecond(), denseResult.p50Millis(), denseResult.p95Millis(),
+                denseResult.failures());
+
+        assertThat(sparseResult.failures()).isZero();
+        assertThat(sparseResult.movesPerSecond()).isGreaterThan(denseResult.movesPerSecond());
+    }
+
+    private List<UUID> seedProject(long step) {
+        UUID projectId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO projects (id, user_id, name) VALUES (?, ?, 'Reorder benchmark')",
+                projectId, userId);
+        List<UUID> ids = new ArrayList<>(TASKS);
+        List<Object[]> rows = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            rows.add(new Object[]{id, projectId, "Task " + i, (i + 1) * step});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, project_id, title, position) VALUES (?, ?, ?, ?)",
+                rows, new int[]{Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BIGINT});
+        jdbcTemplate.execute("ANALYZE tasks");
+        return ids;
+    }
+
+    private UUID projectOf(UUID taskId) {
+        return jdbcTemplate.queryForObject("SELECT project_id FROM tasks WHERE id = ?", UUID.class, taskId);
+    }
+
+    private static UUID pick(List<UUID> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private Result run(Runnable move) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long[] latencies = new long[THREADS * MOVES_PER_THREAD];
+        AtomicInteger failures = new AtomicInteger();
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * MOVES_PER_THREAD;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < MOVES_PER_THREAD; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            move.run();
+                        } catch (DataAccessException e) {
+                            // Deadlocks between overlapping renumbers
+                            failures.incrementAndGet();
+                        }
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        Arrays.sort(latencies);
+        return new Result(latencies.length / seconds,
+                latencies[latencies.length / 2] / 1_000_000.0,
+                latencies[(int) (latencies.length * 0.95)] / 1_000_000.0,
+                failures.get());
+    }
+
+    private record Result(double movesPerSecond, double p50Millis, double p95Millis, int failures) {
+    }
+}
@@ -0,0 +1,158 @@
+package produtivity.demo.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import produtivity.demo.dto.TaskSearchPage;
+import produtivity.demo.service.ordering.TaskPositions;
+import produtivity.demo.service.query.TaskSearchService;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search latency over 1M tasks spread across many users: first pages and the
+ * keyset page after them, for single words and two-word queries.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TaskSearchBenchmark {
+
+    private static final int USERS = 200;
+    private static final int PROJECTS_PER_USER = 5;
+    private static final int TASKS_PER_USER = 5_000;
+    private static final int SEARCHES = 1_000;
+    private static final int BATCH_SIZE = 5_000;
+    private static final double P95_BUDGET_MILLIS = 50;
+
+    private static final String[] WORDS = {
+            "invoice", "release", "review", "design", "migration", "report", "budget", "customer", "deploy",
+            "meeting", "roadmap", "onboarding", "refactor", "dashboard", "analytics", "backup", "security",
+            "audit", "hiring", "contract", "newsletter", "research", "prototype", "feedback", "planning",
+            "database", "payment", "support", "marketing", "training", "interview", "schedule", "document",
+            "license", "vendor", "inventory", "forecast", "quarterly", "workshop", "sprint"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    private final Random random = new Random(42);
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> projects = new ArrayList<>();
+        List<Object[]> tasks = new ArrayList<>(BATCH_SIZE);
+        for (int u = 0; u < USERS; u++) {
+            UUID userId = UUID.randomUUID();
+            userIds.add(userId);
+            users.add(new Object[]{userId, "search-" + userId, userId + "@search.local"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, 'x')",
+                users, new int[]{Types.OTHER, Types.VARCHAR, Types.VARCHAR});
+        for (UUID userId : userIds) {
+            UUID[] projectIds = new UUID[PROJECTS_PER_USER];
+            for (int p = 0; p < PROJECTS_PER_USER; p++) {
+                projectIds[p] = UUID.randomUUID();
+                projects.add(new Object[]{projectIds[p], userId, "Project " + p});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO projects (id, user_id, name) VALUES (?, ?, ?)",
+                    projects, new int[]{Types.OTHER, Types.OTHER, Types.VARCHAR});
+            projects.clear();
+            for (int i = 0; i < TASKS_PER_USER; i++) {
+                tasks.add(new Object[]{UUID.randomUUID(), projectIds[i % PROJECTS_PER_USER], sentence(4),
+                        i % 4 == 0 ? null : sentence(40), TaskPositions.spread(i)});
+                if (tasks.size() == BATCH_SIZE) {
+                    insertTasks(tasks);
+                }
+            }
+        }
+        insertTasks(tasks);
+        jdbcTemplate.execute("ANALYZE projects");
+        jdbcTemplate.execute("ANALYZE tasks");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.batchUpdate("DELETE FROM users WHERE id = ?",
+                userIds.stream().map(id -> new Object[]{id}).toList(), new int[]{Types.OTHER});
+    }
+
+    @Test
+    void searchLatencyOverAMillionTasks() {
+        long[] firstPages = new long[SEARCHES];
+        long[] nextPages = new long[SEARCHES];
+        int hits = 0;
+        for (int i = 0; i < SEARCHES; i++) {
+            UUID userId = userIds.get(random.nextInt(userIds.size()));
+            String query = i % 2 == 0 ? word() : word() + " " + word();
+
+            long begin = System.nanoTime();
+            TaskSearchPage first = taskSearchService.search(userId, query, null, 20);
+            firstPages[i] = System.nanoTime() - begin;
+            hits += first.items().size();
+
+            begin = System.nanoTime();
+            if (first.nextCursor() != null) {
+                taskSearchService.search(userId, query, first.nextCursor(), 20);
+            }
+            nextPages[i] = System.nanoTime() - begin;
+        }
+
+        double firstP95 = p95Millis(firstPages);
+        double nextP95 = p95Millis(nextPages);
+        System.out.printf("task search over %d tasks: first page p50 %.2f ms, p95 %.2f ms; next page p95 %.2f ms%n",
+                USERS * TASKS_PER_USER, percentileMillis(firstPages, 0.5), firstP95, nextP95);
+        assertThat(hits).isPositive();
+        assertThat(firstP95).isLessThan(P95_BUDGET_MILLIS);
+        assertThat(nextP95).isLessThan(P95_BUDGET_MILLIS);
+    }
+
+    private void insertTasks(List<Object[]> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, project_id, title, description, position) VALUES (?, ?, ?, ?, ?)",
+                tasks, new int[]{Types.OTHER, Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.BIGINT});
+        tasks.clear();
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            // Mostly filler so each vocabulary word matches a few percent of a user's tasks
+            sentence.append(random.nextInt(8) == 0 ? word() : "item" + random.nextInt(50_000));
+        }
+        return sentence.toString();
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static double p95Millis(long[] latencies) {
+        return percentileMillis(latencies, 0.95);
+    }
+
+    private static double percentileMillis(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (sorted.length * percentile)] / 1_000_000.0;
+    }
+}
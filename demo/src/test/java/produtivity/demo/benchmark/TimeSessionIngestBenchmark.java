@@ -0,0 +1,122 @@
+package produtivity.demo.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.dto.TimeSessionIngestResult;
+import produtivity.demo.dto.TimeSessionIngestRow;
+import produtivity.demo.entity.TimeSession;
+import produtivity.demo.repository.TimeSessionRepository;
+import produtivity.demo.repository.UserRepository;
+import produtivity.demo.service.TimeSessionIngestService;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares per-row JPA saves with the batched ingest path on the
+ * time_sessions table created by database/init.sql.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class TimeSessionIngestBenchmark {
+
+    private static final int SINGLE_ROW_COUNT = 2_000;
+    private static final int BATCH_ROW_COUNT = 10_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimeSessionRepository timeSessionRepository;
+
+    @Autowired
+    private TimeSessionIngestService ingestService;
+
+    private UUID userId;
+    private UUID projectId;
+
+    @BeforeEach
+    void seedUser() {
+        userId = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, 'x')",
+                userId, "bench-" + userId, userId + "@bench.local");
+        jdbcTemplate.update("INSERT INTO projects (id, user_id, name) VALUES (?, ?, 'Benchmark')",
+                projectId, userId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void singleRowSavesVersusBatchedIngest() {
+        ZonedDateTime base = ZonedDateTime.now().minusYears(1);
+
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROW_COUNT; i++) {
+            ZonedDateTime start = base.plusMinutes(i * 30L);
+            transactionTemplate.executeWithoutResult(status -> {
+                TimeSession session = new TimeSession(userRepository.getReferenceById(userId), start);
+                session.setEndTime(start.plusMinutes(25));
+                session.setDuration(25);
+                timeSessionRepository.save(session);
+            });
+        }
+        double singleRate = SINGLE_ROW_COUNT / seconds(System.nanoTime() - singleStart);
+
+        long batchedRows = 0;
+        long batchedNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            List<TimeSessionIngestRow> rows = rows(base.plusYears(round + 1L));
+            long start = System.nanoTime();
+            TimeSessionIngestResult result = ingestService.ingest(userId, rows);
+            batchedNanos += System.nanoTime() - start;
+            batchedRows += result.inserted();
+            assertThat(result.rejected()).isEmpty();
+        }
+        double batchedRate = batchedRows / seconds(batchedNanos);
+
+        // Re-sending the same rows must be a no-op
+        List<TimeSessionIngestRow> replay = rows(base.plusYears(10));
+        ingestService.ingest(userId, replay);
+        TimeSessionIngestResult replayed = ingestService.ingest(userId, replay);
+        assertThat(replayed.duplicates()).isEqualTo(replay.size());
+
+        System.out.printf("time_sessions ingest: single-row %.0f rows/s, batched %.0f rows/s (%.1fx)%n",
+                singleRate, batchedRate, batchedRate / singleRate);
+        assertThat(batchedRate).isGreaterThan(singleRate);
+    }
+
+    private List<TimeSessionIngestRow> rows(ZonedDateTime base) {
+        List<TimeSessionIngestRow> rows = new ArrayList<>(BATCH_ROW_COUNT);
+        for (int i = 0; i < BATCH_ROW_COUNT; i++) {
+            ZonedDateTime start = base.plusMinutes(i * 30L);
+            rows.add(new TimeSessionIngestRow(UUID.randomUUID(), null, projectId,
+                    start, start.plusMinutes(25), 25, null, false));
+        }
+        return rows;
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+}
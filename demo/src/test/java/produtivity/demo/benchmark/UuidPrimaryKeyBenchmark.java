@@ -0,0 +1,75 @@
+package produtivity.demo.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import produtivity.demo.entity.id.TimeOrderedUuid;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert rate and primary key index size for random v4 ids versus
+ * time-ordered v7 ids, on scratch tables shaped like time_sessions.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class UuidPrimaryKeyBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_ids_v4");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_ids_v7");
+    }
+
+    @Test
+    void v7IdsInsertFasterIntoSmallerIndexes() {
+        Result v4 = run("bench_ids_v4", UUID::randomUUID);
+        Result v7 = run("bench_ids_v7", TimeOrderedUuid::next);
+
+        System.out.printf("v4: %.0f rows/s, pkey %d MB%n", v4.rowsPerSecond(), v4.indexBytes() / (1024 * 1024));
+        System.out.printf("v7: %.0f rows/s, pkey %d MB%n", v7.rowsPerSecond(), v7.indexBytes() / (1024 * 1024));
+        assertThat(v7.indexBytes()).isLessThan(v4.indexBytes());
+    }
+
+    private Result run(String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " ("
+                + "id UUID PRIMARY KEY, "
+                + "start_time TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "duration INTEGER)");
+
+        String sql = "INSERT INTO " + table + " (id, duration) VALUES (?, ?)";
+        int[] argTypes = {Types.OTHER, Types.INTEGER};
+        long started = System.nanoTime();
+        for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(new Object[]{ids.get(), 25});
+            }
+            jdbcTemplate.batchUpdate(sql, batch, argTypes);
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+        return new Result(ROWS / seconds, indexBytes != null ? indexBytes : 0);
+    }
+
+    private record Result(double rowsPerSecond, long indexBytes) {
+    }
+}
@@ -0,0 +1,167 @@
+package produtivity.demo.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import produtivity.demo.DemoApplication;
+import produtivity.demo.security.JwtTokenProvider;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the dashboard endpoint with platform versus virtual request
+ * threads at several Hikari pool sizes. Each combination gets its own
+ * application context on a random port and is driven by a fixed number of
+ * concurrent clients for a fixed time.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int[] POOL_SIZES = {5, 10, 20, 40};
+    private static final int CLIENTS = 500;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration MEASURE = Duration.ofSeconds(15);
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<String> rows = new ArrayList<>();
+        UUID userId = null;
+        try {
+            for (boolean virtual : new boolean[]{false, true}) {
+                for (int poolSize : POOL_SIZES) {
+                    try (ConfigurableApplicationContext context = start(virtual, poolSize)) {
+                        if (userId == null) {
+                            userId = seed(context.getBean(JdbcTemplate.class));
+                        }
+                        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                        String token = context.getBean(JwtTokenProvider.class).issue(userId, "load", List.of());
+                        Result result = drive(URI.create("http://localhost:" + port + "/api/users/" + userId + "/dashboard"),
+                                token);
+                        rows.add(String.format("%-8s pool=%-3d %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  errors %d",
+                                virtual ? "virtual" : "platform", poolSize, result.requestsPerSecond(),
+                                result.p50Millis(), result.p99Millis(), result.errors()));
+                        assertThat(result.completed()).isPositive();
+                    }
+                }
+            }
+        } finally {
+            if (userId != null) {
+                try (ConfigurableApplicationContext context = start(false, 2)) {
+                    context.getBean(JdbcTemplate.class).update("DELETE FROM users WHERE id = ?", userId);
+                }
+            }
+        }
+        rows.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int poolSize) {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "spring.datasource.hikari.connection-timeout=30000",
+                        "time-sessions.rollups.backfill-on-startup=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+    }
+
+    // 10 projects of 50 tasks with 3 tags each
+    private static UUID seed(JdbcTemplate jdbcTemplate) {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, 'x')",
+                userId, "load-" + userId, userId + "@load.local");
+        List<UUID> tagIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UUID tagId = UUID.randomUUID();
+            tagIds.add(tagId);
+            jdbcTemplate.update("INSERT INTO tags (id, user_id, name) VALUES (?, ?, ?)", tagId, userId, "tag-" + i);
+        }
+        List<Object[]> tasks = new ArrayList<>();
+        List<Object[]> taskTags = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            UUID projectId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO projects (id, user_id, name) VALUES (?, ?, ?)", projectId, userId, "Project " + p);
+            for (int t = 0; t < 50; t++) {
+                UUID taskId = UUID.randomUUID();
+                tasks.add(new Object[]{taskId, projectId, "Task " + t, (t + 1L) << 20});
+                tagIds.forEach(tagId -> taskTags.add(new Object[]{taskId, tagId}));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, project_id, title, position) VALUES (?, ?, ?, ?)",
+                tasks, new int[]{Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BIGINT});
+        jdbcTemplate.batchUpdate("INSERT INTO task_tags (task_id, tag_id) VALUES (?, ?)",
+                taskTags, new int[]{Types.OTHER, Types.OTHER});
+        return userId;
+    }
+
+    private static Result drive(URI uri, String token) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long stopAt = measureFrom + MEASURE.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < stopAt) {
+                        long begin = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        if (begin < measureFrom) {
+                            continue;
+                        }
+                        if (ok) {
+                            latencies.add(System.nanoTime() - begin);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            return new Result(0, 0, 0, 0, errors.get());
+        }
+        return new Result(sorted.length,
+                sorted.length / (MEASURE.toNanos() / 1_000_000_000.0),
+                sorted[sorted.length / 2] / 1_000_000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1_000_000.0,
+                errors.get());
+    }
+
+    private record Result(int completed, double requestsPerSecond, double p50Millis, double p99Millis, int errors) {
+    }
+}
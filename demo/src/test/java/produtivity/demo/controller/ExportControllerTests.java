@@ -0,0 +1,25 @@
+package produtivity.demo.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportControllerTests {
+
+    @Test
+    void gzipsOnlyWhenTheClientAcceptsIt() {
+        assertThat(ExportController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ExportController.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(ExportController.acceptsGzip("*")).isTrue();
+        assertThat(ExportController.acceptsGzip(null)).isFalse();
+        assertThat(ExportController.acceptsGzip("identity")).isFalse();
+    }
+
+    @Test
+    void honoursAnExplicitRefusal() {
+        assertThat(ExportController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ExportController.acceptsGzip("deflate, gzip; q=0.000")).isFalse();
+        assertThat(ExportController.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ExportController.acceptsGzip("*;q=0")).isFalse();
+    }
+}
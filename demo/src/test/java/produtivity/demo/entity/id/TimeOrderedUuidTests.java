@@ -0,0 +1,79 @@
+package produtivity.demo.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class TimeOrderedUuidTests {
+
+    @Test
+    void setsVersionAndVariant() {
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void embedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        long timestamp = TimeOrderedUuid.timestampMillis(TimeOrderedUuid.next());
+
+        // The counter may borrow a millisecond or two under load
+        assertThat(timestamp).isBetween(before, System.currentTimeMillis() + 2);
+    }
+
+    @Test
+    void isStrictlyIncreasingWithinOneThread() {
+        UUID previous = TimeOrderedUuid.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = TimeOrderedUuid.next();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void staysUniqueAndOrderedAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 50_000;
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    UUID previous = null;
+                    for (int i = 0; i < perThread; i++) {
+                        UUID next = TimeOrderedUuid.next();
+                        if (previous != null && next.compareTo(previous) <= 0) {
+                            return false;
+                        }
+                        seen.add(next);
+                        previous = next;
+                    }
+                    return true;
+                }));
+            }
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+        assertThat(seen).hasSize(threads * perThread);
+    }
+
+    @Test
+    void rejectsOtherVersions() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TimeOrderedUuid.timestampMillis(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,105 @@
+package produtivity.demo.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InstrumentedDataSourceTests {
+
+    private static final String BY_PROJECT = "select t1_0.id from tasks t1_0 where t1_0.project_id=?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementMetrics metrics = new StatementMetrics(meterRegistry, 2, Duration.ofSeconds(10), 1.0, 3,
+            Duration.ofMinutes(10));
+    private final DataSource pool = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final InstrumentedDataSource dataSource = new InstrumentedDataSource(pool, () -> metrics);
+
+    InstrumentedDataSourceTests() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @Test
+    void timesStatementsByShape() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                PreparedStatement ps = con.prepareStatement(BY_PROJECT);
+                ps.setObject(1, i);
+                ps.executeQuery();
+            }
+        }
+
+        assertThat(meterRegistry.get("db.statements")
+                .tag("shape", "select t1_0.id from tasks t1_0 where t1_0.project_id=?")
+                .tag("operation", "select")
+                .tag("outcome", "success")
+                .timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void recordsFailures() throws SQLException {
+        when(statement.executeUpdate()).thenThrow(new SQLException("boom"));
+
+        try (Connection con = dataSource.getConnection()) {
+            PreparedStatement ps = con.prepareStatement("update tasks set title=? where id=?");
+            assertThatThrownBy(ps::executeUpdate).isInstanceOf(SQLException.class).hasMessage("boom");
+        }
+
+        assertThat(meterRegistry.get("db.statements").tag("shape", "update tasks set title=? where id=?")
+                .tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void flagsQueriesRepeatedWithinARequest() throws SQLException {
+        metrics.beginRequest();
+        try (Connection con = dataSource.getConnection()) {
+            for (int i = 0; i < 3; i++) {
+                con.prepareStatement(BY_PROJECT).executeQuery();
+            }
+            con.prepareStatement("select p1_0.id from projects p1_0 where p1_0.user_id=?").executeQuery();
+        }
+        metrics.endRequest("GET", "/users/{userId}/dashboard");
+
+        assertThat(meterRegistry.get("db.request.statements").tag("uri", "/users/{userId}/dashboard")
+                .summary().totalAmount()).isEqualTo(4);
+        assertThat(meterRegistry.get("db.statements.repeated").counters()).hasSize(1);
+        assertThat(meterRegistry.get("db.statements.repeated").counter().getId().getTag("shape"))
+                .isEqualTo("select t1_0.id from tasks t1_0 where t1_0.project_id=?");
+    }
+
+    @Test
+    void capsDistinctShapes() throws SQLException {
+        try (Connection con = dataSource.getConnection()) {
+            con.prepareStatement("select 1 from tasks").executeQuery();
+            con.prepareStatement("select 1 from projects").executeQuery();
+            con.prepareStatement("select 1 from tags").executeQuery();
+        }
+
+        assertThat(meterRegistry.get("db.statements").tag("shape", "other").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unwrapReachesTheDriver() throws SQLException {
+        PGConnection driver = mock(PGConnection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(driver);
+
+        try (Connection con = dataSource.getConnection()) {
+            assertThat(con.unwrap(PGConnection.class)).isSameAs(driver);
+            assertThat(con).isEqualTo(con);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package produtivity.demo.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlShapeTests {
+
+    @Test
+    void foldsLiteralsAndBindLists() {
+        assertThat(SqlShape.normalize("SELECT * FROM tasks WHERE id IN (?, ?, ?) AND status = 'DONE' AND priority > 3"))
+                .isEqualTo("SELECT * FROM tasks WHERE id IN (?) AND status = ? AND priority > ?");
+        assertThat(SqlShape.normalize("select t1_0.id from tasks t1_0 where t1_0.project_id in (?,?)"))
+                .isEqualTo("select t1_0.id from tasks t1_0 where t1_0.project_id in (?)");
+    }
+
+    @Test
+    void foldsMultiRowValues() {
+        assertThat(SqlShape.normalize("INSERT INTO task_tags (task_id, tag_id) VALUES (?::uuid, ?::uuid), (?::uuid, ?::uuid)"))
+                .isEqualTo("INSERT INTO task_tags (task_id, tag_id) VALUES (?)");
+    }
+
+    @Test
+    void dropsCommentsAndCollapsesWhitespace() {
+        assertThat(SqlShape.normalize("/* load Task */ select *\n  from   tasks -- trailing\n where title = 'it''s'"))
+                .isEqualTo("select * from tasks where title = ?");
+    }
+}
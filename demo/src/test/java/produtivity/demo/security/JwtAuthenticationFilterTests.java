@@ -0,0 +1,80 @@
+package produtivity.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTests {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-256-bits-long!!";
+
+    private final UUID userId = UUID.randomUUID();
+    private final JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 60_000);
+    private final UserPrincipalCache principals = mock(UserPrincipalCache.class);
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            new VerifiedTokenCache(provider, new SimpleMeterRegistry(), 100), provider, principals);
+    private final String accessToken = provider.issue(userId, "ada", List.of("USER"));
+    private final String streamToken = provider.issueStreamToken(provider.verify(accessToken));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void streamAcceptsStreamTokenFromQuery() throws Exception {
+        when(principals.findById(userId)).thenReturn(Optional.of(
+                new UserPrincipal(userId, "ada", "ada@example.com", "hash", true)));
+
+        assertThat(authenticate(request("/users/" + userId + "/timer/stream", streamToken)))
+                .satisfies(auth -> assertThat(((TokenPrincipal) auth.getPrincipal()).userId()).isEqualTo(userId));
+    }
+
+    @Test
+    void streamTokenOpensNothingElse() throws Exception {
+        when(principals.findById(userId)).thenReturn(Optional.of(
+                new UserPrincipal(userId, "ada", "ada@example.com", "hash", true)));
+        MockHttpServletRequest asBearer = request("/users/" + userId + "/tasks", null);
+        asBearer.addHeader("Authorization", "Bearer " + streamToken);
+
+        assertThat(authenticate(request("/users/" + userId + "/tasks", streamToken))).isNull();
+        assertThat(authenticate(asBearer)).isNull();
+        // An access token in the URL is not accepted either
+        assertThat(authenticate(request("/users/" + userId + "/timer/stream", accessToken))).isNull();
+    }
+
+    private Authentication authenticate(MockHttpServletRequest request) throws Exception {
+        Authentication[] seen = new Authentication[1];
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen[0] = SecurityContextHolder.getContext().getAuthentication();
+            }
+        });
+        SecurityContextHolder.clearContext();
+        return seen[0];
+    }
+
+    private static MockHttpServletRequest request(String path, String streamToken) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (streamToken != null) {
+            request.setParameter("stream_token", streamToken);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package produtivity.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHasher hasher = new PasswordHasher(new BlockingEncoder(), meterRegistry,
+            1, 1, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void verifiesOnThePool() {
+        release.countDown();
+
+        assertThat(hasher.matches("secret", "hashed:secret")).isTrue();
+        assertThat(hasher.matches("wrong", "hashed:secret")).isFalse();
+        assertThat(meterRegistry.get("security.password.hashing").tag("operation", "verify").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("security.password.queue.wait").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void refusesWorkBeyondTheQueue() throws Exception {
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> hasher.matches("a", "hashed:a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> hasher.matches("b", "hashed:b"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hasher.queued() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> hasher.matches("c", "hashed:c"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(meterRegistry.get("security.password.rejected").tag("reason", "queue-full").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void givesUpAfterMaxWait() throws Exception {
+        PasswordHasher impatient = new PasswordHasher(new BlockingEncoder(), meterRegistry, 1, 4, Duration.ofMillis(50));
+        try {
+            assertThatThrownBy(() -> impatient.matches("a", "hashed:a"))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+            assertThat(meterRegistry.get("security.password.rejected").tag("reason", "timeout").counter().count())
+                    .isEqualTo(1);
+        } finally {
+            release.countDown();
+            impatient.shutdown();
+        }
+    }
+
+    // Stands in for BCrypt, holding its thread until released
+    private final class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package produtivity.demo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserPrincipalCacheTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserPrincipalCache cache = new UserPrincipalCache(jdbcTemplate, new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(10), 2, Duration.ofMinutes(1), 4, Duration.ofMillis(100));
+
+    private final UserPrincipal ada = new UserPrincipal(UUID.randomUUID(), "ada", "ada@example.com", "hash", true);
+
+    @Test
+    void resolvesUsernameEmailAndIdFromOneLookup() {
+        givenLogin("ada", List.of(ada));
+
+        assertThat(cache.findByLogin("ada")).contains(ada);
+        assertThat(cache.findByLogin("ada@example.com")).contains(ada);
+        assertThat(cache.findById(ada.id())).contains(ada);
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), any(), any());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(ada.id()));
+    }
+
+    @Test
+    void remembersUnknownLogins() {
+        givenLogin("mallory", List.of());
+
+        assertThat(cache.findByLogin("mallory")).isEmpty();
+        assertThat(cache.findByLogin("mallory")).isEmpty();
+
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq("mallory"), eq("mallory"));
+    }
+
+    @Test
+    void unknownLoginsAreBounded() {
+        for (int i = 0; i < 100; i++) {
+            givenLogin("guess-" + i, List.of());
+            cache.findByLogin("guess-" + i);
+        }
+        assertThat(cache.unknownCount()).isEqualTo(2);
+
+        cache.findByLogin("guess-0");
+
+        // Only the most recent few stay remembered, so an early guess is looked up again
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), eq("guess-0"), eq("guess-0"));
+    }
+
+    @Test
+    void evictionDropsTheUserAndItsAliases() {
+        givenLogin("ada", List.of(ada));
+        cache.findByLogin("ada");
+        UserPrincipal renamed = new UserPrincipal(ada.id(), "ada.l", "ada@example.com", "hash", true);
+        givenLogin("ada", List.of());
+        givenLogin("ada.l", List.of(renamed));
+
+        cache.evict(ada.id());
+
+        assertThat(cache.cached(ada.id())).isEmpty();
+        assertThat(cache.findByLogin("ada")).isEmpty();
+        assertThat(cache.findByLogin("ada.l")).contains(renamed);
+    }
+
+    @Test
+    void newUsersAreNoLongerUnknown() {
+        givenLogin("grace", List.of());
+        cache.findByLogin("grace");
+        UserPrincipal grace = new UserPrincipal(UUID.randomUUID(), "grace", "grace@example.com", "hash", true);
+        givenLogin("grace", List.of(grace));
+
+        cache.forgetUnknown("grace", "grace@example.com");
+
+        assertThat(cache.findByLogin("grace")).contains(grace);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictionDuringALoginLoadDropsWhatTheLoadReturns() throws Exception {
+        givenLogin("ada", List.of(ada));
+        Thread[] evictor = new Thread[1];
+        // The password change commits while the login is still reading the old row
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(ada.id()))).thenAnswer(invocation -> {
+            evictor[0] = new Thread(() -> cache.evict(ada.id()));
+            evictor[0].start();
+            evictor[0].join(200);
+            return List.of(ada);
+        });
+
+        assertThat(cache.findByLogin("ada")).contains(ada);
+        evictor[0].join();
+
+        assertThat(cache.cached(ada.id())).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenLogin(String login, List<UserPrincipal> rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(login), eq(login)))
+                .thenReturn(rows.stream().map(UserPrincipal::id).toList());
+        for (UserPrincipal principal : rows) {
+            when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(principal.id()))).thenReturn(List.of(principal));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package produtivity.demo.security;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class VerifiedTokenCacheTests {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-256-bits-long!!";
+
+    private final JwtTokenProvider provider = spy(new JwtTokenProvider(SECRET, 60_000, 60_000));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(provider, registry, 100);
+
+    @Test
+    void verifiesEachTokenOnce() {
+        UUID userId = UUID.randomUUID();
+        String token = provider.issue(userId, "ada", List.of("USER"));
+
+        TokenPrincipal first = cache.verify(token);
+        TokenPrincipal second = cache.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.userId()).isEqualTo(userId);
+        assertThat(first.username()).isEqualTo("ada");
+        assertThat(first.roles()).isEqualTo(Set.of("USER"));
+        verify(provider, times(1)).verify(token);
+        assertThat(registry.get("security.jwt.verification").tag("result", "cached").timer().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "jwt-verified-tokens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTamperedTokensWithoutCachingThem() {
+        String token = provider.issue(UUID.randomUUID(), "ada", List.of());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsTokensSignedWithAnotherKey() {
+        JwtTokenProvider other = new JwtTokenProvider("another-secret-key-that-is-at-least-256-bits", 60_000, 60_000);
+        String token = other.issue(UUID.randomUUID(), "mallory", List.of("ADMIN"));
+
+        assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        JwtTokenProvider expired = new JwtTokenProvider(SECRET, -1_000, 60_000);
+        String token = expired.issue(UUID.randomUUID(), "ada", List.of());
+
+        assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,132 @@
+package produtivity.demo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import produtivity.demo.dto.DashboardView;
+import produtivity.demo.dto.ProjectDetailView;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the dashboard fetch plans against N+1 regressions: a small and a
+ * large user must cost the same number of JDBC statements.
+ */
+@Tag("database")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DashboardFetchPlanTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<UUID> users = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        users.forEach(id -> jdbcTemplate.update("DELETE FROM users WHERE id = ?", id));
+    }
+
+    @Test
+    void dashboardStatementCountIsIndependentOfDataSize() {
+        Seeded small = seed(2, 3, 2);
+        Seeded large = seed(20, 40, 5);
+
+        long smallCount = statements(() -> {
+            DashboardView view = dashboardService.dashboard(small.userId());
+            assertThat(view.projects()).hasSize(2);
+            assertThat(view.projects().get(0).tasks()).allSatisfy(t -> assertThat(t.tags()).hasSize(2));
+        });
+        long largeCount = statements(() -> {
+            DashboardView view = dashboardService.dashboard(large.userId());
+            assertThat(view.projects()).hasSize(20);
+            assertThat(view.projects().get(0).tasks()).allSatisfy(t -> assertThat(t.tags()).hasSize(5));
+        });
+
+        assertThat(largeCount).isEqualTo(smallCount).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void projectDetailStatementCountIsIndependentOfDataSize() {
+        Seeded small = seed(1, 3, 2);
+        Seeded large = seed(1, 200, 5);
+
+        long smallCount = statements(() -> {
+            ProjectDetailView view = dashboardService.projectDetail(small.userId(), small.projectIds().get(0));
+            assertThat(view.tasks()).hasSize(3);
+        });
+        long largeCount = statements(() -> {
+            ProjectDetailView view = dashboardService.projectDetail(large.userId(), large.projectIds().get(0));
+            assertThat(view.tasks()).hasSize(200);
+        });
+
+        assertThat(largeCount).isEqualTo(smallCount).isLessThanOrEqualTo(3);
+    }
+
+    private long statements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Seeded seed(int projects, int tasksPerProject, int tagsPerTask) {
+        UUID userId = UUID.randomUUID();
+        users.add(userId);
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, 'x')",
+                userId, "graph-" + userId, userId + "@graph.local");
+        UUID categoryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name) VALUES (?, ?, 'Work')", categoryId, userId);
+        List<UUID> tagIds = new ArrayList<>();
+        for (int i = 0; i < tagsPerTask; i++) {
+            UUID tagId = UUID.randomUUID();
+            tagIds.add(tagId);
+            jdbcTemplate.update("INSERT INTO tags (id, user_id, name) VALUES (?, ?, ?)", tagId, userId, "tag-" + i);
+        }
+
+        List<UUID> projectIds = new ArrayList<>();
+        List<Object[]> tasks = new ArrayList<>();
+        List<Object[]> taskTags = new ArrayList<>();
+        for (int p = 0; p < projects; p++) {
+            UUID projectId = UUID.randomUUID();
+            projectIds.add(projectId);
+            jdbcTemplate.update("INSERT INTO projects (id, user_id, name) VALUES (?, ?, ?)", projectId, userId, "Project " + p);
+            for (int t = 0; t < tasksPerProject; t++) {
+                UUID taskId = UUID.randomUUID();
+                tasks.add(new Object[]{taskId, projectId, categoryId, "Task " + t, (long) t + 1});
+                tagIds.forEach(tagId -> taskTags.add(new Object[]{taskId, tagId}));
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, project_id, category_id, title, position) VALUES (?, ?, ?, ?, ?)",
+                tasks, new int[]{Types.OTHER, Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BIGINT});
+        jdbcTemplate.batchUpdate("INSERT INTO task_tags (task_id, tag_id) VALUES (?, ?)",
+                taskTags, new int[]{Types.OTHER, Types.OTHER});
+        return new Seeded(userId, projectIds);
+    }
+
+    private record Seeded(UUID userId, List<UUID> projectIds) {
+    }
+}
@@ -0,0 +1,115 @@
+package produtivity.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import produtivity.demo.dto.TimeSessionIngestResult;
+import produtivity.demo.dto.TimeSessionIngestRow;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+import produtivity.demo.repository.ProjectRepository;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.repository.TimeSessionRepository;
+import produtivity.demo.repository.UserRepository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimeSessionIngestServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TimeSessionRepository timeSessionRepository = mock(TimeSessionRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final TimeSessionIngestService service = new TimeSessionIngestService(jdbcTemplate, userRepository,
+            mock(ProjectRepository.class), mock(TaskRepository.class), timeSessionRepository, eventPublisher, 500, 100);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void announcesOnlyRowsTheInsertReturned() {
+        TimeSessionIngestRow written = closed();
+        TimeSessionIngestRow raced = closed();
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(timeSessionRepository.findExistingIds(anyList())).thenReturn(List.of());
+        // A concurrent retry of the same batch inserted the second row first
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(written.id()));
+
+        TimeSessionIngestResult result = service.ingest(userId, List.of(written, raced));
+
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.duplicates()).isEqualTo(1);
+        ArgumentCaptor<TimeSessionsChangedEvent> event = ArgumentCaptor.forClass(TimeSessionsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().changes()).extracting(TimeSessionChange::after)
+                .singleElement()
+                .satisfies(session -> assertThat(session.id()).isEqualTo(written.id()));
+    }
+
+    @Test
+    void rejectsActiveSessions() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        TimeSessionIngestRow running = new TimeSessionIngestRow(UUID.randomUUID(), null, null,
+                ZonedDateTime.now(), null, null, null, true);
+
+        TimeSessionIngestResult result = service.ingest(userId, List.of(running));
+
+        assertThat(result.rejected()).singleElement()
+                .satisfies(rejection -> assertThat(rejection.reason()).contains("active"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void rejectsSessionsWithoutAnEndOrWithMoreMinutesThanTheirSpan() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        TimeSessionIngestRow open = new TimeSessionIngestRow(UUID.randomUUID(), null, null, start, null,
+                null, null, false);
+        TimeSessionIngestRow padded = new TimeSessionIngestRow(UUID.randomUUID(), null, null, start,
+                start.plusMinutes(30), 45, null, false);
+
+        TimeSessionIngestResult result = service.ingest(userId, List.of(open, padded));
+
+        assertThat(result.rejected()).extracting(rejection -> rejection.reason())
+                .containsExactly("endTime or duration is required",
+                        "duration is longer than the time between startTime and endTime");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void derivesTheEndFromTheDuration() {
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        TimeSessionIngestRow row = new TimeSessionIngestRow(UUID.randomUUID(), null, null, start, null,
+                25, null, false);
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(timeSessionRepository.findExistingIds(anyList())).thenReturn(List.of());
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(row.id()));
+
+        service.ingest(userId, List.of(row));
+
+        ArgumentCaptor<TimeSessionsChangedEvent> event = ArgumentCaptor.forClass(TimeSessionsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().changes().get(0).after().endTime()).isEqualTo(start.plusMinutes(25));
+    }
+
+    private static TimeSessionIngestRow closed() {
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        return new TimeSessionIngestRow(UUID.randomUUID(), null, null, start, start.plusMinutes(30),
+                null, "focus", false);
+    }
+}
@@ -0,0 +1,53 @@
+package produtivity.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TimeSessionUpdateRequest;
+import produtivity.demo.entity.TimeSession;
+import produtivity.demo.repository.TimeSessionRepository;
+import produtivity.demo.service.timer.ActiveSessionRegistry;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimeSessionServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID sessionId = UUID.randomUUID();
+    private final TimeSessionRepository repository = mock(TimeSessionRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ActiveSessionRegistry registry = mock(ActiveSessionRegistry.class);
+    private final TimeSessionService service = new TimeSessionService(repository, eventPublisher, registry);
+
+    @Test
+    void refusesToEditASessionWhoseStopIsStillQueued() {
+        // The registry let go of the session on stop, but the row is still active until the flush
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        TimeSession session = new TimeSession(null, start);
+        session.setIsActive(true);
+        when(registry.find(userId, sessionId)).thenReturn(Optional.empty());
+        when(repository.findByIdAndUser_Id(sessionId, userId)).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> service.update(userId, sessionId,
+                new TimeSessionUpdateRequest(start.minusMinutes(5), null, null, "renamed")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> service.delete(userId, sessionId))
+                .isInstanceOf(ResponseStatusException.class);
+
+        assertThat(session.getStartTime()).isEqualTo(start);
+        verify(repository, never()).delete(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
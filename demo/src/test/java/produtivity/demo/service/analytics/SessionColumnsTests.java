@@ -0,0 +1,128 @@
+package produtivity.demo.service.analytics;
+
+import org.junit.jupiter.api.Test;
+import produtivity.demo.dto.TimeBreakdownRow;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionColumnsTests {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Lisbon");
+    private static final UUID PROJECT_A = UUID.randomUUID();
+    private static final UUID PROJECT_B = UUID.randomUUID();
+    private static final UUID CATEGORY = UUID.randomUUID();
+
+    private final SessionColumns columns = new SessionColumns(ZONE);
+
+    @Test
+    void splitsSessionsAcrossLocalMidnight() {
+        put(UUID.randomUUID(), PROJECT_A, null, at(2024, 3, 4, 23, 0), 120);
+
+        assertThat(columns.breakdown(day(2024, 3, 4), day(2024, 3, 5), BreakdownPeriod.DAY, BreakdownDimension.NONE, null))
+                .containsExactly(
+                        new TimeBreakdownRow(day(2024, 3, 4), null, 60, 1),
+                        new TimeBreakdownRow(day(2024, 3, 5), null, 60, 0));
+    }
+
+    @Test
+    void groupsByMondayWeeksAndProject() {
+        put(UUID.randomUUID(), PROJECT_A, null, at(2024, 3, 3, 9, 0), 30);   // Sunday
+        put(UUID.randomUUID(), PROJECT_A, null, at(2024, 3, 4, 9, 0), 45);   // Monday
+        put(UUID.randomUUID(), PROJECT_B, null, at(2024, 3, 10, 9, 0), 15);  // Sunday
+
+        assertThat(columns.breakdown(day(2024, 3, 1), day(2024, 3, 10), BreakdownPeriod.WEEK, BreakdownDimension.PROJECT, null))
+                .containsExactly(
+                        new TimeBreakdownRow(day(2024, 2, 26), PROJECT_A, 30, 1),
+                        new TimeBreakdownRow(day(2024, 3, 4), PROJECT_A, 45, 1),
+                        new TimeBreakdownRow(day(2024, 3, 4), PROJECT_B, 15, 1));
+    }
+
+    @Test
+    void groupsByMonthAndCategoryWithinOneProject() {
+        UUID task = UUID.randomUUID();
+        columns.put(UUID.randomUUID(), PROJECT_A, task, CATEGORY, at(2024, 1, 31, 10, 0), at(2024, 1, 31, 11, 0), 60);
+        put(UUID.randomUUID(), PROJECT_A, null, at(2024, 2, 1, 10, 0), 20);
+        put(UUID.randomUUID(), PROJECT_B, null, at(2024, 2, 1, 10, 0), 99);
+
+        assertThat(columns.breakdown(day(2024, 1, 1), day(2024, 2, 29), BreakdownPeriod.MONTH, BreakdownDimension.CATEGORY, PROJECT_A))
+                .containsExactly(
+                        new TimeBreakdownRow(day(2024, 1, 1), CATEGORY, 60, 1),
+                        new TimeBreakdownRow(day(2024, 2, 1), null, 20, 1));
+        assertThat(columns.knowsTask(task)).isTrue();
+        assertThat(columns.categoryOf(task)).isEqualTo(CATEGORY);
+    }
+
+    @Test
+    void replacingOrRemovingASessionIsIdempotent() {
+        UUID session = UUID.randomUUID();
+        put(session, PROJECT_A, null, at(2024, 3, 4, 9, 0), 30);
+        put(session, PROJECT_A, null, at(2024, 3, 4, 9, 0), 30);
+        put(session, PROJECT_B, null, at(2024, 3, 5, 9, 0), 50);
+
+        assertThat(columns.breakdown(day(2024, 3, 4), day(2024, 3, 5), BreakdownPeriod.DAY, BreakdownDimension.PROJECT, null))
+                .containsExactly(new TimeBreakdownRow(day(2024, 3, 5), PROJECT_B, 50, 1));
+
+        columns.remove(session);
+        columns.remove(session);
+        assertThat(columns.breakdown(day(2024, 3, 4), day(2024, 3, 5), BreakdownPeriod.DAY, BreakdownDimension.NONE, null))
+                .isEmpty();
+    }
+
+    @Test
+    void compactsOnceManyRowsAreDead() {
+        UUID kept = UUID.randomUUID();
+        put(kept, PROJECT_A, null, at(2024, 3, 4, 9, 0), 10);
+        for (int i = 0; i < 3000; i++) {
+            UUID session = UUID.randomUUID();
+            put(session, PROJECT_B, null, at(2024, 3, 4, 10, 0), 1);
+            columns.remove(session);
+        }
+
+        assertThat(columns.rows()).isLessThan(1500);
+        assertThat(columns.breakdown(day(2024, 3, 4), day(2024, 3, 4), BreakdownPeriod.DAY, BreakdownDimension.PROJECT, null))
+                .containsExactly(new TimeBreakdownRow(day(2024, 3, 4), PROJECT_A, 10, 1));
+    }
+
+    @Test
+    void breaksDownManyTasksOverLongRangesInOrder() {
+        // 10 years by day and 5000 tasks: 18M possible slots, of which only 5000 are filled
+        for (int i = 4999; i >= 0; i--) {
+            put(UUID.randomUUID(), PROJECT_A, UUID.randomUUID(), at(2020, 1, 1, 9, 0).plusDays(i % 2000), 1 + i % 7);
+        }
+
+        List<TimeBreakdownRow> rows = columns.breakdown(day(2016, 1, 1), day(2025, 12, 31), BreakdownPeriod.DAY, BreakdownDimension.TASK, null);
+
+        assertThat(rows).hasSize(5000);
+        assertThat(rows.stream().mapToLong(TimeBreakdownRow::minutes).sum()).isEqualTo(
+                IntStream.range(0, 5000).map(i -> 1 + i % 7).sum());
+        assertThat(rows).isSortedAccordingTo(Comparator.comparing(TimeBreakdownRow::periodStart));
+    }
+
+    @Test
+    void unknownProjectFilterMatchesNothing() {
+        put(UUID.randomUUID(), PROJECT_A, null, at(2024, 3, 4, 9, 0), 10);
+
+        assertThat(columns.breakdown(day(2024, 3, 4), day(2024, 3, 4), BreakdownPeriod.DAY, BreakdownDimension.NONE, UUID.randomUUID()))
+                .isEmpty();
+    }
+
+    private void put(UUID session, UUID project, UUID task, ZonedDateTime start, int minutes) {
+        columns.put(session, project, task, null, start, start.plusMinutes(minutes), minutes);
+    }
+
+    private static ZonedDateTime at(int year, int month, int dayOfMonth, int hour, int minute) {
+        return ZonedDateTime.of(year, month, dayOfMonth, hour, minute, 0, 0, ZONE);
+    }
+
+    private static LocalDate day(int year, int month, int dayOfMonth) {
+        return LocalDate.of(year, month, dayOfMonth);
+    }
+}
@@ -0,0 +1,44 @@
+package produtivity.demo.service.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.dto.TagRequest;
+import produtivity.demo.entity.Tag;
+import produtivity.demo.entity.User;
+import produtivity.demo.repository.CategoryRepository;
+import produtivity.demo.repository.TagRepository;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.repository.UserRepository;
+import produtivity.demo.service.analytics.TimeAnalytics;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private final CatalogService service = new CatalogService(userRepository, mock(CategoryRepository.class),
+            tagRepository, mock(TaskRepository.class), mock(UserPreferenceStore.class), mock(TimeAnalytics.class));
+
+    @Test
+    void concurrentCreateOfTheSameTagIsAConflict() {
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(userRepository.getReferenceById(userId)).thenReturn(mock(User.class));
+        // The existence check passed, but another request inserted the name before this flush
+        when(tagRepository.saveAndFlush(any(Tag.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+
+        assertThatThrownBy(() -> service.createTag(userId, new TagRequest("focus", null)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+}
@@ -0,0 +1,60 @@
+package produtivity.demo.service.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NamePrefixIndexTests {
+
+    private final NamePrefixIndex<String> index = NamePrefixIndex.of(
+            List.of("Deep work", "Design review", "Café chats", "code-review", "Errands"), Function.identity());
+
+    @Test
+    void matchesWholeNamesBeforeLaterWords() {
+        assertThat(index.complete("re", 10)).containsExactly("code-review", "Design review");
+        assertThat(index.complete("de", 10)).containsExactly("Deep work", "Design review");
+        assertThat(index.complete("w", 10)).containsExactly("Deep work");
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(index.complete("CAFE", 10)).containsExactly("Café chats");
+        assertThat(index.complete("  café ", 10)).containsExactly("Café chats");
+    }
+
+    @Test
+    void stopsAtLimitAndIgnoresBlankQueries() {
+        assertThat(index.complete("d", 1)).containsExactly("Deep work");
+        assertThat(index.complete(" ", 10)).isEmpty();
+        assertThat(index.complete("zz", 10)).isEmpty();
+    }
+
+    @Test
+    void listsEachNameOnceWhenSeveralWordsMatch() {
+        NamePrefixIndex<String> repeated = NamePrefixIndex.of(List.of("plan the plan"), Function.identity());
+
+        assertThat(repeated.complete("pl", 10)).containsExactly("plan the plan");
+    }
+
+    @Test
+    void answersFromLargeCatalogs() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            names.add("tag " + i);
+        }
+        NamePrefixIndex<String> large = NamePrefixIndex.of(names, Function.identity());
+
+        assertThat(large.size()).isEqualTo(5000);
+        assertThat(large.complete("4999", 10)).containsExactly("tag 4999");
+        assertThat(large.complete("tag 12", 3)).containsExactly("tag 12", "tag 120", "tag 1200");
+    }
+
+    @Test
+    void escapesLikeWildcards() {
+        assertThat(Autocomplete.escapeLike("50%_off\\")).isEqualTo("50\\%\\_off\\\\");
+    }
+}
@@ -0,0 +1,68 @@
+package produtivity.demo.service.catalog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import produtivity.demo.config.CacheConfig;
+import produtivity.demo.entity.Tag;
+import produtivity.demo.entity.User;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCatalogInvalidatorTests {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.USER_CATEGORIES, CacheConfig.USER_TAGS, CacheConfig.USER_PREFERENCES);
+    private final UserCatalogInvalidator invalidator = new UserCatalogInvalidator(cacheManager);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evictsOnlyTheOwnersEntryInTheMatchingCache() {
+        UUID owner = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        Cache tags = cacheManager.getCache(CacheConfig.USER_TAGS);
+        Cache categories = cacheManager.getCache(CacheConfig.USER_CATEGORIES);
+        tags.put(owner, List.of());
+        tags.put(other, List.of());
+        categories.put(owner, List.of());
+
+        invalidator.onWrite(tagOf(owner));
+
+        assertThat(tags.get(owner)).isNull();
+        assertThat(tags.get(other)).isNotNull();
+        assertThat(categories.get(owner)).isNotNull();
+    }
+
+    @Test
+    void defersEvictionUntilTheTransactionCompletes() {
+        UUID owner = UUID.randomUUID();
+        Cache tags = cacheManager.getCache(CacheConfig.USER_TAGS);
+        tags.put(owner, List.of());
+        TransactionSynchronizationManager.initSynchronization();
+
+        invalidator.onWrite(tagOf(owner));
+        assertThat(tags.get(owner)).isNotNull();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertThat(tags.get(owner)).isNull();
+    }
+
+    private static Tag tagOf(UUID userId) {
+        User user = new User();
+        user.setId(userId);
+        return new Tag(user, "focus");
+    }
+}
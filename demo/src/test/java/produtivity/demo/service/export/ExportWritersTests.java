@@ -0,0 +1,73 @@
+package produtivity.demo.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportWritersTests {
+
+    private static final OffsetDateTime START = OffsetDateTime.of(2024, 3, 4, 9, 30, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new CsvExportWriter(out);
+        writer.begin(meta());
+        writer.writeRow(row("plain", 25, START));
+        writer.writeRow(row("say \"hi\", then\nleave", null, null));
+        writer.finish();
+
+        assertThat(out.toString(UTF_8)).isEqualTo(
+                "description,duration,start_time\r\n"
+                        + "plain,25,2024-03-04T09:30Z\r\n"
+                        + "\"say \"\"hi\"\", then\nleave\",,\r\n");
+    }
+
+    @Test
+    void ndjsonWritesOneTypedObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new NdjsonExportWriter(new JsonFactory(), out);
+        writer.begin(meta());
+        writer.writeRow(row("plain", 25, START));
+        writer.writeRow(row("line\nbreak", null, null));
+        writer.finish();
+
+        assertThat(out.toString(UTF_8)).isEqualTo(
+                "{\"description\":\"plain\",\"duration\":25,\"start_time\":\"2024-03-04T09:30Z\"}\n"
+                        + "{\"description\":\"line\\nbreak\",\"duration\":null,\"start_time\":null}\n");
+    }
+
+    private static ResultSetMetaData meta() throws SQLException {
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(meta.getColumnCount()).thenReturn(3);
+        when(meta.getColumnLabel(1)).thenReturn("description");
+        when(meta.getColumnType(1)).thenReturn(Types.VARCHAR);
+        when(meta.getColumnLabel(2)).thenReturn("duration");
+        when(meta.getColumnType(2)).thenReturn(Types.INTEGER);
+        when(meta.getColumnLabel(3)).thenReturn("start_time");
+        when(meta.getColumnType(3)).thenReturn(Types.TIMESTAMP);
+        return meta;
+    }
+
+    private static ResultSet row(String description, Integer duration, OffsetDateTime start) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(description);
+        when(rs.getString(2)).thenReturn(duration != null ? duration.toString() : null);
+        when(rs.getLong(2)).thenReturn(duration != null ? duration : 0L);
+        when(rs.wasNull()).thenReturn(duration == null);
+        when(rs.getObject(3, OffsetDateTime.class)).thenReturn(start);
+        return rs;
+    }
+}
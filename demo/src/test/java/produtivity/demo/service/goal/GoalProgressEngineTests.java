@@ -0,0 +1,139 @@
+package produtivity.demo.service.goal;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.entity.Goal.GoalType;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.event.TaskStatusChangedEvent;
+import produtivity.demo.service.UserTimezones;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GoalProgressEngineTests {
+
+    private static final String DELTA_SQL_PREFIX = "UPDATE goals SET current_value = GREATEST";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID marchGoal = UUID.randomUUID();
+    private final UUID aprilGoal = UUID.randomUUID();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final UserTimezones userTimezones = mock(UserTimezones.class);
+    private final GoalProgressEngine engine = new GoalProgressEngine(jdbcTemplate, mock(EntityManager.class),
+            mock(TransactionTemplate.class), userTimezones);
+    private final List<ResultSet> goals = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(userTimezones.lookup(anyCollection())).thenReturn(Map.<UUID, ZoneId>of(userId, ZoneOffset.UTC));
+        goals.add(goal(marchGoal, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+        goals.add(goal(aprilGoal, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30)));
+        // Serves the active goals query; the project recount finds no tasks
+        doAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            verify(connection).prepareStatement(sql.capture());
+            if (sql.getValue().contains("FROM goals")) {
+                for (ResultSet row : goals) {
+                    invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void countsCompletionInItsOwnWindow() {
+        ZonedDateTime completed = ZonedDateTime.of(2025, 3, 20, 10, 0, 0, 0, ZoneOffset.UTC);
+
+        engine.flush(buffer(TaskStatus.TODO, TaskStatus.COMPLETED, completed, completed));
+
+        assertThat(appliedDeltas()).containsExactly(new Object[]{1L, marchGoal});
+    }
+
+    @Test
+    void reopenTakesCompletionBackFromTheDayItWasMade() {
+        ZonedDateTime completed = ZonedDateTime.of(2025, 3, 20, 10, 0, 0, 0, ZoneOffset.UTC);
+        ZonedDateTime reopened = ZonedDateTime.of(2025, 4, 2, 9, 0, 0, 0, ZoneOffset.UTC);
+
+        engine.flush(buffer(TaskStatus.COMPLETED, TaskStatus.IN_PROGRESS, reopened, completed));
+
+        assertThat(appliedDeltas()).containsExactly(new Object[]{-1L, marchGoal});
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recountsEachGoalOverItsOwnWindow() throws Exception {
+        when(userTimezones.zoneOf(userId)).thenReturn(ZoneOffset.UTC);
+        doAnswer(invocation -> {
+            List<Object> mapped = new ArrayList<>();
+            for (ResultSet row : goals) {
+                mapped.add(invocation.<RowMapper<?>>getArgument(1).mapRow(row, mapped.size()));
+            }
+            return mapped;
+        }).when(jdbcTemplate).query(contains("FROM goals"), any(RowMapper.class), any(), any());
+        when(jdbcTemplate.queryForObject(contains("FROM tasks"), eq(Long.class), any(Object[].class)))
+                .thenAnswer(invocation -> invocation.getArgument(4, OffsetDateTime.class).getMonthValue() == 3 ? 4L : 0L);
+
+        engine.recount(userId);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE goals SET current_value = ?"), rows.capture(), any(int[].class));
+        assertThat(rows.getValue()).containsExactly(new Object[]{4, marchGoal, 4}, new Object[]{0, aprilGoal, 0});
+    }
+
+    private GoalDeltaBuffer buffer(TaskStatus from, TaskStatus to, ZonedDateTime changedAt, ZonedDateTime completedAt) {
+        GoalDeltaBuffer buffer = new GoalDeltaBuffer();
+        buffer.add(new TaskStatusChangedEvent(UUID.randomUUID(), projectId, userId, from, to, changedAt, completedAt));
+        return buffer;
+    }
+
+    private List<Object[]> appliedDeltas() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith(DELTA_SQL_PREFIX), rows.capture(), any(int[].class));
+        return rows.getValue();
+    }
+
+    private ResultSet goal(UUID goalId, LocalDate start, LocalDate end) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn(goalId);
+        when(rs.getObject("user_id", UUID.class)).thenReturn(userId);
+        when(rs.getString("goal_type")).thenReturn(GoalType.TASK_COUNT.name());
+        when(rs.getObject("start_date", LocalDate.class)).thenReturn(start);
+        when(rs.getObject("end_date", LocalDate.class)).thenReturn(end);
+        return rs;
+    }
+}
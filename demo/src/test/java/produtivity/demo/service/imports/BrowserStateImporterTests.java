@@ -0,0 +1,140 @@
+package produtivity.demo.service.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.dto.BrowserImportResult;
+import produtivity.demo.repository.UserRepository;
+import produtivity.demo.service.analytics.TimeAnalytics;
+import produtivity.demo.service.goal.GoalProgressEngine;
+import produtivity.demo.service.ordering.TaskPositions;
+import produtivity.demo.service.rollup.TimeRollupRebuildJob;
+
+import java.io.ByteArrayInputStream;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BrowserStateImporterTests {
+
+    private static final UUID USER = UUID.randomUUID();
+
+    // Timers come first here to show the blob's key order does not matter
+    private static final String BLOB = """
+            {
+              "stats": {"totalProjects": 1, "currentSession": null},
+              "taskTimers": {"11": 1500, "12": 0, "99": 60},
+              "projects": [
+                {"id": 1, "name": "Website", "color": "#10B981", "tasks": 2, "completed": 1,
+                 "status": "completed", "createdAt": "2024-03-01T08:00:00.000Z"}
+              ],
+              "tasks": [
+                {"id": 11, "title": "Landing page", "project": "Website", "priority": "high",
+                 "status": "completed", "createdAt": "2024-03-02T09:00:00.000Z"},
+                {"id": 12, "title": "Copy", "project": "Website", "priority": "low", "status": "todo"},
+                {"id": 13, "title": "Stray", "project": "Errands", "priority": "medium", "status": "todo"},
+                {"id": 14, "title": "  ", "project": "Website"}
+              ],
+              "isTimerRunning": false,
+              "lastUpdated": "2024-03-05T10:00:00.000Z"
+            }
+            """;
+
+    private final Map<String, List<Object[]>> written = new LinkedHashMap<>();
+    private final GoalProgressEngine goals = mock(GoalProgressEngine.class);
+    // Rows each session insert reports, 0 once the blob was imported before
+    private int sessionsInserted = 1;
+
+    @Test
+    void mapsProjectsTasksAndTimers() {
+        BrowserImportResult result = importer().importState(USER, new ByteArrayInputStream(BLOB.getBytes(UTF_8)));
+
+        assertThat(result.projects()).isEqualTo(2);
+        assertThat(result.tasks()).isEqualTo(3);
+        assertThat(result.timeSessions()).isEqualTo(1);
+        // The blank task and the timer of a task not in the blob
+        assertThat(result.skipped()).isEqualTo(2);
+
+        List<Object[]> projects = rows("INSERT INTO projects");
+        assertThat(projects).extracting(row -> row[2]).containsExactly("Website", "Errands");
+        assertThat(projects.get(0)[4]).isEqualTo("COMPLETED");
+
+        List<Object[]> tasks = rows("INSERT INTO tasks");
+        UUID website = (UUID) projects.get(0)[0];
+        assertThat(tasks).extracting(row -> row[1]).containsExactly(website, website, projects.get(1)[0]);
+        assertThat(tasks).extracting(row -> row[7])
+                .containsExactly(TaskPositions.spread(0), TaskPositions.spread(1), TaskPositions.spread(0));
+        assertThat(tasks.get(0)[4]).isEqualTo("HIGH");
+        assertThat(tasks.get(0)[5]).isEqualTo("COMPLETED");
+        assertThat(tasks.get(0)[9]).isNotNull();
+        assertThat(tasks.get(1)[9]).isNull();
+
+        Object[] session = rows("INSERT INTO time_sessions").get(0);
+        assertThat(session[2]).isEqualTo(tasks.get(0)[0]);
+        assertThat(session[4]).isEqualTo(OffsetDateTime.parse("2024-03-02T09:00:00Z"));
+        assertThat(session[5]).isEqualTo(OffsetDateTime.parse("2024-03-02T09:25:00Z"));
+        assertThat(session[6]).isEqualTo(25);
+        assertThat(rows("UPDATE tasks SET actual_duration").get(0)).containsExactly(25, tasks.get(0)[0]);
+        verify(goals).recount(USER);
+    }
+
+    @Test
+    void reimportLeavesTrackedDurationsAlone() {
+        sessionsInserted = 0;
+
+        BrowserImportResult result = importer().importState(USER, new ByteArrayInputStream(BLOB.getBytes(UTF_8)));
+
+        assertThat(result.timeSessions()).isZero();
+        assertThat(written.keySet()).noneMatch(sql -> sql.startsWith("UPDATE tasks SET actual_duration"));
+    }
+
+    @Test
+    void blobIdsAreStablePerUser() {
+        assertThat(BrowserStateImporter.blobId(USER, "task", "11")).isEqualTo(BrowserStateImporter.blobId(USER, "task", "11"));
+        assertThat(BrowserStateImporter.blobId(USER, "task", "11")).isNotEqualTo(BrowserStateImporter.blobId(USER, "project", "11"));
+        assertThat(BrowserStateImporter.blobId(USER, "task", "11"))
+                .isNotEqualTo(BrowserStateImporter.blobId(UUID.randomUUID(), "task", "11"));
+    }
+
+    private BrowserStateImporter importer() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), any(int[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            List<Object[]> rows = invocation.getArgument(1);
+            written.computeIfAbsent(sql.strip(), k -> new ArrayList<>()).addAll(rows);
+            int[] counts = new int[rows.size()];
+            Arrays.fill(counts, sql.contains("INSERT INTO time_sessions") ? sessionsInserted : 1);
+            return counts;
+        });
+        UserRepository users = mock(UserRepository.class);
+        when(users.existsById(USER)).thenReturn(true);
+        TimeRollupRebuildJob rollups = mock(TimeRollupRebuildJob.class);
+        return new BrowserStateImporter(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), users, rollups,
+                mock(TimeAnalytics.class), goals, new ImportTracker(1), new ObjectMapper(), new ConcurrentMapCacheManager(), 2);
+    }
+
+    private List<Object[]> rows(String statementPrefix) {
+        return written.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(statementPrefix))
+                .findFirst()
+                .map(Map.Entry::getValue)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package produtivity.demo.service.imports;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportPipelineTests {
+
+    private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("import-test-");
+    private final ImportProgress progress = new ImportProgress(UUID.randomUUID(), UUID.randomUUID(), ImportKind.TASKS);
+    private final ImportRejects rejects = new ImportRejects(2, progress);
+
+    @Test
+    void batchesValidRowsAndCountsEveryReject() {
+        List<Integer> batchSizes = new ArrayList<>();
+        ImportPipeline.run(records(25, null), ImportPipelineTests::evenOnly,
+                batch -> batchSizes.add(batch.size()), 4, rejects, progress, executor);
+
+        // 12 even numbers in 1..25, in batches of 4
+        assertThat(batchSizes).containsExactly(4, 4, 4);
+        assertThat(progress.read.sum()).isEqualTo(25);
+        assertThat(progress.rejected.sum()).isEqualTo(13);
+        assertThat(rejects.list()).hasSize(2).first().satisfies(reject -> {
+            assertThat(reject.line()).isEqualTo(1);
+            assertThat(reject.reason()).isEqualTo("odd");
+        });
+    }
+
+    @Test
+    void unreadableInputFailsAfterEarlierBatches() {
+        List<Integer> seen = new ArrayList<>();
+        assertThatThrownBy(() -> ImportPipeline.run(records(100, 10L), ImportPipelineTests::evenOnly,
+                seen::addAll, 2, rejects, progress, executor))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("broken at 10");
+        assertThat(seen).containsExactly(2, 4, 6, 8);
+    }
+
+    @Test
+    void sinkFailureStopsTheReader() {
+        assertThatThrownBy(() -> ImportPipeline.run(records(1_000_000, null), ImportPipelineTests::evenOnly,
+                batch -> {
+                    throw new IllegalStateException("copy failed");
+                }, 10, rejects, progress, executor))
+                .hasMessage("copy failed");
+        // The two-batch queue bounds how far the reader got
+        assertThat(progress.read.sum()).isLessThan(100);
+    }
+
+    private static Integer evenOnly(ImportRecord record) {
+        int value = Integer.parseInt(record.get("n"));
+        if (value % 2 != 0) {
+            throw new RowRejectedException("odd");
+        }
+        return value;
+    }
+
+    // Records n=1..count, throwing once failAt is reached
+    private static RecordReader records(int count, Long failAt) {
+        long[] line = {0};
+        return () -> {
+            if (line[0] == count) {
+                return null;
+            }
+            line[0]++;
+            if (failAt != null && line[0] == failAt) {
+                throw new IOException("broken at " + failAt);
+            }
+            return new ImportRecord(line[0], Map.of("n", Long.toString(line[0])));
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package produtivity.demo.service.imports;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordReadersTests {
+
+    @Test
+    void csvReadsQuotedFieldsAcrossLines() throws IOException {
+        RecordReader reader = csv("\uFEFFid,Start Time,description\r\n"
+                + "1,2024-03-04T09:00Z,plain\r\n"
+                + "\r\n"
+                + "2,2024-03-04T10:00Z,\"said \"\"hi\"\",\nthen left\"\n"
+                + "3,,\n");
+
+        ImportRecord first = reader.next();
+        assertThat(first.line()).isEqualTo(2);
+        assertThat(first.get("start_time")).isEqualTo("2024-03-04T09:00Z");
+        assertThat(first.get("id")).isEqualTo("1");
+
+        ImportRecord second = reader.next();
+        assertThat(second.line()).isEqualTo(4);
+        assertThat(second.get("description")).isEqualTo("said \"hi\",\nthen left");
+
+        ImportRecord third = reader.next();
+        assertThat(third.line()).isEqualTo(6);
+        assertThat(third.get("startTime")).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void csvFailsOnUnterminatedQuote() throws IOException {
+        RecordReader reader = csv("id,description\n1,\"never closed\n");
+
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("line 2");
+    }
+
+    @Test
+    void ndjsonJoinsArraysAndSkipsNulls() throws IOException {
+        RecordReader reader = new NdjsonRecordReader(new JsonFactory(), new ByteArrayInputStream((
+                "{\"title\":\"Write report\",\"tags\":[\"work\",\"urgent\"],\"estimatedDuration\":30}\n"
+                        + "{\"title\":\"Plan\",\"due_date\":null}\n").getBytes(UTF_8)));
+
+        ImportRecord first = reader.next();
+        assertThat(first.line()).isEqualTo(1);
+        assertThat(first.get("tags")).isEqualTo("work;urgent");
+        assertThat(first.get("estimated_duration")).isEqualTo("30");
+
+        ImportRecord second = reader.next();
+        assertThat(second.line()).isEqualTo(2);
+        assertThat(second.get("due_date")).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    private static RecordReader csv(String text) {
+        return new CsvRecordReader(new ByteArrayInputStream(text.getBytes(UTF_8)));
+    }
+}
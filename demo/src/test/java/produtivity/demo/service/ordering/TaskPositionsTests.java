@@ -0,0 +1,42 @@
+package produtivity.demo.service.ordering;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskPositionsTests {
+
+    @Test
+    void placesKeyHalfwayBetweenNeighbours() {
+        assertThat(TaskPositions.between(TaskPositions.spread(0), TaskPositions.spread(1)))
+                .hasValue(TaskPositions.GAP + TaskPositions.GAP / 2);
+    }
+
+    @Test
+    void extendsPastEitherEnd() {
+        assertThat(TaskPositions.between(null, null)).hasValue(TaskPositions.GAP);
+        assertThat(TaskPositions.between(null, 10L)).hasValue(10L - TaskPositions.GAP);
+        assertThat(TaskPositions.between(10L, null)).hasValue(10L + TaskPositions.GAP);
+    }
+
+    @Test
+    void reportsExhaustedGap() {
+        assertThat(TaskPositions.between(7L, 8L)).isEmpty();
+        assertThat(TaskPositions.between(7L, 7L)).isEmpty();
+    }
+
+    @Test
+    void repeatedInsertsIntoOneGapLastAboutTwentyMoves() {
+        long previous = TaskPositions.spread(0);
+        long next = TaskPositions.spread(1);
+        int moves = 0;
+        OptionalLong key;
+        while ((key = TaskPositions.between(previous, next)).isPresent()) {
+            next = key.getAsLong();
+            moves++;
+        }
+        assertThat(moves).isEqualTo(20);
+    }
+}
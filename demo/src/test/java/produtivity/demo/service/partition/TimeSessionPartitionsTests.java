@@ -0,0 +1,97 @@
+package produtivity.demo.service.partition;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TimeSessionPartitionsTests {
+
+    @Test
+    void partitionNamesRoundTrip() {
+        YearMonth month = YearMonth.of(2026, 3);
+
+        assertThat(TimeSessionPartitionMaintainer.partitionName(month)).isEqualTo("time_sessions_p2026_03");
+        assertThat(TimeSessionPartitionMaintainer.parseMonth("time_sessions_p2026_03")).contains(month);
+    }
+
+    @Test
+    void ignoresTablesThatAreNotMonthlyPartitions() {
+        assertThat(TimeSessionPartitionMaintainer.parseMonth("time_sessions_default")).isEmpty();
+        assertThat(TimeSessionPartitionMaintainer.parseMonth("time_sessions_p2026_13")).isEmpty();
+    }
+
+    @Test
+    void givesMonthsFoundInTheDefaultPartitionTheirOwn() {
+        JdbcTemplate jdbcTemplate = jdbcWithDefaultMonths(LocalDate.of(2019, 5, 1));
+
+        maintainer(jdbcTemplate, 0).maintain();
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE time_sessions_p2019_05 "));
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE time_sessions ATTACH PARTITION time_sessions_p2019_05 "));
+    }
+
+    @Test
+    void archivesDefaultRowsPastTheRetentionWindow() {
+        JdbcTemplate jdbcTemplate = jdbcWithDefaultMonths(LocalDate.of(2019, 5, 1));
+
+        maintainer(jdbcTemplate, 6).maintain();
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS time_sessions_p2019_05 "));
+        verify(jdbcTemplate).update(contains("INSERT INTO time_sessions_p2019_05 SELECT * FROM moved"));
+        verify(jdbcTemplate, never()).execute(contains("ATTACH PARTITION time_sessions_p2019_05"));
+    }
+
+    @Test
+    void retentionKeepsWholeUtcMonths() {
+        TimeSessionRetention retention = new TimeSessionRetention(6);
+        Instant now = Instant.parse("2026-10-31T23:30:00Z");
+
+        assertThat(retention.oldestKeptMonth(now)).contains(YearMonth.of(2026, 4));
+        assertThat(retention.cutoff(now)).contains(Instant.parse("2026-04-01T00:00:00Z"));
+        assertThat(retention.rollupHorizon(now)).contains(LocalDate.of(2026, 4, 3));
+    }
+
+    @Test
+    void retentionDisabledByDefault() {
+        TimeSessionRetention retention = new TimeSessionRetention(0);
+
+        assertThat(retention.isEnabled()).isFalse();
+        assertThat(retention.cutoff(Instant.now())).isEmpty();
+        assertThat(retention.rollupHorizon(Instant.now())).isEmpty();
+    }
+
+    private static JdbcTemplate jdbcWithDefaultMonths(LocalDate... months) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // Every month from now on is attached already
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<String> attached = new ArrayList<>();
+        for (int i = 0; i <= 3; i++) {
+            attached.add(TimeSessionPartitionMaintainer.partitionName(current.plusMonths(i)));
+        }
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class))).thenReturn(attached);
+        when(jdbcTemplate.queryForList(contains("time_sessions_default"), eq(LocalDate.class))).thenReturn(List.of(months));
+        return jdbcTemplate;
+    }
+
+    private static TimeSessionPartitionMaintainer maintainer(JdbcTemplate jdbcTemplate, int retentionMonths) {
+        return new TimeSessionPartitionMaintainer(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new TimeSessionRetention(retentionMonths), 3, false);
+    }
+}
@@ -0,0 +1,188 @@
+package produtivity.demo.service.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import produtivity.demo.entity.Task.TaskStatus;
+import produtivity.demo.service.ordering.TaskPositions;
+import produtivity.demo.service.query.TaskFilter.TaskSort;
+
+import java.sql.Types;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the listing queries are served by the V6 composite indexes as
+ * ordered range scans, with no sort step, for first and later pages. Listings
+ * across projects sort, but only one page per project.
+ */
+@Tag("database")
+@SpringBootTest
+class TaskQueryPlanTests {
+
+    private static final int TASKS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UUID userId;
+    private UUID projectId;
+    private UUID tagId;
+
+    @BeforeEach
+    void seed() {
+        userId = UUID.randomUUID();
+        projectId = UUID.randomUUID();
+        tagId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password_hash) VALUES (?, ?, ?, 'x')",
+                userId, "plan-" + userId, userId + "@plan.local");
+        jdbcTemplate.update("INSERT INTO projects (id, user_id, name) VALUES (?, ?, 'Plans')", projectId, userId);
+        jdbcTemplate.update("INSERT INTO tags (id, user_id, name) VALUES (?, ?, 'plan')", tagId, userId);
+
+        TaskStatus[] statuses = TaskStatus.values();
+        ZonedDateTime due = ZonedDateTime.now();
+        List<Object[]> tasks = new ArrayList<>(TASKS);
+        List<Object[]> tags = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            UUID id = UUID.randomUUID();
+            tasks.add(new Object[]{id, projectId, "Task " + i, statuses[i % statuses.length].name(),
+                    TaskPositions.spread(i), i % 3 == 0 ? null : due.plusHours(i).toOffsetDateTime()});
+            if (i % 100 == 0) {
+                tags.add(new Object[]{id, tagId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, project_id, title, status, position, due_date) VALUES (?, ?, ?, ?, ?, ?)",
+                tasks, new int[]{Types.OTHER, Types.OTHER, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP_WITH_TIMEZONE});
+        jdbcTemplate.batchUpdate("INSERT INTO task_tags (task_id, tag_id) VALUES (?, ?)",
+                tags, new int[]{Types.OTHER, Types.OTHER});
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("ANALYZE task_tags");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void projectListingSeeksOnPositionIndex() {
+        TaskFilter filter = filter(Set.of(), TaskSort.POSITION, null);
+
+        assertOrderedIndexScan(filter, null, "idx_tasks_project_position");
+        assertOrderedIndexScan(filter, new TaskCursor(TaskSort.POSITION, TaskPositions.spread(15_000), UUID.randomUUID()),
+                "idx_tasks_project_position");
+    }
+
+    @Test
+    void statusFilterSeeksOnStatusPositionIndex() {
+        TaskFilter filter = filter(Set.of(TaskStatus.IN_PROGRESS), TaskSort.POSITION, null);
+
+        assertOrderedIndexScan(filter, null, "idx_tasks_project_status_position");
+        assertOrderedIndexScan(filter, new TaskCursor(TaskSort.POSITION, TaskPositions.spread(15_000), UUID.randomUUID()),
+                "idx_tasks_project_status_position");
+    }
+
+    @Test
+    void dueDateSortSeeksOnDueDateIndex() {
+        TaskFilter filter = filter(Set.of(), TaskSort.DUE_DATE, null);
+        long micros = ZonedDateTime.now().plusHours(15_000).toInstant().toEpochMilli() * 1000;
+
+        assertOrderedIndexScan(filter, null, "idx_tasks_project_due_date");
+        assertOrderedIndexScan(filter, new TaskCursor(TaskSort.DUE_DATE, micros, UUID.randomUUID()),
+                "idx_tasks_project_due_date");
+    }
+
+    @Test
+    void crossProjectDueDateSortReadsOnePagePerProject() {
+        jdbcTemplate.update("INSERT INTO projects (id, user_id, name) VALUES (?, ?, 'Other plans')",
+                UUID.randomUUID(), userId);
+        TaskFilter filter = new TaskFilter(null, Set.of(), null, null, null, null, null, TaskSort.DUE_DATE);
+        long micros = ZonedDateTime.now().plusHours(15_000).toInstant().toEpochMilli() * 1000;
+
+        for (TaskCursor cursor : new TaskCursor[]{null, new TaskCursor(TaskSort.DUE_DATE, micros, UUID.randomUUID())}) {
+            JsonNode plan = plan(filter, cursor);
+            assertThat(indexesUsed(plan)).contains("idx_tasks_project_due_date");
+            assertThat(seqScannedRelations(plan)).doesNotContain("tasks");
+            // The final sort only sees the per-project pages, each cut off by its own limit
+            assertThat(nodeTypes(plan)).filteredOn("Limit"::equals).hasSize(2);
+        }
+    }
+
+    @Test
+    void tagFilterProbesTagIndex() {
+        TaskFilter filter = filter(Set.of(), TaskSort.POSITION, tagId);
+
+        assertThat(indexesUsed(plan(filter, null))).contains("idx_task_tags_tag_id");
+    }
+
+    private TaskFilter filter(Set<TaskStatus> statuses, TaskSort sort, UUID tag) {
+        return new TaskFilter(projectId, statuses, null, null, tag, null, null, sort);
+    }
+
+    private void assertOrderedIndexScan(TaskFilter filter, TaskCursor cursor, String index) {
+        JsonNode plan = plan(filter, cursor);
+        assertThat(indexesUsed(plan)).contains(index);
+        assertThat(nodeTypes(plan)).doesNotContain("Sort");
+        assertThat(seqScannedRelations(plan)).doesNotContain("tasks");
+    }
+
+    private JsonNode plan(TaskFilter filter, TaskCursor cursor) {
+        TaskQuerySql.Statement statement = TaskQuerySql.build(userId, filter, cursor, 51);
+        String json = namedJdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + statement.sql(),
+                statement.parameters(), String.class);
+        try {
+            return objectMapper.readTree(json).get(0).get("Plan");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> indexesUsed(JsonNode plan) {
+        List<String> names = new ArrayList<>();
+        collect(plan, "Index Name", names);
+        return names;
+    }
+
+    private static List<String> nodeTypes(JsonNode plan) {
+        List<String> types = new ArrayList<>();
+        collect(plan, "Node Type", types);
+        return types;
+    }
+
+    private static List<String> seqScannedRelations(JsonNode node) {
+        List<String> relations = new ArrayList<>();
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> relations.addAll(seqScannedRelations(child)));
+        }
+        return relations;
+    }
+
+    private static void collect(JsonNode node, String field, List<String> values) {
+        if (node.has(field)) {
+            values.add(node.get(field).asText());
+        }
+        if (node.has("Plans")) {
+            node.get("Plans").forEach(child -> collect(child, field, values));
+        }
+    }
+}
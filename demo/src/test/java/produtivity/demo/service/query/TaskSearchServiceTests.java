@@ -0,0 +1,46 @@
+package produtivity.demo.service.query;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TaskSearchServiceTests {
+
+    private final TaskSearchService service = new TaskSearchService(mock(NamedParameterJdbcTemplate.class));
+
+    @Test
+    void escapesTextBeforeTurningMarkersIntoTags() {
+        String headline = "Fix <b> \u0002tags\u0003 & \"quotes\"";
+
+        assertThat(TaskSearchService.toHtml(headline))
+                .isEqualTo("Fix &lt;b&gt; <mark>tags</mark> &amp; &quot;quotes&quot;");
+    }
+
+    @Test
+    void cursorKeepsTheExactRank() {
+        TaskSearchCursor cursor = new TaskSearchCursor("deep work".hashCode(), 0.1f / 3, UUID.randomUUID());
+
+        assertThat(TaskSearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsCursorFromAnotherQuery() {
+        String cursor = new TaskSearchCursor("deep work".hashCode(), 0.5f, UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> service.search(UUID.randomUUID(), "errands", cursor, 20))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("different query");
+    }
+
+    @Test
+    void rejectsBlankQueries() {
+        assertThatThrownBy(() -> service.search(UUID.randomUUID(), "   ", null, 20))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
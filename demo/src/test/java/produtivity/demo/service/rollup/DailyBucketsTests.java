@@ -0,0 +1,66 @@
+package produtivity.demo.service.rollup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DailyBucketsTests {
+
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+    @Test
+    void keepsSameDaySessionInOneBucket() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 3, 10, 9, 0, 0, 0, ZoneOffset.UTC);
+
+        Map<LocalDate, Integer> buckets = DailyBuckets.split(start, start.plusMinutes(90), 90, ZoneOffset.UTC);
+
+        assertThat(buckets).containsExactly(Map.entry(LocalDate.of(2025, 3, 10), 90));
+    }
+
+    @Test
+    void bucketsByUserTimezone() {
+        // 23:30 UTC is already the next day in Berlin
+        ZonedDateTime start = ZonedDateTime.of(2025, 3, 10, 23, 30, 0, 0, ZoneOffset.UTC);
+
+        Map<LocalDate, Integer> buckets = DailyBuckets.split(start, start.plusMinutes(20), 20, BERLIN);
+
+        assertThat(buckets).containsExactly(Map.entry(LocalDate.of(2025, 3, 11), 20));
+    }
+
+    @Test
+    void splitsAcrossMidnightProportionally() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 3, 10, 23, 0, 0, 0, BERLIN);
+
+        Map<LocalDate, Integer> buckets = DailyBuckets.split(start, start.plusHours(2), 120, BERLIN);
+
+        assertThat(buckets).containsExactly(
+                Map.entry(LocalDate.of(2025, 3, 10), 60),
+                Map.entry(LocalDate.of(2025, 3, 11), 60));
+    }
+
+    @Test
+    void partsAlwaysAddUpToRecordedDuration() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 3, 29, 22, 17, 0, 0, BERLIN);
+
+        // Spans the DST switch and four calendar days, with a duration that differs from wall time
+        Map<LocalDate, Integer> buckets = DailyBuckets.split(start, start.plusHours(50), 2_999, BERLIN);
+
+        assertThat(buckets.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(2_999);
+        assertThat(buckets).hasSize(4);
+    }
+
+    @Test
+    void sessionEndingAtMidnightStaysOnItsDay() {
+        ZonedDateTime start = ZonedDateTime.of(2025, 3, 10, 23, 0, 0, 0, ZoneOffset.UTC);
+
+        Map<LocalDate, Integer> buckets = DailyBuckets.split(start, start.plusHours(1), 60, ZoneOffset.UTC);
+
+        assertThat(buckets).containsExactly(Map.entry(LocalDate.of(2025, 3, 10), 60));
+    }
+}
@@ -0,0 +1,114 @@
+package produtivity.demo.service.rollup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import produtivity.demo.event.TimeSessionChange;
+import produtivity.demo.event.TimeSessionSnapshot;
+import produtivity.demo.event.TimeSessionsChangedEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskDurationAccumulatorTests {
+
+    private final UUID taskA = UUID.randomUUID();
+    private final UUID taskB = UUID.randomUUID();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TaskDurationAccumulator accumulator = new TaskDurationAccumulator(jdbcTemplate, new SimpleMeterRegistry());
+
+    @Test
+    void flushesNetDeltaPerTaskInOneUpdate() throws Exception {
+        accumulator.onSessionsChanged(new TimeSessionsChangedEvent(List.of(
+                TimeSessionChange.created(closed(taskA, 30)),
+                new TimeSessionChange(closed(taskA, 30), closed(taskA, 45)),
+                TimeSessionChange.deleted(closed(taskB, 10)))));
+
+        accumulator.flush();
+
+        assertThat(appliedDeltas()).containsOnly(Map.entry(taskA, 45), Map.entry(taskB, -10));
+        assertThat(accumulator.hasPending(taskA)).isFalse();
+    }
+
+    @Test
+    void skipsUntrackedAndOffsettingChanges() {
+        accumulator.onSessionsChanged(new TimeSessionsChangedEvent(List.of(
+                TimeSessionChange.created(running(taskA)),
+                TimeSessionChange.created(closed(null, 25)),
+                TimeSessionChange.created(closed(taskB, 20)),
+                TimeSessionChange.deleted(closed(taskB, 20)))));
+
+        assertThat(accumulator.hasPending(taskA)).isFalse();
+        assertThat(accumulator.hasPending(taskB)).isFalse();
+        accumulator.flush();
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void keepsDeltasWhenFlushFails() throws Exception {
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+        accumulator.onSessionsChanged(TimeSessionsChangedEvent.of(TimeSessionChange.created(closed(taskA, 15))));
+
+        accumulator.flush();
+        assertThat(accumulator.hasPending(taskA)).isTrue();
+        accumulator.onSessionsChanged(TimeSessionsChangedEvent.of(TimeSessionChange.created(closed(taskA, 5))));
+        accumulator.flush();
+
+        assertThat(appliedDeltas(2)).containsOnly(Map.entry(taskA, 20));
+        assertThat(accumulator.hasPending(taskA)).isFalse();
+    }
+
+    private Map<UUID, Integer> appliedDeltas() throws Exception {
+        return appliedDeltas(1);
+    }
+
+    // Runs the last captured statement creator against a mocked connection to read the bound arrays
+    private Map<UUID, Integer> appliedDeltas(int updates) throws Exception {
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, times(updates)).update(creator.capture());
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        creator.getValue().createPreparedStatement(connection);
+
+        ArgumentCaptor<Object[]> ids = ArgumentCaptor.forClass(Object[].class);
+        ArgumentCaptor<Object[]> minutes = ArgumentCaptor.forClass(Object[].class);
+        verify(connection).createArrayOf(eq("uuid"), ids.capture());
+        verify(connection).createArrayOf(eq("integer"), minutes.capture());
+        Map<UUID, Integer> deltas = new HashMap<>();
+        for (int i = 0; i < ids.getValue().length; i++) {
+            deltas.put((UUID) ids.getValue()[i], (Integer) minutes.getValue()[i]);
+        }
+        return deltas;
+    }
+
+    private static TimeSessionSnapshot closed(UUID taskId, int minutes) {
+        ZonedDateTime start = ZonedDateTime.now().minusHours(1);
+        return new TimeSessionSnapshot(UUID.randomUUID(), UUID.randomUUID(), null, taskId,
+                start, start.plusMinutes(minutes), minutes, false);
+    }
+
+    private static TimeSessionSnapshot running(UUID taskId) {
+        return new TimeSessionSnapshot(UUID.randomUUID(), UUID.randomUUID(), null, taskId,
+                ZonedDateTime.now(), null, null, true);
+    }
+}
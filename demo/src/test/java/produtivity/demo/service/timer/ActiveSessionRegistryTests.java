@@ -0,0 +1,71 @@
+package produtivity.demo.service.timer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import produtivity.demo.dto.TimerStartRequest;
+import produtivity.demo.repository.ProjectRepository;
+import produtivity.demo.repository.TaskRepository;
+import produtivity.demo.service.timer.PendingWrite.Started;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ActiveSessionRegistryTests {
+
+    private final ActiveSessionStore store = mock(ActiveSessionStore.class);
+    private final ActiveSessionRegistry registry = new ActiveSessionRegistry(store,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(ApplicationEventPublisher.class),
+            mock(TaskRepository.class), mock(ProjectRepository.class), Duration.ofMinutes(10), 2);
+    private final List<UUID> inserted = new ArrayList<>();
+
+    @Test
+    void dropsWritesTheDatabaseRejectsSoLaterOnesStillFlush() {
+        ActiveSession poison = registry.start(UUID.randomUUID(), new TimerStartRequest(null, null, "poison"));
+        ActiveSession healthy = registry.start(UUID.randomUUID(), new TimerStartRequest(null, null, "healthy"));
+        failInsertsOf(poison, new DataIntegrityViolationException("violates foreign key constraint"));
+
+        registry.flush();
+
+        assertThat(inserted).containsExactly(healthy.sessionId());
+        // Nothing is left queued, so starts are accepted again
+        registry.start(UUID.randomUUID(), new TimerStartRequest(null, null, "next"));
+        registry.start(UUID.randomUUID(), new TimerStartRequest(null, null, "after"));
+    }
+
+    @Test
+    void keepsWritesQueuedWhenTheDatabaseIsUnavailable() {
+        ActiveSession first = registry.start(UUID.randomUUID(), new TimerStartRequest(null, null, null));
+        ActiveSession second = registry.start(UUID.randomUUID(), new TimerStartRequest(null, null, null));
+        failInsertsOf(first, new DataAccessResourceFailureException("connection refused"));
+
+        registry.flush();
+        assertThat(inserted).isEmpty();
+        failInsertsOf(null, null);
+        registry.flush();
+
+        assertThat(inserted).containsExactly(first.sessionId(), second.sessionId());
+    }
+
+    // Inserts fail for any batch containing the given session, or for none when it is null
+    private void failInsertsOf(ActiveSession failing, RuntimeException failure) {
+        doAnswer(invocation -> {
+            List<Started> started = invocation.getArgument(0);
+            if (failing != null && started.stream().anyMatch(s -> s.session().equals(failing))) {
+                throw failure;
+            }
+            started.forEach(s -> inserted.add(s.session().sessionId()));
+            return null;
+        }).when(store).insertStarted(anyList());
+    }
+}
@@ -0,0 +1,153 @@
+package produtivity.demo.service.timer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+import produtivity.demo.controller.TimerController;
+import produtivity.demo.security.JwtTokenProvider;
+import produtivity.demo.service.timer.PendingWrite.Stopped;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class TimerStreamsTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final ActiveSessionRegistry registry = mock(ActiveSessionRegistry.class);
+    private final TimerStreams streams = new TimerStreams(registry, new SimpleMeterRegistry(),
+            3, 2, Duration.ofSeconds(15), Duration.ofMinutes(5), Duration.ofMinutes(5), 4, 32);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TimerController(registry, streams, mock(JwtTokenProvider.class))).build();
+
+    @AfterEach
+    void tearDown() {
+        streams.shutdown();
+    }
+
+    @Test
+    void startsWithSnapshotThenStreamsTransitions() throws Exception {
+        when(registry.current(userId)).thenReturn(Optional.empty());
+        MvcResult stream = open(null);
+        awaitContent(stream, "event:snapshot");
+
+        ActiveSession session = session();
+        streams.onTimerChanged(new TimerChangedEvent(userId, session, null));
+
+        String content = awaitContent(stream, session.sessionId().toString());
+        assertThat(content).contains("\"running\":null").contains("event:started");
+    }
+
+    @Test
+    void resumesFromLastEventId() throws Exception {
+        ActiveSession first = session();
+        ActiveSession second = session();
+        streams.onTimerChanged(new TimerChangedEvent(userId, first, null));
+        MvcResult initial = open(null);
+        when(registry.current(userId)).thenReturn(Optional.of(first));
+        String lastId = lastId(awaitContent(initial, "\n\n"));
+
+        streams.onTimerChanged(new TimerChangedEvent(userId, second, stopped(first)));
+        MvcResult resumed = open(lastId);
+
+        String content = awaitContent(resumed, second.sessionId().toString());
+        assertThat(content).contains("event:stopped").doesNotContain("event:snapshot");
+        assertThat(content.indexOf("event:stopped")).isLessThan(content.indexOf("event:started"));
+    }
+
+    @Test
+    void fallsBackToSnapshotForUnknownIds() throws Exception {
+        when(registry.current(userId)).thenReturn(Optional.empty());
+
+        assertThat(awaitContent(open("elsewhere-42"), "event:snapshot")).doesNotContain("event:started");
+    }
+
+    @Test
+    void ticksRunningTimers() throws Exception {
+        ActiveSession session = session();
+        when(registry.current(userId)).thenReturn(Optional.of(session));
+        TimerStreams eager = new TimerStreams(registry, new SimpleMeterRegistry(),
+                3, 2, Duration.ZERO, Duration.ofMinutes(5), Duration.ofMinutes(5), 4, 32);
+        try {
+            MvcResult stream = MockMvcBuilders.standaloneSetup(new TimerController(registry, eager, mock(JwtTokenProvider.class))).build()
+                    .perform(get("/users/{userId}/timer/stream", userId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            awaitContent(stream, "event:snapshot");
+
+            eager.tick();
+
+            assertThat(awaitContent(stream, "event:tick")).contains("elapsedSeconds");
+        } finally {
+            eager.shutdown();
+        }
+    }
+
+    @Test
+    void enforcesConnectionLimits() throws Exception {
+        when(registry.current(userId)).thenReturn(Optional.empty());
+        open(null);
+        open(null);
+
+        assertThatThrownBy(() -> streams.subscribe(userId, null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        streams.subscribe(UUID.randomUUID(), null);
+        assertThatThrownBy(() -> streams.subscribe(UUID.randomUUID(), null))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThat(streams.subscriberCount()).isEqualTo(3);
+    }
+
+    private MvcResult open(String lastEventId) throws Exception {
+        var request = get("/users/{userId}/timer/stream", userId);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static String lastId(String content) {
+        Matcher ids = Pattern.compile("^id:(\\S+)\n\n", Pattern.MULTILINE).matcher(content);
+        String last = null;
+        while (ids.find()) {
+            last = ids.group(1);
+        }
+        return last;
+    }
+
+    private ActiveSession session() {
+        Instant now = Instant.now();
+        return new ActiveSession(UUID.randomUUID(), userId, null, null, ZonedDateTime.now().minusMinutes(5),
+                null, now, now);
+    }
+
+    private static Stopped stopped(ActiveSession session) {
+        return new Stopped(session, ZonedDateTime.now(), 5);
+    }
+}